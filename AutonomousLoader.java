@@ -6,101 +6,136 @@ package Main;
 
 
 // AutonomousLoader.java
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.ThreadLocalRandom;
-import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class AutonomousLoader implements Runnable {
     private final int loaderId;
-    private final BlockingQueue<Container> containerQueue;
-    private final LoadingBay[] loadingBays;
+    private final LoaderWorkQueues work;
+    private final BayScheduler bayScheduler;
+    private final LoaderFleet fleet;
     private final Statistics statistics;
-    private final OrderIntakeSystem orderIntake;
-    private final SortingArea sortingArea;
-    private volatile boolean isOperational = true;
+    private final DurationRange loadTime;
+    private final DurationRange maintenanceTime;
+    private final SimulationClock clock;
+    private final EventLog eventLog;
+    private final OrderJournal journal;
+    private volatile boolean isOperational;
     private final AtomicInteger containersLoaded = new AtomicInteger(0);
+    private static final long IDLE_POLL_MILLIS = 200;
     
-    public AutonomousLoader(int loaderId, BlockingQueue<Container> containerQueue, 
-                           LoadingBay[] loadingBays, Statistics statistics, 
-                           OrderIntakeSystem orderIntake, SortingArea sortingArea) {
+    public AutonomousLoader(int loaderId, LoaderWorkQueues work, 
+                           BayScheduler bayScheduler, LoaderFleet fleet, Statistics statistics,
+                           DurationRange loadTime, DurationRange maintenanceTime, SimulationClock clock, 
+                           EventLog eventLog, OrderJournal journal) {
         this.loaderId = loaderId;
-        this.containerQueue = containerQueue;
-        this.loadingBays = loadingBays;
+        this.work = work;
+        this.bayScheduler = bayScheduler;
+        this.fleet = fleet;
         this.statistics = statistics;
-        this.orderIntake = orderIntake;
-        this.sortingArea = sortingArea;
+        this.loadTime = loadTime;
+        this.maintenanceTime = maintenanceTime;
+        this.clock = clock;
+        this.eventLog = eventLog;
+        this.journal = journal;
+        this.isOperational = !fleet.isStandby(loaderId);
     }
     
     @Override
     public void run() {
         try {
-            while (orderIntake.isRunning() || !containerQueue.isEmpty()) {
-                // Simulate random breakdowns (5% chance per operation)
-                if (ThreadLocalRandom.current().nextDouble() < 0.05) {
-                    isOperational = false;
-                    System.out.println("Loader-" + loaderId + ": BREAKDOWN! Undergoing maintenance (Thread: " + 
-                                     Thread.currentThread().getName() + ")");
-                    Thread.sleep(ThreadLocalRandom.current().nextInt(2000, 5000)); // Maintenance time
+            boolean parked = fleet.isStandby(loaderId);
+            while (!work.isDrained() || fleet.hasStranded()) {
+                // Standby loaders wait on their stand until the fleet calls them in
+                if (parked) {
+                    if (!fleet.awaitDuty(loaderId, IDLE_POLL_MILLIS)) continue;
+                    parked = false;
                     isOperational = true;
-                    System.out.println("Loader-" + loaderId + ": Back online after maintenance (Thread: " + 
-                                     Thread.currentThread().getName() + ")");
+                    eventLog.log(EventType.LOADER_STANDBY_CALLED, loaderId, fleet.getOperational());
                 }
-                
-                if (!isOperational) continue;
-                
-                Container container = containerQueue.poll();
-                if (container == null) {
-                    Thread.sleep(200);
+                if (fleet.shouldPark(loaderId)) {
+                    parked = true;
+                    isOperational = false;
+                    eventLog.log(EventType.LOADER_STANDBY_PARKED, loaderId);
                     continue;
                 }
                 
-                // Find available loading bay
-                LoadingBay availableBay = null;
-                for (LoadingBay bay : loadingBays) {
-                    if (bay.tryLock()) {
-                        availableBay = bay;
-                        break;
-                    }
-                }
-                
-                if (availableBay == null) {
-                    // No available bays, put container back and wait
-                    containerQueue.offer(container);
-                    System.out.println("Loader-" + loaderId + ": All loading bays occupied, waiting... (Thread: " + 
-                                     Thread.currentThread().getName() + ")");
-                    Thread.sleep(500);
+                // Preventive service before the predicted failure chance gets too high
+                int predictedPerMille = (int) Math.round(fleet.predictedFailure(loaderId) * 1000);
+                if (fleet.startServiceIfDue(loaderId)) {
+                    isOperational = false;
+                    eventLog.log(EventType.LOADER_SERVICE_STARTED, loaderId, predictedPerMille);
+                    clock.sleep(maintenanceTime.sample() / 2); // A planned service is quicker than a repair
+                    fleet.backOnline(loaderId, false);
+                    isOperational = true;
+                    eventLog.log(EventType.LOADER_SERVICED, loaderId);
                     continue;
                 }
                 
+                // Containers dropped by a broken-down loader go first, then the loader's own claim,
+                // a peer's or the sorter's; idle polls time out so the loader keeps checking for
+                // stranded work and standby changes
+                Container container = fleet.takeStranded();
+                if (container == null) container = work.next(loaderId, IDLE_POLL_MILLIS);
+                if (container == null) continue;
+                
+                // Wear decides up front whether this move ends in a breakdown halfway to the bay
+                boolean breaksDown = fleet.breaksDownOnMove(loaderId);
+                
+                // Wait for a free bay while keeping the container, so containers stay in order
+                LoadingBay availableBay = bayScheduler.acquireBay(loaderId);
+                Container loaded = null;
+                
                 try {
-                    System.out.println("Loader-" + loaderId + ": Moving Container #" + container.getContainerId() + 
-                                     " to Loading Bay-" + availableBay.getBayId() + " (Thread: " + 
-                                     Thread.currentThread().getName() + ")");
+                    eventLog.log(EventType.CONTAINER_MOVING, loaderId, container.getContainerId(), 
+                                 availableBay.getBayId());
                     
                     // Simulate loading time
-                    Thread.sleep(ThreadLocalRandom.current().nextInt(1000, 2000));
-                    
-                    availableBay.addContainer(container);
-                    containersLoaded.incrementAndGet();
-                    
-                    System.out.println("Loader-" + loaderId + ": Container #" + container.getContainerId() + 
-                                     " loaded to Bay-" + availableBay.getBayId() + " (Thread: " + 
-                                     Thread.currentThread().getName() + ")");
+                    long workTime = loadTime.sample();
+                    if (breaksDown) workTime /= 2;
+                    clock.sleep(workTime);
+                    statistics.recordStageBusyTime(Statistics.STAGE_LOADING, workTime);
                     
+                    if (!breaksDown) {
+                        long now = clock.currentTimeMillis();
+                        for (int i = 0; i < container.getOrderCount(); i++) {
+                            statistics.completeStage(Statistics.STAGE_LOADING, container.getOrder(i), now,
+                                                     availableBay.getBayId());
+                        }
+                        journal.record(JournalRecordType.LOADED, container.getContainerId(), container.getZone(),
+                                       availableBay.getBayId());
+                        loaded = container;
+                        containersLoaded.incrementAndGet();
+                        
+                        eventLog.log(EventType.CONTAINER_LOADED, loaderId, container.getContainerId(),
+                                     availableBay.getBayId());
+                    }
+                
                 } finally {
-                    availableBay.unlock();
+                    bayScheduler.releaseBay(availableBay, loaded);
+                }
+                
+                if (breaksDown) {
+                    // The container goes back to the fleet for another loader while this one is repaired
+                    isOperational = false;
+                    fleet.brokeDown(loaderId, container);
+                    eventLog.log(EventType.LOADER_DROPPED_CONTAINER, loaderId, container.getContainerId());
+                    eventLog.log(EventType.LOADER_BREAKDOWN, loaderId);
+                    clock.sleep(maintenanceTime.sample());
+                    fleet.backOnline(loaderId, true);
+                    isOperational = true;
+                    eventLog.log(EventType.LOADER_RECOVERED, loaderId);
                 }
             }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             System.err.println("Loader-" + loaderId + " interrupted: " + e.getMessage());
+        } finally {
+            bayScheduler.loaderFinished();
         }
-        System.out.println("Loader-" + loaderId + ": Shutting down after loading " + 
-                         containersLoaded.get() + " containers (Thread: " + 
-                         Thread.currentThread().getName() + ")");
+        eventLog.log(EventType.LOADER_STOPPED, loaderId, containersLoaded.get());
     }
     
+    public int getLoaderId() { return loaderId; }
     public boolean isOperational() { return isOperational; }
     public int getContainersLoaded() { return containersLoaded.get(); }
 }
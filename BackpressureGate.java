@@ -0,0 +1,109 @@
+package Main;
+
+
+// BackpressureGate.java
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/*
+ * Occupancy counter with hysteresis. Producers call increment/decrement as capacity is
+ * used and freed; an upstream stage calls awaitOpen() and is held while the gate is paused.
+ * A listener hears every pause (true) and resume (false), under the gate's lock, so it must
+ * not block.
+ */
+public class BackpressureGate {
+    private final String name;
+    private final int pauseAt;
+    private final int resumeBelow;
+    private final Statistics statistics;
+    private final EventLog eventLog;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ClockCondition opened;
+    private int level = 0;
+    private boolean paused = false;
+    private Consumer<Boolean> listener = state -> { };
+
+    public BackpressureGate(String name, int pauseAt, int resumeBelow, SimulationClock clock, 
+                            Statistics statistics, EventLog eventLog) {
+        if (resumeBelow > pauseAt) {
+            throw new IllegalArgumentException("Resume level " + resumeBelow + " is above pause level " + pauseAt);
+        }
+        this.name = name;
+        this.pauseAt = pauseAt;
+        this.resumeBelow = resumeBelow;
+        this.statistics = statistics;
+        this.eventLog = eventLog;
+        this.opened = clock.newCondition(lock);
+    }
+
+    public void increment() {
+        lock.lock();
+        try {
+            level++;
+            if (!paused && level >= pauseAt) {
+                paused = true;
+                statistics.recordBackpressurePause(name);
+                eventLog.log(EventType.BACKPRESSURE_PAUSED, level);
+                listener.accept(true);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void decrement() {
+        lock.lock();
+        try {
+            level--;
+            if (paused && level < resumeBelow) {
+                paused = false;
+                statistics.recordBackpressureResume(name);
+                eventLog.log(EventType.BACKPRESSURE_RESUMED, level);
+                opened.signalAll();
+                listener.accept(false);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void setListener(Consumer<Boolean> listener) {
+        lock.lock();
+        try {
+            this.listener = listener;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void awaitOpen() throws InterruptedException {
+        lock.lock();
+        try {
+            while (paused) {
+                opened.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isPaused() {
+        lock.lock();
+        try {
+            return paused;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLevel() {
+        lock.lock();
+        try {
+            return level;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String getName() { return name; }
+}
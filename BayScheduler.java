@@ -0,0 +1,303 @@
+package Main;
+
+
+// BayScheduler.java
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ * Owns the loading bays and hands them out to loaders and trucks. Loaders wait for a bay
+ * that is free and has room; trucks queue FIFO and only the truck at the head of the line
+ * is given containers, so no truck is starved by later arrivals. Every container placed in a
+ * bay is reported to the TruckDispatcher, which times the head truck's departure.
+ *
+ * Each arriving truck docks at the bay with the fewest trucks docked, and the BaySelection
+ * policy decides which free bay a loader gets; with TRUCK_AFFINITY loaders fill the docks of
+ * the trucks in line order and a truck empties its own dock before the others.
+ */
+public class BayScheduler {
+    private final LoadingBay[] loadingBays;
+    private final boolean[] bayInUse; // A loader is moving a container into the bay
+    private final long[] busySince;
+    private final Statistics statistics;
+    private final SimulationClock clock;
+    private final TruckDispatcher dispatcher;
+    private final BaySelection selection;
+    private final int[] dockedTrucks;
+    private final Map<Integer, Integer> dockOf = new HashMap<>(); // Truck id -> bay index
+    private final Set<Integer> released = new HashSet<>();        // Spare trucks sent to another facility
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ClockCondition bayFree;
+    private final ClockCondition containerAvailable;
+    private final ArrayDeque<Integer> waitingLoaders = new ArrayDeque<>();
+    private final ArrayDeque<Integer> waitingTrucks = new ArrayDeque<>();
+    private int activeLoaders;
+    private int nextBay;          // Rotating start for round-robin and for ties
+    private int collected;
+    private int collectedAtDock;
+
+    public BayScheduler(LoadingBay[] loadingBays, int loaders, Statistics statistics, TruckDispatcher dispatcher, 
+                        BaySelection selection, SimulationClock clock) {
+        this.loadingBays = loadingBays;
+        this.bayInUse = new boolean[loadingBays.length];
+        this.busySince = new long[loadingBays.length];
+        this.activeLoaders = loaders;
+        this.statistics = statistics;
+        this.clock = clock;
+        this.dispatcher = dispatcher;
+        this.selection = selection;
+        this.dockedTrucks = new int[loadingBays.length];
+        this.bayFree = clock.newCondition(lock);
+        this.containerAvailable = clock.newCondition(lock);
+    }
+
+    // Blocks until a bay is free with room for one more container, then reserves it for the loader
+    public LoadingBay acquireBay(int loaderId) throws InterruptedException {
+        lock.lock();
+        try {
+            waitingLoaders.add(loaderId);
+            try {
+                int index;
+                while (waitingLoaders.peek() != loaderId || (index = findFreeBay()) < 0) {
+                    bayFree.await();
+                }
+                bayInUse[index] = true;
+                busySince[index] = clock.currentTimeMillis();
+                return loadingBays[index];
+            } finally {
+                waitingLoaders.remove(loaderId);
+                bayFree.signalAll(); // Next loader in line may now be able to claim a bay
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Returns a reserved bay, adding the container the loader carried in (null if it was dropped)
+    public void releaseBay(LoadingBay bay, Container container) {
+        lock.lock();
+        try {
+            int index = indexOf(bay);
+            if (container != null) {
+                bay.addContainer(container);
+                dispatcher.containerArrived(container.getZone(), clock.currentTimeMillis());
+            }
+            bayInUse[index] = false;
+            statistics.recordBayBusyTime(clock.currentTimeMillis() - busySince[index]);
+            bayFree.signalAll();
+            containerAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void loaderFinished() {
+        lock.lock();
+        try {
+            activeLoaders--;
+            containerAvailable.signalAll(); // Waiting trucks may now be able to depart
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void truckArrived(int truckId) {
+        lock.lock();
+        try {
+            waitingTrucks.add(truckId);
+            dockOf.put(truckId, leastDocked());
+            containerAvailable.signalAll(); // The head truck may now leave without a full load
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void truckDeparted(int truckId) {
+        lock.lock();
+        try {
+            waitingTrucks.remove(truckId);
+            Integer dock = dockOf.remove(truckId);
+            if (dock != null) dockedTrucks[dock]--;
+            containerAvailable.signalAll(); // The next truck in line moves to the head
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Waits until this truck is first in line and a bay holds a container. Returns null when the
+    // truck should depart instead, with the reason recorded on its load: no more containers will
+    // arrive, or the dispatcher's departure time for the load has come
+    public Container awaitContainer(int truckId, TruckDispatcher.Load load) throws InterruptedException {
+        lock.lock();
+        try {
+            while (true) {
+                if (released.remove(truckId)) {
+                    load.departFor(DepartureReason.LENT);
+                    return null;
+                }
+                Integer head = waitingTrucks.peek();
+                boolean atHead = head != null && head == truckId;
+                if (atHead) {
+                    int dock = dockOf.get(truckId);
+                    int start = selection == BaySelection.TRUCK_AFFINITY ? dock : 0;
+                    for (int n = 0; n < loadingBays.length; n++) {
+                        int i = (start + n) % loadingBays.length;
+                        if (!bayInUse[i] && !loadingBays[i].isEmpty()) {
+                            Container container = loadingBays[i].removeContainer();
+                            collected++;
+                            if (i == dock) collectedAtDock++;
+                            bayFree.signalAll(); // The bay has room again
+                            return container;
+                        }
+                    }
+                }
+                if (activeLoaders == 0 && allBaysEmpty()) {
+                    load.departFor(DepartureReason.DRAINED);
+                    return null;
+                }
+                long now = clock.currentTimeMillis();
+                long departAt = atHead ? dispatcher.departAt(load, waitingTrucks.size() > 1, now) : TruckDispatcher.NEVER;
+                if (departAt == TruckDispatcher.NEVER) {
+                    containerAvailable.await();
+                } else if (departAt <= now) {
+                    load.departFor(load.isZonesComplete() ? DepartureReason.ZONES : DepartureReason.DWELL);
+                    return null;
+                } else {
+                    containerAvailable.await(departAt - now);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Takes the last truck out of a line with more trucks than bays; it has loaded nothing, since only
+    // the head truck loads. Returns its id, or 0 when no truck can be spared
+    public int releaseSpareTruck() {
+        lock.lock();
+        try {
+            if (waitingTrucks.size() - released.size() <= loadingBays.length) return 0;
+            Iterator<Integer> fromBack = waitingTrucks.descendingIterator();
+            int truckId;
+            do {
+                truckId = fromBack.next();
+            } while (released.contains(truckId));
+            released.add(truckId);
+            containerAvailable.signalAll();
+            return truckId;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getWaitingTrucks() {
+        lock.lock();
+        try {
+            return waitingTrucks.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Share of the containers trucks collected from the bay they docked at
+    public double getDockShare() {
+        lock.lock();
+        try {
+            return collected == 0 ? 0 : (double) collectedAtDock / collected;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Containers received by the busiest bay over the mean per bay; 1.0 is an even spread
+    public double getBayBalance() {
+        int total = 0;
+        int most = 0;
+        for (LoadingBay bay : loadingBays) {
+            total += bay.getContainersReceived();
+            most = Math.max(most, bay.getContainersReceived());
+        }
+        return total == 0 ? 1.0 : (double) most * loadingBays.length / total;
+    }
+
+    public BaySelection getSelection() { return selection; }
+    public LoadingBay[] getLoadingBays() { return loadingBays; }
+
+    private int findFreeBay() {
+        switch (selection) {
+            case FIRST_FREE:
+                for (int i = 0; i < loadingBays.length; i++) {
+                    if (canTake(i)) return i;
+                }
+                return -1;
+            case ROUND_ROBIN:
+                for (int n = 0; n < loadingBays.length; n++) {
+                    int i = (nextBay + n) % loadingBays.length;
+                    if (canTake(i)) {
+                        nextBay = (i + 1) % loadingBays.length;
+                        return i;
+                    }
+                }
+                return -1;
+            case TRUCK_AFFINITY:
+                // Docks of the waiting trucks in line order, then whichever bay has the most room
+                for (int truckId : waitingTrucks) {
+                    int dock = dockOf.get(truckId);
+                    if (canTake(dock)) return dock;
+                }
+                return leastLoadedFreeBay();
+            default:
+                return leastLoadedFreeBay();
+        }
+    }
+
+    private boolean canTake(int index) {
+        return !bayInUse[index] && !loadingBays[index].isFull();
+    }
+
+    // Free bay holding the fewest containers; ties rotate so no bay is always preferred
+    private int leastLoadedFreeBay() {
+        int best = -1;
+        for (int n = 0; n < loadingBays.length; n++) {
+            int i = (nextBay + n) % loadingBays.length;
+            if (canTake(i) && (best < 0 || loadingBays[i].getContainerCount() < loadingBays[best].getContainerCount())) {
+                best = i;
+            }
+        }
+        if (best >= 0) nextBay = (best + 1) % loadingBays.length;
+        return best;
+    }
+
+    // Bay with the fewest trucks docked, lowest index first
+    private int leastDocked() {
+        int best = 0;
+        for (int i = 1; i < dockedTrucks.length; i++) {
+            if (dockedTrucks[i] < dockedTrucks[best]) best = i;
+        }
+        dockedTrucks[best]++;
+        return best;
+    }
+
+    private boolean allBaysEmpty() {
+        for (LoadingBay bay : loadingBays) {
+            if (!bay.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int indexOf(LoadingBay bay) {
+        for (int i = 0; i < loadingBays.length; i++) {
+            if (loadingBays[i] == bay) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Bay is not managed by this scheduler: " + bay);
+    }
+}
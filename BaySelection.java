@@ -0,0 +1,32 @@
+package Main;
+
+
+// BaySelection.java
+import java.util.Locale;
+
+/*
+ * Which free bay a loader is given. FIRST_FREE scans the bays in order, so the first bay
+ * takes most of the traffic. LEAST_LOADED picks the free bay holding the fewest containers,
+ * ROUND_ROBIN rotates the starting bay on every assignment, and TRUCK_AFFINITY prefers the
+ * bay where the truck at the head of the line is docked, then the bays of the trucks behind
+ * it, so containers wait where the next truck to leave will collect them.
+ */
+public enum BaySelection {
+    FIRST_FREE,
+    LEAST_LOADED,
+    ROUND_ROBIN,
+    TRUCK_AFFINITY;
+
+    public static BaySelection parse(String name) {
+        try {
+            return valueOf(name.toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(
+                    "--bay-selection must be first-free, least-loaded, round-robin or truck-affinity");
+        }
+    }
+
+    public String label() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+}
@@ -0,0 +1,70 @@
+package Main;
+
+
+// BinaryEventSink.java
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/*
+ * Fixed-layout binary event file: the 8-byte MAGIC header followed by 32-byte records
+ *
+ *   long timestamp | short type | byte level | byte pad | int thread | int a | int b | int c | int d
+ *
+ * A record with type THREAD_NAME introduces a thread id; its pad byte holds the name length
+ * and the name (UTF-8, at most 16 bytes) occupies the a-d fields. Use EventLogReader to render.
+ */
+public class BinaryEventSink implements EventSink {
+    public static final byte[] MAGIC = "SCEVLOG1".getBytes(StandardCharsets.US_ASCII);
+    public static final int RECORD_BYTES = 32;
+    public static final short THREAD_NAME = -1;
+    public static final int MAX_NAME_BYTES = 16;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+
+    public BinaryEventSink(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                        StandardOpenOption.TRUNCATE_EXISTING);
+        buffer.put(MAGIC);
+    }
+
+    @Override
+    public void threadStarted(int threadId, String threadName) throws IOException {
+        byte[] name = threadName.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(name.length, MAX_NAME_BYTES);
+        ensureRoom();
+        buffer.putLong(0L).putShort(THREAD_NAME).put((byte) 0).put((byte) length).putInt(threadId);
+        buffer.put(name, 0, length);
+        for (int i = length; i < MAX_NAME_BYTES; i++) buffer.put((byte) 0);
+    }
+
+    @Override
+    public void write(long timestamp, EventType type, int threadId, int a, int b, int c, int d) throws IOException {
+        ensureRoom();
+        buffer.putLong(timestamp).putShort((short) type.ordinal()).put((byte) type.getLevel().ordinal())
+              .put((byte) 0).putInt(threadId).putInt(a).putInt(b).putInt(c).putInt(d);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+
+    private void ensureRoom() throws IOException {
+        if (buffer.remaining() < RECORD_BYTES) flush();
+    }
+}
@@ -0,0 +1,15 @@
+package Main;
+
+
+// ClockCondition.java
+public interface ClockCondition {
+    // Waits until signalled; the owning lock must be held
+    void await() throws InterruptedException;
+
+    // Waits until signalled or the timeout elapses; returns false on timeout
+    boolean await(long millis) throws InterruptedException;
+
+    void signal();
+
+    void signalAll();
+}
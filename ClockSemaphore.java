@@ -0,0 +1,54 @@
+package Main;
+
+
+// ClockSemaphore.java
+import java.util.concurrent.locks.ReentrantLock;
+
+// Counting semaphore whose waits go through a ClockCondition, so a VirtualClock can advance past them
+public class ClockSemaphore {
+    private final int permits;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ClockCondition released;
+    private int available;
+
+    public ClockSemaphore(int permits, SimulationClock clock) {
+        if (permits <= 0) throw new IllegalArgumentException("Permits must be positive: " + permits);
+        this.permits = permits;
+        this.available = permits;
+        this.released = clock.newCondition(lock);
+    }
+
+    public void acquire() throws InterruptedException {
+        lock.lock();
+        try {
+            while (available == 0) {
+                released.await();
+            }
+            available--;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release() {
+        lock.lock();
+        try {
+            if (available == permits) throw new IllegalStateException("Released more permits than acquired");
+            available++;
+            released.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int availablePermits() {
+        lock.lock();
+        try {
+            return available;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getPermits() { return permits; }
+}
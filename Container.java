@@ -3,34 +3,49 @@ package Main;
 
 
 // Container.java
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
 
+// Filled by the sorter alone, then read by loaders and trucks after the channel and bay hand-offs
 public class Container {
     private static final AtomicInteger containerCounter = new AtomicInteger(1);
     private final int containerId;
-    private final CopyOnWriteArrayList<Order> orders;
+    private final int zone; // Every order in a container is bound for the same regional zone
+    private final OrderBuffer orders;
     private static final int MAX_CAPACITY = 30;
     
     public Container() {
+        this(0);
+    }
+    
+    public Container(int zone) {
         this.containerId = containerCounter.getAndIncrement();
-        this.orders = new CopyOnWriteArrayList<>();
+        this.zone = zone;
+        this.orders = new OrderBuffer(MAX_CAPACITY);
+    }
+    
+    // A container rebuilt from the journal keeps its id
+    Container(int containerId, int zone) {
+        this.containerId = containerId;
+        this.zone = zone;
+        this.orders = new OrderBuffer(MAX_CAPACITY);
+    }
+    
+    static void reserveIds(int lastUsed) {
+        containerCounter.accumulateAndGet(lastUsed + 1, Math::max);
     }
     
-    public synchronized boolean addOrder(Order order) {
-        if (orders.size() < MAX_CAPACITY && !order.isRejected()) {
-            orders.add(order);
-            return true;
-        }
-        return false;
+    public boolean addOrder(Order order) {
+        return !order.isRejected() && orders.add(order);
     }
     
+    public Order getOrder(int index) { return orders.get(index); }
     public int getContainerId() { return containerId; }
+    public int getZone() { return zone; }
     public int getOrderCount() { return orders.size(); }
-    public boolean isFull() { return orders.size() >= MAX_CAPACITY; }
+    public boolean isFull() { return orders.isFull(); }
     
     @Override
     public String toString() {
-        return "Container #" + containerId + " (" + orders.size() + "/" + MAX_CAPACITY + " orders)";
+        return "Container #" + containerId + " zone " + zone + " (" + orders.size() + "/" + MAX_CAPACITY + " orders)";
     }
 }
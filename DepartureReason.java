@@ -0,0 +1,12 @@
+package Main;
+
+
+// DepartureReason.java
+// Why a truck left the bays, as decided by the TruckDispatcher (or the bay scheduler for LENT)
+public enum DepartureReason {
+    FULL,     // Loaded to capacity
+    DWELL,    // Oldest container on board waited the maximum dwell, or nothing more was due before then
+    ZONES,    // Every zone on board complete
+    DRAINED,  // The day's containers ran out
+    LENT      // Sent on to another facility before loading
+}
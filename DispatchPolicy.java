@@ -0,0 +1,31 @@
+package Main;
+
+
+// DispatchPolicy.java
+import java.util.Locale;
+
+/*
+ * When a truck at the head of the line leaves without a full load. FULL_LOAD waits for the
+ * truck to fill (or for the day's containers to run out). MAX_DWELL leaves once the oldest
+ * container on board has waited the maximum dwell, or earlier when container inflow says no
+ * further container will arrive before then. ZONE_COMPLETE also leaves, once the truck holds
+ * its minimum fill, when no more containers are expected before the deadline for any zone
+ * already on board.
+ */
+public enum DispatchPolicy {
+    FULL_LOAD,
+    MAX_DWELL,
+    ZONE_COMPLETE;
+
+    public static DispatchPolicy parse(String name) {
+        try {
+            return valueOf(name.toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("--dispatch must be full-load, max-dwell or zone-complete");
+        }
+    }
+
+    public String label() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+}
@@ -0,0 +1,41 @@
+package Main;
+
+
+// DurationRange.java
+import java.util.concurrent.ThreadLocalRandom;
+
+public class DurationRange {
+    private final long minMillis;
+    private final long maxMillis; // Exclusive, like ThreadLocalRandom.nextInt(min, max)
+
+    public DurationRange(long minMillis, long maxMillis) {
+        if (minMillis < 0 || maxMillis < minMillis) {
+            throw new IllegalArgumentException("Invalid duration range: " + minMillis + "-" + maxMillis);
+        }
+        this.minMillis = minMillis;
+        this.maxMillis = maxMillis;
+    }
+
+    // Accepts "800-1500" or a fixed "500"
+    public static DurationRange parse(String text) {
+        int dash = text.indexOf('-');
+        if (dash < 0) {
+            long fixed = Long.parseLong(text.trim());
+            return new DurationRange(fixed, fixed);
+        }
+        return new DurationRange(Long.parseLong(text.substring(0, dash).trim()),
+                                 Long.parseLong(text.substring(dash + 1).trim()));
+    }
+
+    public long sample() {
+        return maxMillis > minMillis ? ThreadLocalRandom.current().nextLong(minMillis, maxMillis) : minMillis;
+    }
+
+    public long getMinMillis() { return minMillis; }
+    public long getMaxMillis() { return maxMillis; }
+
+    @Override
+    public String toString() {
+        return minMillis == maxMillis ? String.valueOf(minMillis) : minMillis + "-" + maxMillis;
+    }
+}
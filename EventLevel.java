@@ -0,0 +1,7 @@
+package Main;
+
+
+// EventLevel.java
+public enum EventLevel {
+    DEBUG, INFO, WARN, OFF
+}
@@ -0,0 +1,248 @@
+package Main;
+
+
+// EventLog.java
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * Asynchronous structured event log. Stage threads record typed events (an EventType and up
+ * to four int arguments) into their own single-producer ring buffer; nothing is formatted and
+ * nothing is allocated on that path. A daemon writer thread drains every buffer, merges the
+ * records by timestamp and hands them to an EventSink (rendered text or fixed-size binary).
+ *
+ * The writer runs on real time, outside the simulation clock, so it never holds up a
+ * VirtualClock. A producer only waits if its buffer is full, until the writer catches up.
+ * Once a thread has exited and its buffer is drained, the writer drops the buffer, so short-lived
+ * threads (virtual-thread stages, retired pickers) do not keep theirs for the rest of the day.
+ */
+public class EventLog implements AutoCloseable {
+    public static final int DEFAULT_BUFFER_CAPACITY = 4096;
+    private static final long IDLE_PARK_NANOS = 1_000_000;
+    private static final long FULL_PARK_NANOS = 50_000;
+
+    private final EventSink sink;
+    private final EventLevel minLevel;
+    private final SimulationClock clock;
+    private final int bufferCapacity;
+    private final CopyOnWriteArrayList<RingBuffer> buffers = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<RingBuffer> localBuffer = ThreadLocal.withInitial(this::registerThread);
+    private final AtomicInteger threadIds = new AtomicInteger();
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread writer;
+    private volatile boolean closed = false;
+    private volatile IOException failure;
+
+    public EventLog(EventSink sink, EventLevel minLevel, SimulationClock clock) {
+        this(sink, minLevel, clock, DEFAULT_BUFFER_CAPACITY);
+    }
+
+    public EventLog(EventSink sink, EventLevel minLevel, SimulationClock clock, int bufferCapacity) {
+        if (Integer.bitCount(bufferCapacity) != 1) {
+            throw new IllegalArgumentException("Buffer capacity must be a power of two: " + bufferCapacity);
+        }
+        this.sink = sink;
+        this.minLevel = sink == null ? EventLevel.OFF : minLevel;
+        this.clock = clock;
+        this.bufferCapacity = bufferCapacity;
+        if (this.minLevel == EventLevel.OFF) {
+            this.writer = null;
+        } else {
+            this.writer = new Thread(this::drainLoop, "EventLog-writer");
+            this.writer.setDaemon(true);
+            this.writer.start();
+        }
+    }
+
+    // A log that discards everything (benchmarks, --log=off)
+    public static EventLog disabled() {
+        return new EventLog(null, EventLevel.OFF, null);
+    }
+
+    public boolean isEnabled(EventType type) {
+        return type.getLevel().compareTo(minLevel) >= 0 && minLevel != EventLevel.OFF;
+    }
+
+    public void log(EventType type) {
+        log(type, 0, 0, 0, 0);
+    }
+
+    public void log(EventType type, int a) {
+        log(type, a, 0, 0, 0);
+    }
+
+    public void log(EventType type, int a, int b) {
+        log(type, a, b, 0, 0);
+    }
+
+    public void log(EventType type, int a, int b, int c) {
+        log(type, a, b, c, 0);
+    }
+
+    public void log(EventType type, int a, int b, int c, int d) {
+        if (!isEnabled(type)) return;
+        if (closed) {
+            dropped.incrementAndGet();
+            return;
+        }
+        localBuffer.get().record(clock.currentTimeMillis(), type, a, b, c, d);
+    }
+
+    // Stops the writer after it has drained everything recorded so far
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        if (writer != null) {
+            LockSupport.unpark(writer);
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (failure != null) throw failure;
+    }
+
+    public long getRecorded() { return recorded.get(); }
+    public long getDropped() { return dropped.get(); }
+
+    private RingBuffer registerThread() {
+        RingBuffer buffer = new RingBuffer(threadIds.incrementAndGet(), Thread.currentThread(), bufferCapacity);
+        buffers.add(buffer);
+        return buffer;
+    }
+
+    private void drainLoop() {
+        try {
+            while (true) {
+                boolean finishing = closed; // Read before draining so nothing recorded before close is lost
+                int drained = drainOnce();
+                if (finishing) break;
+                if (drained == 0) LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            sink.close();
+        } catch (IOException e) {
+            failure = e;
+            closed = true;
+            System.err.println("EventLog writer failed: " + e.getMessage());
+        }
+    }
+
+    // Merges whatever each buffer holds right now by timestamp; buffers are already in time order
+    private int drainOnce() throws IOException {
+        int total = 0;
+        Object[] snapshot = buffers.toArray();
+        long[] limits = new long[snapshot.length];
+        boolean[] exited = new boolean[snapshot.length];
+        for (int i = 0; i < snapshot.length; i++) {
+            RingBuffer buffer = (RingBuffer) snapshot[i];
+            if (!buffer.announced) {
+                sink.threadStarted(buffer.threadId, buffer.threadName);
+                buffer.announced = true;
+            }
+            // Checked before reading the position: a thread seen to have exited has published its last record
+            exited[i] = !buffer.owner.isAlive();
+            limits[i] = buffer.published();
+        }
+
+        while (true) {
+            RingBuffer next = null;
+            for (int i = 0; i < snapshot.length; i++) {
+                RingBuffer buffer = (RingBuffer) snapshot[i];
+                if (buffer.consumed < limits[i]
+                        && (next == null || buffer.peekTimestamp() < next.peekTimestamp())) {
+                    next = buffer;
+                }
+            }
+            if (next == null) break;
+            next.writeNext(sink);
+            total++;
+        }
+
+        if (total > 0) {
+            recorded.addAndGet(total);
+            sink.flush();
+        }
+
+        List<RingBuffer> finished = null;
+        for (int i = 0; i < snapshot.length; i++) {
+            if (!exited[i]) continue;
+            if (finished == null) finished = new ArrayList<>();
+            finished.add((RingBuffer) snapshot[i]);
+        }
+        if (finished != null) buffers.removeAll(finished); // Drained up to limits, which was everything
+        return total;
+    }
+
+    /*
+     * Single-producer, single-consumer ring of fixed-size records. Each slot is four longs:
+     * the timestamp, (type ordinal, a), (b, c) and d.
+     */
+    private final class RingBuffer {
+        private static final int SLOT_LONGS = 4;
+
+        final int threadId;
+        final Thread owner;
+        final String threadName;
+        boolean announced;          // Writer thread only
+        long consumed;              // Writer thread only
+        private final long[] slots;
+        private final int mask;
+        private final AtomicLong published = new AtomicLong();
+        private final AtomicLong released = new AtomicLong();
+        private long cachedReleased; // Producer's last view of the writer position
+
+        RingBuffer(int threadId, Thread owner, int capacity) {
+            this.threadId = threadId;
+            this.owner = owner;
+            this.threadName = owner.getName();
+            this.slots = new long[capacity * SLOT_LONGS];
+            this.mask = capacity - 1;
+        }
+
+        void record(long timestamp, EventType type, int a, int b, int c, int d) {
+            long position = published.get();
+            if (position - cachedReleased > mask) {
+                while (position - (cachedReleased = released.get()) > mask) {
+                    if (closed) {
+                        dropped.incrementAndGet();
+                        return;
+                    }
+                    LockSupport.unpark(writer);
+                    LockSupport.parkNanos(this, FULL_PARK_NANOS);
+                }
+            }
+            int base = (int) (position & mask) * SLOT_LONGS;
+            slots[base] = timestamp;
+            slots[base + 1] = ((long) type.ordinal() << 32) | (a & 0xFFFFFFFFL);
+            slots[base + 2] = ((long) b << 32) | (c & 0xFFFFFFFFL);
+            slots[base + 3] = d;
+            published.lazySet(position + 1);
+        }
+
+        long published() {
+            return published.get();
+        }
+
+        long peekTimestamp() {
+            return slots[(int) (consumed & mask) * SLOT_LONGS];
+        }
+
+        void writeNext(EventSink sink) throws IOException {
+            int base = (int) (consumed & mask) * SLOT_LONGS;
+            long typeAndA = slots[base + 1];
+            long bc = slots[base + 2];
+            sink.write(slots[base], EventType.fromCode((int) (typeAndA >>> 32)), threadId,
+                       (int) typeAndA, (int) (bc >>> 32), (int) bc, (int) slots[base + 3]);
+            consumed++;
+            released.lazySet(consumed);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package Main;
+
+
+// EventLogReader.java
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Locale;
+
+/*
+ * Renders a binary event file written by BinaryEventSink as text.
+ * Usage: EventLogReader FILE [--level=debug|info|warn]
+ */
+public class EventLogReader {
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: EventLogReader FILE [--level=debug|info|warn]");
+            System.exit(2);
+            return;
+        }
+        EventLevel minLevel = EventLevel.DEBUG;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].startsWith("--level=")) {
+                minLevel = EventLevel.valueOf(args[i].substring(8).toUpperCase(Locale.ROOT));
+            }
+        }
+
+        TextEventSink text = new TextEventSink(
+                new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)), false, true);
+        long records = render(Paths.get(args[0]), minLevel, text);
+        text.close();
+        System.err.println(records + " events");
+    }
+
+    public static long render(Path path, EventLevel minLevel, EventSink sink) throws IOException {
+        long records = 0;
+        try (InputStream file = Files.newInputStream(path);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(file))) {
+            byte[] magic = new byte[BinaryEventSink.MAGIC.length];
+            in.readFully(magic);
+            if (!Arrays.equals(magic, BinaryEventSink.MAGIC)) {
+                throw new IOException("Not an event log: " + path);
+            }
+
+            byte[] name = new byte[BinaryEventSink.MAX_NAME_BYTES];
+            while (true) {
+                long timestamp;
+                try {
+                    timestamp = in.readLong();
+                } catch (EOFException e) {
+                    break;
+                }
+                short type = in.readShort();
+                byte level = in.readByte();
+                int pad = in.readUnsignedByte();
+                int thread = in.readInt();
+
+                if (type == BinaryEventSink.THREAD_NAME) {
+                    in.readFully(name);
+                    sink.threadStarted(thread, new String(name, 0, pad, StandardCharsets.UTF_8));
+                    continue;
+                }
+
+                int a = in.readInt(), b = in.readInt(), c = in.readInt(), d = in.readInt();
+                if (level >= minLevel.ordinal()) {
+                    sink.write(timestamp, EventType.fromCode(type), thread, a, b, c, d);
+                    records++;
+                }
+            }
+        }
+        sink.flush();
+        return records;
+    }
+}
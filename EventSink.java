@@ -0,0 +1,21 @@
+package Main;
+
+
+// EventSink.java
+import java.io.IOException;
+
+/*
+ * Destination for drained event records. Only the EventLog writer thread calls a sink,
+ * so implementations do not need to be thread-safe.
+ */
+public interface EventSink {
+    // Called once per producing thread, before its first record
+    void threadStarted(int threadId, String threadName) throws IOException;
+
+    void write(long timestamp, EventType type, int threadId, int a, int b, int c, int d) throws IOException;
+
+    // End of a drain round; buffered output should reach its destination
+    void flush() throws IOException;
+
+    void close() throws IOException;
+}
@@ -0,0 +1,135 @@
+package Main;
+
+
+// EventType.java
+/*
+ * Typed pipeline events. Each event carries up to four int arguments (a-d); the template
+ * is only used when a record is rendered for humans, never on the recording path.
+ * Placeholders: {a}..{d}, {tracking:a} for a tracking id, {reason:b} for a RejectionReason code,
+ * {stage:a} for a position in Statistics.LATENCY_STAGES.
+ */
+public enum EventType {
+    ORDER_RECEIVED("intake", EventLevel.INFO, "OrderIntake: Order #{a} received and verified"),
+    INTAKE_REJECTED("intake", EventLevel.WARN, "OrderIntake: Order #{a} REJECTED - {reason:b}"),
+    INTAKE_FINISHED("intake", EventLevel.INFO, "OrderIntake: All {a} orders processed"),
+
+    PICK_STARTED("picking", EventLevel.INFO, "PickingStation-{b}: Started picking Order #{a}"),
+    PICK_COMPLETED("picking", EventLevel.INFO, "PickingStation-{b}: Completed picking Order #{a}"),
+    PICK_REJECTED("picking", EventLevel.WARN, "PickingStation-{c}: Order #{a} REJECTED - {reason:b}"),
+    PICKER_STOPPED("picking", EventLevel.INFO, "PickingStation-{a}: Shutting down"),
+    PICKER_RETIRED("picking", EventLevel.INFO, "PickingStation-{a}: Retired by the picker pool"),
+    PICKERS_SCALED_UP("picking", EventLevel.INFO, "PickerPool: Scaled up to {a} pickers (queue depth {b}, pick p95 {c}ms)"),
+    PICKERS_SCALED_DOWN("picking", EventLevel.INFO, "PickerPool: Scaled down to {a} pickers (queue depth {b}, pick p95 {c}ms)"),
+
+    PACKING_PAUSED("packing", EventLevel.WARN, "PackingStation-{a}: Paused, loading bays are full"),
+    PACK_STARTED("packing", EventLevel.INFO, "PackingStation-{b}: Started packing Order #{a}"),
+    PACKED("packing", EventLevel.INFO, "PackingStation-{b}: Packed Order #{a} into shipping box"),
+    PACK_REJECTED("packing", EventLevel.WARN, "PackingStation-{c}: Order #{a} REJECTED - {reason:b}"),
+    PACKER_STOPPED("packing", EventLevel.INFO, "PackingStation-{a}: Shutting down after packing {b} orders"),
+
+    LABEL_STARTED("labelling", EventLevel.INFO, "LabellingStation-{b}: Started labelling Order #{a}"),
+    LABELLED("labelling", EventLevel.INFO, "LabellingStation-{b}: Labelled Order #{a} with tracking ID {tracking:a}"),
+    LABEL_REJECTED("labelling", EventLevel.WARN, "LabellingStation-{c}: Order #{a} REJECTED - {reason:b}"),
+    LABELLER_STOPPED("labelling", EventLevel.INFO, "LabellingStation-{a}: Shutting down after labelling {b} orders"),
+
+    SORTED_TO_BATCH("sorting", EventLevel.DEBUG, "Sorter: Added Order #{a} to Zone-{b} Batch #{c} ({d} boxes)"),
+    BATCH_COMPLETED("sorting", EventLevel.INFO, "Sorter: Zone-{b} Batch #{a} completed, loading into container"),
+    CONTAINER_READY("sorting", EventLevel.INFO, "Sorter: Zone-{b} Container #{a} full and ready for shipping"),
+    ZONE_FLUSHED("sorting", EventLevel.INFO, "Sorter: Zone-{a} timed out after {b}ms, Container #{c} shipped with {d} orders"),
+    FINAL_BATCH("sorting", EventLevel.INFO, "Sorter: Processing final Zone-{b} batch with {a} orders"),
+    FINAL_CONTAINER("sorting", EventLevel.INFO, "Sorter: Final Zone-{c} Container #{a} shipped with {b} orders"),
+    SORTER_STOPPED("sorting", EventLevel.INFO, "SortingArea: Shutting down"),
+
+    LOADER_BREAKDOWN("loading", EventLevel.WARN, "Loader-{a}: BREAKDOWN! Undergoing maintenance"),
+    LOADER_RECOVERED("loading", EventLevel.INFO, "Loader-{a}: Back online after maintenance"),
+    CONTAINER_MOVING("loading", EventLevel.INFO, "Loader-{a}: Moving Container #{b} to Loading Bay-{c}"),
+    CONTAINER_LOADED("loading", EventLevel.INFO, "Loader-{a}: Container #{b} loaded to Bay-{c}"),
+    LOADER_STOPPED("loading", EventLevel.INFO, "Loader-{a}: Shutting down after loading {b} containers"),
+
+    TRUCK_ARRIVED("truck", EventLevel.INFO, "Truck-{a}: Arrived at loading facility"),
+    TRUCK_LOADED("truck", EventLevel.INFO, "Truck-{a}: Loaded Container #{b} ({c}/{d})"),
+    TRUCK_STREAM_ENDED("truck", EventLevel.INFO, "Truck-{a}: No more containers available, departing with {b} containers"),
+    TRUCK_DEPARTED("truck", EventLevel.INFO, "Truck-{a}: Departing with {b} containers"),
+
+    BACKPRESSURE_PAUSED("backpressure", EventLevel.WARN, "Backpressure: PAUSED at occupancy {a}"),
+    BACKPRESSURE_RESUMED("backpressure", EventLevel.INFO, "Backpressure: RESUMED at occupancy {a}"),
+
+    JOURNAL_RECOVERED("journal", EventLevel.INFO, "Journal: Recovered {a} orders, {b} back in the pipeline, {c} containers requeued"),
+
+    // Appended after the existing types so binary logs keep their codes
+    TRUCK_DWELL_REACHED("truck", EventLevel.INFO, "Truck-{a}: Dispatched with {b} containers, {c}ms after arriving"),
+    TRUCK_ZONES_COMPLETE("truck", EventLevel.INFO, "Truck-{a}: Zones on board complete, dispatched with {b} containers"),
+    LOADER_DROPPED_CONTAINER("loading", EventLevel.WARN, "Loader-{a}: Broke down carrying Container #{b}, handed back to the fleet"),
+    LOADER_SERVICE_STARTED("loading", EventLevel.INFO, "Loader-{a}: Predicted failure {b} per mille per move, going in for service"),
+    LOADER_SERVICED("loading", EventLevel.INFO, "Loader-{a}: Back online after preventive service"),
+    LOADER_STANDBY_CALLED("loading", EventLevel.WARN, "Loader-{a}: Standby called in, {b} loaders operational"),
+    LOADER_STANDBY_PARKED("loading", EventLevel.INFO, "Loader-{a}: Fleet covered, back on standby"),
+    ORDER_ROUTED_OUT("intake", EventLevel.INFO, "OrderIntake: Intake full, arrival for zone {a} sent to facility {b}"),
+    ORDER_ROUTED_IN("intake", EventLevel.INFO, "OrderIntake: Order #{a} taken over from facility {b}"),
+    TRUCK_LENT("truck", EventLevel.INFO, "Truck-{a}: Line already full, sent to facility {b}"),
+    TRUCK_BORROWED("truck", EventLevel.INFO, "Truck-{a}: Arrived from facility {b}"),
+
+    SYSTEM_STATUS("status", EventLevel.INFO, "Status: {a} trucks active, {b} waiting for bays, {c} containers in system"),
+    BAY_STATUS("status", EventLevel.INFO, "Status: LoadingBay-{a} ({b}/{c} containers)"),
+    STAGE_STATUS("status", EventLevel.INFO, "Status: {stage:a} p99 {b}ms over {c} orders since last status");
+
+    private static final EventType[] VALUES = values();
+
+    private final String stage;
+    private final EventLevel level;
+    private final String template;
+
+    EventType(String stage, EventLevel level, String template) {
+        this.stage = stage;
+        this.level = level;
+        this.template = template;
+    }
+
+    public String getStage() { return stage; }
+    public EventLevel getLevel() { return level; }
+    public String getTemplate() { return template; }
+
+    public static EventType fromCode(int code) {
+        return VALUES[code];
+    }
+
+    // Renders the template with the given arguments; only called off the hot path by sinks
+    public void render(StringBuilder out, int a, int b, int c, int d) {
+        int i = 0;
+        while (i < template.length()) {
+            char ch = template.charAt(i);
+            int close = ch == '{' ? template.indexOf('}', i) : -1;
+            if (close < 0) {
+                out.append(ch);
+                i++;
+                continue;
+            }
+            String placeholder = template.substring(i + 1, close);
+            int colon = placeholder.indexOf(':');
+            int value = argument(placeholder.charAt(placeholder.length() - 1), a, b, c, d);
+            if (colon < 0) {
+                out.append(value);
+            } else if (placeholder.startsWith("tracking")) {
+                String digits = Integer.toString(value);
+                out.append("TRK");
+                for (int pad = digits.length(); pad < 6; pad++) out.append('0');
+                out.append(digits);
+            } else if (placeholder.startsWith("stage")) {
+                out.append(Statistics.LATENCY_STAGES[value]);
+            } else {
+                out.append(RejectionReason.fromCode(value).getDescription());
+            }
+            i = close + 1;
+        }
+    }
+
+    private static int argument(char name, int a, int b, int c, int d) {
+        switch (name) {
+            case 'a': return a;
+            case 'b': return b;
+            case 'c': return c;
+            case 'd': return d;
+            default: throw new IllegalStateException("Unknown event argument: " + name);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package Main;
+
+
+// ExecutorMode.java
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/*
+ * Threads the simulation's stage workers, loaders and trucks run on. Nearly all of them spend
+ * their time parked in sleep() or a channel wait, so VIRTUAL gives each task a virtual thread
+ * instead of an OS thread. The build targets Java 17, so the virtual-thread executor is looked
+ * up reflectively and is only available when the simulation runs on JDK 21 or later.
+ */
+public enum ExecutorMode {
+    PLATFORM,
+    VIRTUAL;
+
+    public boolean isAvailable() {
+        return this == PLATFORM || virtualThreadFactory() != null;
+    }
+
+    public ExecutorService newExecutor() {
+        if (this == PLATFORM) {
+            return Executors.newCachedThreadPool();
+        }
+        Method factory = virtualThreadFactory();
+        if (factory == null) {
+            throw new UnsupportedOperationException("Virtual threads need Java 21 or later, running on " + 
+                                                    Runtime.version());
+        }
+        try {
+            return (ExecutorService) factory.invoke(null);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new UnsupportedOperationException("Cannot create a virtual-thread executor", e);
+        }
+    }
+
+    private static Method virtualThreadFactory() {
+        if (Runtime.version().feature() < 21) return null; // 19 and 20 only have it as a preview
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
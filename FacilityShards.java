@@ -0,0 +1,108 @@
+package Main;
+
+
+// FacilityShards.java
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Locale;
+
+/*
+ * Runs several fulfilment centres side by side (--shards=N). Every facility is a complete
+ * SwiftCartSimulation with the same options and its own clock, channels, executors and
+ * Statistics, so facilities share no locks and only meet in the ShardRouter. Each facility
+ * runs on its own thread and, as it finishes, adds its statistics into the merged totals with
+ * atomic adds, so facilities that finish at the same time merge without waiting on each other.
+ */
+public class FacilityShards {
+    private final SimulationConfig config;
+    private final ShardRouter router;
+    private final SwiftCartSimulation[] facilities;
+    private final Statistics merged = new Statistics();
+    private long wallClockMillis;
+
+    public FacilityShards(SimulationConfig config, PrintStream console) throws IOException {
+        this.config = config;
+        this.router = new ShardRouter(config.getShards(), config.isShardRouting());
+        this.facilities = new SwiftCartSimulation[config.getShards()];
+        for (int shard = 1; shard <= facilities.length; shard++) {
+            SimulationClock clock = config.createClock();
+            facilities[shard - 1] = new SwiftCartSimulation(clock, config, config.createEventLog(clock, console, shard),
+                                                            OrderJournal.disabled(), null, router, shard);
+            router.attach(shard, facilities[shard - 1]);
+        }
+    }
+
+    // Runs every facility to the end of its day and merges their statistics
+    public void run() throws InterruptedException {
+        long start = System.currentTimeMillis();
+        Thread[] threads = new Thread[facilities.length];
+        for (int i = 0; i < facilities.length; i++) {
+            SwiftCartSimulation facility = facilities[i];
+            threads[i] = new Thread(() -> {
+                facility.startSimulation();
+                merged.add(facility.getStatistics());
+            }, "facility-" + (i + 1));
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        wallClockMillis = System.currentTimeMillis() - start;
+    }
+
+    public Statistics getStatistics() { return merged; }
+    public long getWallClockMillis() { return wallClockMillis; }
+
+    public void printReport() {
+        merged.printFinalReport(this::printFacilities);
+    }
+
+    private void printFacilities() {
+        System.out.println("\nFACILITIES (" + (config.isShardRouting() ? "routing on" : "routing off") + "):");
+        for (SwiftCartSimulation facility : facilities) {
+            int shard = facility.getShard();
+            Statistics statistics = facility.getStatistics();
+            System.out.printf(Locale.ROOT, "  Facility-%-2d delivered: %6d | rejected: %5d | p95: %8dms | " +
+                    "simulated: %9dms | wall: %6dms | orders in/out: %4d/%-4d | trucks in/out: %2d/%-2d%n", shard,
+                    statistics.getOrdersDelivered(), statistics.getOrdersRejected(),
+                    statistics.getOrderLatencyPercentile(95), facility.getSimulatedMillis(),
+                    facility.getWallClockMillis(), router.getOrdersRoutedIn(shard),
+                    router.getOrdersRoutedOut(shard), router.getTrucksBorrowed(shard), router.getTrucksLent(shard));
+        }
+        System.out.printf(Locale.ROOT, "  Wall-clock time: %dms | %.1f orders/s across %d facilities%n", 
+                wallClockMillis, merged.getOrdersDelivered() / (Math.max(wallClockMillis, 1) / 1000.0), 
+                facilities.length);
+    }
+
+    // One JSON line for --headless: merged totals plus one entry per facility
+    public String toResultJson() {
+        int delivered = merged.getOrdersDelivered();
+        boolean completed = delivered + merged.getOrdersRejected() >= config.getTotalOrders() * facilities.length;
+        StringBuilder perFacility = new StringBuilder();
+        int routedOrders = 0;
+        int lentTrucks = 0;
+        for (SwiftCartSimulation facility : facilities) {
+            int shard = facility.getShard();
+            routedOrders += router.getOrdersRoutedOut(shard);
+            lentTrucks += router.getTrucksLent(shard);
+            if (perFacility.length() > 0) perFacility.append(',');
+            perFacility.append(String.format(Locale.ROOT,
+                    "{\"facility\":%d,\"ordersDelivered\":%d,\"ordersRejected\":%d,\"simulatedMillis\":%d," +
+                    "\"wallClockMillis\":%d,\"ordersRoutedIn\":%d,\"ordersRoutedOut\":%d," +
+                    "\"trucksBorrowed\":%d,\"trucksLent\":%d}",
+                    shard, facility.getStatistics().getOrdersDelivered(), facility.getStatistics().getOrdersRejected(),
+                    facility.getSimulatedMillis(), facility.getWallClockMillis(), router.getOrdersRoutedIn(shard),
+                    router.getOrdersRoutedOut(shard), router.getTrucksBorrowed(shard), router.getTrucksLent(shard)));
+        }
+        return String.format(Locale.ROOT,
+                "{\"shards\":%d,\"routing\":\"%s\",\"ordersPerFacility\":%d,\"timeScale\":%s,\"completed\":%b," +
+                "\"ordersDelivered\":%d,\"ordersRejected\":%d,\"wallClockMillis\":%d,\"ordersPerWallSecond\":%.1f," +
+                "\"latencyMillis\":{\"p50\":%d,\"p95\":%d,\"p99\":%d},\"ordersRouted\":%d,\"trucksLent\":%d," +
+                "\"facilities\":[%s]}",
+                facilities.length, config.isShardRouting() ? "on" : "off", config.getTotalOrders(),
+                config.getTimeScale(), completed, delivered, merged.getOrdersRejected(), wallClockMillis,
+                delivered / (Math.max(wallClockMillis, 1) / 1000.0), merged.getOrderLatencyPercentile(50),
+                merged.getOrderLatencyPercentile(95), merged.getOrderLatencyPercentile(99), routedOrders, lentTrucks,
+                perFacility);
+    }
+}
@@ -0,0 +1,18 @@
+package Main;
+
+
+// HandOffMetrics.java
+
+// What either end of a stage hand-off reports, for the final report and the metrics endpoint
+public interface HandOffMetrics {
+    int size();
+
+    int getCapacity();
+
+    String getName();
+
+    // Per-hop latency: time between put and the matching poll/take
+    long getHandOffs();
+    double getAverageLatencyMillis();
+    long getMaxLatencyMillis();
+}
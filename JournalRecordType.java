@@ -0,0 +1,21 @@
+package Main;
+
+
+// JournalRecordType.java
+// Stage transitions recorded by the OrderJournal; the subject is an order or, for LOADED and DEPARTED, a container
+public enum JournalRecordType {
+    RECEIVED,   // Order verified at intake; a = 0
+    PICKED,     // a = picker
+    PACKED,     // a = packing lane
+    LABELLED,   // a = labelling lane
+    SORTED,     // Order placed in container a
+    LOADED,     // Container moved into bay a
+    DEPARTED,   // Container left on truck a
+    REJECTED;   // a = RejectionReason ordinal
+
+    private static final JournalRecordType[] VALUES = values();
+
+    public static JournalRecordType fromCode(int code) {
+        return code >= 0 && code < VALUES.length ? VALUES[code] : null;
+    }
+}
@@ -0,0 +1,186 @@
+package Main;
+
+
+// JournalReplay.java
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32C;
+
+/*
+ * Rebuilds the last known state of every order and container from an OrderJournal file.
+ * Replay stops at the first short or corrupt record: that is a write torn by the crash, and
+ * everything before it is intact because the journal is only ever appended in order.
+ */
+public class JournalReplay {
+    private final Map<Integer, OrderState> orders = new LinkedHashMap<>();         // Intake order
+    private final Map<Integer, ContainerState> containers = new LinkedHashMap<>(); // Sorting order
+    private final Set<Integer> departedTrucks = new HashSet<>();
+    private long validBytes = OrderJournal.MAGIC.length;
+    private long discardedBytes;
+    private long lastDayTime;
+    private int records;
+    private int maxOrderId;
+    private int maxContainerId;
+
+    public static JournalReplay read(Path path) throws IOException {
+        JournalReplay replay = new JournalReplay();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(OrderJournal.MAGIC.length);
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0) throw new EOFException("Journal has no header: " + path);
+            }
+            if (!Arrays.equals(header.array(), OrderJournal.MAGIC)) {
+                throw new IOException("Not an order journal: " + path);
+            }
+
+            CRC32C crc = new CRC32C();
+            byte[] checked = new byte[OrderJournal.CHECKED_BYTES];
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            boolean intact = true;
+            while (intact && channel.read(buffer) >= 0) {
+                buffer.flip();
+                while (buffer.remaining() >= OrderJournal.RECORD_BYTES) {
+                    int start = buffer.position();
+                    buffer.get(start, checked);
+                    crc.reset();
+                    crc.update(checked);
+                    long dayTime = buffer.getLong();
+                    JournalRecordType type = JournalRecordType.fromCode(buffer.get());
+                    buffer.get(); // Pad
+                    int zone = buffer.getShort();
+                    int id = buffer.getInt();
+                    int a = buffer.getInt();
+                    if (buffer.getInt() != (int) crc.getValue() || type == null) {
+                        intact = false;
+                        break;
+                    }
+                    replay.apply(type, dayTime, id, zone, a);
+                    replay.validBytes += OrderJournal.RECORD_BYTES;
+                }
+                buffer.compact();
+            }
+            replay.discardedBytes = channel.size() - replay.validBytes;
+        }
+        return replay;
+    }
+
+    private void apply(JournalRecordType type, long dayTime, int id, int zone, int a) {
+        records++;
+        lastDayTime = Math.max(lastDayTime, dayTime);
+        switch (type) {
+            case RECEIVED:
+                orders.put(id, new OrderState(id, zone, dayTime, true));
+                maxOrderId = Math.max(maxOrderId, id);
+                break;
+            case REJECTED: {
+                // Intake rejections are the first record of their order
+                OrderState order = orders.computeIfAbsent(id, key -> new OrderState(key, zone, dayTime, false));
+                order.lastTransition = type;
+                order.rejection = RejectionReason.fromCode(a);
+                maxOrderId = Math.max(maxOrderId, id);
+                break;
+            }
+            case PICKED:
+            case PACKED:
+            case LABELLED: {
+                OrderState order = orders.get(id);
+                if (order == null) break;
+                order.lastTransition = type;
+                if (type == JournalRecordType.PACKED) order.packed = true;
+                break;
+            }
+            case SORTED: {
+                OrderState order = orders.get(id);
+                if (order == null) break;
+                order.lastTransition = type;
+                containers.computeIfAbsent(a, key -> new ContainerState(key, zone)).orders.add(order);
+                maxContainerId = Math.max(maxContainerId, a);
+                break;
+            }
+            case LOADED: {
+                ContainerState container = containers.get(id);
+                if (container != null) container.bay = a;
+                break;
+            }
+            case DEPARTED: {
+                ContainerState container = containers.get(id);
+                if (container == null) break;
+                container.truck = a;
+                container.departedAt = dayTime;
+                departedTrucks.add(a);
+                break;
+            }
+        }
+    }
+
+    public Collection<OrderState> getOrders() { return orders.values(); }
+    public Collection<ContainerState> getContainers() { return containers.values(); }
+    public Set<Integer> getDepartedTrucks() { return departedTrucks; }
+    public long getValidBytes() { return validBytes; }
+    public long getDiscardedBytes() { return discardedBytes; }
+    public long getLastDayTime() { return lastDayTime; }
+    public int getRecords() { return records; }
+    public int getMaxOrderId() { return maxOrderId; }
+    public int getMaxContainerId() { return maxContainerId; }
+
+    // Orders whose last transition is the given one, in intake order
+    public List<OrderState> getOrdersAt(JournalRecordType transition) {
+        List<OrderState> matching = new ArrayList<>();
+        for (OrderState order : orders.values()) {
+            if (order.lastTransition == transition) matching.add(order);
+        }
+        return matching;
+    }
+
+    public static final class OrderState {
+        final int orderId;
+        final int zone;
+        final long receivedAt;  // Day time
+        final boolean verified; // Passed intake
+        JournalRecordType lastTransition;
+        RejectionReason rejection;
+        boolean packed;         // Boxed, even if a later stage rejected it
+
+        OrderState(int orderId, int zone, long receivedAt, boolean verified) {
+            this.orderId = orderId;
+            this.zone = zone;
+            this.receivedAt = receivedAt;
+            this.verified = verified;
+            this.lastTransition = JournalRecordType.RECEIVED;
+        }
+
+        public int getOrderId() { return orderId; }
+        public JournalRecordType getLastTransition() { return lastTransition; }
+        public boolean isPacked() { return packed; }
+    }
+
+    public static final class ContainerState {
+        final int containerId;
+        final int zone;
+        final List<OrderState> orders = new ArrayList<>();
+        int bay;          // 0 until loaded
+        int truck;        // 0 until departed
+        long departedAt;  // Day time
+
+        ContainerState(int containerId, int zone) {
+            this.containerId = containerId;
+            this.zone = zone;
+        }
+
+        public int getContainerId() { return containerId; }
+        public boolean isLoaded() { return bay != 0; }
+        public boolean isDeparted() { return truck != 0; }
+    }
+}
@@ -3,62 +3,88 @@ package Main;
 
 
 // LabellingStation.java
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
 
+// One labelling lane; several lanes share the input channel and a LaneSequencer
 public class LabellingStation implements Runnable {
-    private final BlockingQueue<Order> incomingOrders;
-    private final BlockingQueue<Order> outgoingOrders;
+    private final int laneId;
+    private final StageSource<Order> incomingOrders;
+    private final StageSink<Order> outgoingOrders;
+    private final LaneSequencer sequencer;
+    private final LaneSequencer.Lane lane = new LaneSequencer.Lane();
     private final Statistics statistics;
-    private final OrderIntakeSystem orderIntake;
-    private final Object labellingLock = new Object(); // Only 1 box at a time through quality scanner
+    private final DurationRange labelTime;
+    private final SimulationClock clock;
+    private final EventLog eventLog;
+    private final OrderJournal journal;
+    private final ReentrantLock labellingLock = new ReentrantLock(); // Each lane's quality scanner takes 1 box at a time
+    private int ordersLabelled = 0;
     
-    public LabellingStation(BlockingQueue<Order> incomingOrders, BlockingQueue<Order> outgoingOrders, 
-                           Statistics statistics, OrderIntakeSystem orderIntake) {
+    public LabellingStation(int laneId, StageSource<Order> incomingOrders, StageSink<Order> outgoingOrders, 
+                           LaneSequencer sequencer, Statistics statistics, DurationRange labelTime, 
+                           SimulationClock clock, EventLog eventLog, OrderJournal journal) {
+        this.laneId = laneId;
         this.incomingOrders = incomingOrders;
         this.outgoingOrders = outgoingOrders;
+        this.sequencer = sequencer;
         this.statistics = statistics;
-        this.orderIntake = orderIntake;
+        this.labelTime = labelTime;
+        this.clock = clock;
+        this.eventLog = eventLog;
+        this.journal = journal;
     }
     
     @Override
     public void run() {
         try {
-            while (orderIntake.isRunning() || !incomingOrders.isEmpty()) {
-                Order order = incomingOrders.poll();
-                if (order == null) {
-                    Thread.sleep(100);
+            while (sequencer.take(incomingOrders, lane)) { // False marks end of stream
+                Order order = lane.getOrder();
+                
+                if (order.isRejected()) {
+                    sequencer.skip(lane);
                     continue;
                 }
                 
-                if (order.isRejected()) continue;
-                
-                synchronized (labellingLock) { // Quality scanner processes 1 box at a time
-                    System.out.println("LabellingStation: Started labelling Order #" + order.getOrderId() + 
-                                     " (Thread: " + Thread.currentThread().getName() + ")");
+                labellingLock.lock(); // Quality scanner processes 1 box at a time
+                try {
+                    eventLog.log(EventType.LABEL_STARTED, order.getOrderId(), laneId);
                     
                     // Simulate labelling and quality scanning time
-                    Thread.sleep(ThreadLocalRandom.current().nextInt(600, 1200));
+                    long workTime = labelTime.sample();
+                    clock.sleep(workTime);
+                    statistics.recordStageBusyTime(Statistics.STAGE_LABELLING, workTime);
+                    statistics.recordLaneWork(Statistics.STAGE_LABELLING, laneId, workTime);
                     
                     // Quality scanner check (1% rejection rate)
                     if (ThreadLocalRandom.current().nextDouble() < 0.01) {
-                        order.reject("Quality check failed");
-                        statistics.addRejection("Quality check failed");
-                        System.out.println("LabellingStation: Order #" + order.getOrderId() + 
-                                         " REJECTED - Quality check failed (Thread: " + 
-                                         Thread.currentThread().getName() + ")");
+                        RejectionReason reason = RejectionReason.QUALITY_CHECK_FAILED;
+                        order.reject(reason);
+                        statistics.addRejection(reason, order, clock.currentTimeMillis());
+                        journal.record(JournalRecordType.REJECTED, order.getOrderId(), order.getZone(), 
+                                       reason.ordinal());
+                        eventLog.log(EventType.LABEL_REJECTED, order.getOrderId(), reason.ordinal(), laneId);
+                        sequencer.skip(lane);
                     } else {
-                        outgoingOrders.offer(order);
-                        System.out.println("LabellingStation: Labelled Order #" + order.getOrderId() + 
-                                         " with tracking ID " + order.getTrackingId() + " (Thread: " + 
-                                         Thread.currentThread().getName() + ")");
+                        statistics.completeStage(Statistics.STAGE_LABELLING, order, clock.currentTimeMillis());
+                        journal.record(JournalRecordType.LABELLED, order.getOrderId(), order.getZone(), laneId);
+                        sequencer.emit(lane, outgoingOrders);
+                        ordersLabelled++;
+                        eventLog.log(EventType.LABELLED, order.getOrderId(), laneId);
                     }
+                } finally {
+                    labellingLock.unlock();
                 }
             }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            System.err.println("LabellingStation interrupted: " + e.getMessage());
+            System.err.println("LabellingStation-" + laneId + " interrupted: " + e.getMessage());
+        } finally {
+            sequencer.release(lane);
+            outgoingOrders.producerFinished();
         }
-        System.out.println("LabellingStation: Shutting down (Thread: " + Thread.currentThread().getName() + ")");
+        eventLog.log(EventType.LABELLER_STOPPED, laneId, ordersLabelled);
     }
+    
+    public int getLaneId() { return laneId; }
 }
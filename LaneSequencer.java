@@ -0,0 +1,144 @@
+package Main;
+
+
+// LaneSequencer.java
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ * Hands orders between a multi-lane stage and its channels. Unordered, lanes simply take and
+ * put. In FIFO mode a lane takes its next order while holding the intake turn and is given a
+ * ticket in take order; it then emits (or skips) that ticket only once every earlier ticket
+ * has been emitted, so output leaves in input order. Turns are waited for on ClockConditions
+ * and no lock is held across the channel calls, so a VirtualClock is never stalled. A lane
+ * that stops while holding a ticket (interrupted, or failed) releases it, so the lanes behind
+ * it are not left waiting for a turn that would never come.
+ */
+public class LaneSequencer {
+    private final boolean fifo;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ClockCondition intakeFree;
+    private final ClockCondition outputTurn;
+    private boolean intakeBusy = false;
+    private long nextTicket = 0;
+    private long nextToEmit = 0;
+    private final Set<Long> released = new HashSet<>(); // Tickets given up before their turn
+
+    public LaneSequencer(boolean fifo, SimulationClock clock) {
+        this.fifo = fifo;
+        this.intakeFree = clock.newCondition(lock);
+        this.outputTurn = clock.newCondition(lock);
+    }
+
+    // Takes the next order and its ticket into the lane's slot; false at end of stream
+    public boolean take(StageSource<Order> in, Lane lane) throws InterruptedException {
+        if (!fifo) {
+            lane.order = in.take();
+            return lane.order != null;
+        }
+
+        lock.lock();
+        try {
+            while (intakeBusy) {
+                intakeFree.await();
+            }
+            intakeBusy = true;
+        } finally {
+            lock.unlock();
+        }
+
+        Order order = null;
+        try {
+            order = in.take(); // Only one lane waits here, so take order is ticket order
+            return order != null;
+        } finally {
+            lock.lock();
+            try {
+                if (order != null) {
+                    lane.order = order;
+                    lane.ticket = nextTicket++;
+                    lane.holding = true;
+                }
+                intakeBusy = false;
+                intakeFree.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Puts the lane's order once all earlier tickets are out
+    public void emit(Lane lane, StageSink<Order> out) throws InterruptedException {
+        if (!fifo) {
+            out.put(lane.order);
+            return;
+        }
+        awaitTurn(lane.ticket);
+        try {
+            out.put(lane.order);
+        } finally {
+            lane.holding = false;
+            advance();
+        }
+    }
+
+    // Releases a ticket whose order was rejected, in turn so later tickets are not held up
+    public void skip(Lane lane) throws InterruptedException {
+        if (!fifo) return;
+        awaitTurn(lane.ticket);
+        lane.holding = false;
+        advance();
+    }
+
+    // Gives up the lane's ticket if it was neither emitted nor skipped; call when the lane stops
+    public void release(Lane lane) {
+        if (!fifo || !lane.holding) return;
+        lane.holding = false;
+        lock.lock();
+        try {
+            if (lane.ticket == nextToEmit) {
+                advance();
+            } else {
+                released.add(lane.ticket); // Passed over when its turn comes
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void awaitTurn(long ticket) throws InterruptedException {
+        lock.lock();
+        try {
+            while (nextToEmit != ticket) {
+                outputTurn.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void advance() {
+        lock.lock();
+        try {
+            nextToEmit++;
+            while (!released.isEmpty() && released.remove(nextToEmit)) {
+                nextToEmit++;
+            }
+            outputTurn.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isFifo() { return fifo; }
+
+    // One lane's current order and ticket; owned by that lane's thread
+    public static final class Lane {
+        Order order;
+        long ticket;
+        boolean holding; // Has a ticket that is not yet emitted or skipped
+
+        public Order getOrder() { return order; }
+    }
+}
@@ -0,0 +1,115 @@
+package Main;
+
+
+// LatencyHistogram.java
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+ * Concurrent fixed-memory latency histogram with HdrHistogram-style log-linear buckets.
+ * Values below 2^SUB_BUCKET_BITS are counted exactly; above that every power-of-two range
+ * is split into 2^SUB_BUCKET_BITS linear buckets, so percentiles are within 1% of the true
+ * value. Recording is lock-free and striped by thread so stage threads do not share counters.
+ *
+ * snapshot() returns everything recorded so far; intervalSnapshot() returns what was recorded
+ * since the previous interval and starts a new one, without stopping recorders or losing the
+ * cumulative totals.
+ */
+public class LatencyHistogram {
+    static final int SUB_BUCKET_BITS = 7;
+    static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    static final long MAX_VALUE = (1L << 40) - 1; // About 35 years in milliseconds
+    static final int BUCKET_COUNT = bucketIndex(MAX_VALUE) + 1;
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final Object intervalLock = new Object();
+    private LatencySnapshot intervalStart = LatencySnapshot.EMPTY;
+
+    public LatencyHistogram() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public LatencyHistogram(int concurrency) {
+        int count = Integer.highestOneBit(Math.max(1, Math.min(concurrency, 64)) * 2 - 1);
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.stripeMask = count - 1;
+    }
+
+    // Negative values are recorded as 0 and values above MAX_VALUE are clamped
+    public void record(long value) {
+        long clamped = Math.max(0, Math.min(value, MAX_VALUE));
+        Stripe stripe = stripes[(int) Thread.currentThread().getId() & stripeMask];
+        stripe.counts.incrementAndGet(bucketIndex(clamped));
+        stripe.sum.addAndGet(clamped);
+        if (clamped < stripe.min.get()) stripe.min.accumulateAndGet(clamped, Math::min);
+        if (clamped > stripe.max.get()) stripe.max.accumulateAndGet(clamped, Math::max);
+    }
+
+    // Adds everything in another histogram's snapshot, as when merging facilities; lock-free like record()
+    public void add(LatencySnapshot other) {
+        if (other.getCount() == 0) return;
+        Stripe stripe = stripes[(int) Thread.currentThread().getId() & stripeMask];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long count = other.getBucketCount(i);
+            if (count > 0) stripe.counts.addAndGet(i, count);
+        }
+        stripe.sum.addAndGet(other.getTotal());
+        stripe.min.accumulateAndGet(other.getMin(), Math::min);
+        stripe.max.accumulateAndGet(other.getMax(), Math::max);
+    }
+
+    public LatencySnapshot snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        long sum = 0;
+        long min = Long.MAX_VALUE;
+        long max = 0;
+        for (Stripe stripe : stripes) {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                counts[i] += stripe.counts.get(i);
+            }
+            sum += stripe.sum.get();
+            min = Math.min(min, stripe.min.get());
+            max = Math.max(max, stripe.max.get());
+        }
+        return new LatencySnapshot(counts, sum, min, max);
+    }
+
+    // Recordings since the previous call (or since creation); min and max are bucket-accurate
+    public LatencySnapshot intervalSnapshot() {
+        LatencySnapshot current = snapshot();
+        synchronized (intervalLock) {
+            LatencySnapshot interval = current.minus(intervalStart);
+            intervalStart = current;
+            return interval;
+        }
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKET_COUNT + (int) (value >>> shift) - SUB_BUCKET_COUNT;
+    }
+
+    static long lowestValue(int index) {
+        if (index < SUB_BUCKET_COUNT) return index;
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        return (long) (index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT) << shift;
+    }
+
+    static long highestValue(int index) {
+        if (index < SUB_BUCKET_COUNT) return index;
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        return lowestValue(index) + (1L << shift) - 1;
+    }
+
+    private static final class Stripe {
+        final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+        final AtomicLong sum = new AtomicLong();
+        final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+        final AtomicLong max = new AtomicLong();
+    }
+}
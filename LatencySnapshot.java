@@ -0,0 +1,67 @@
+package Main;
+
+
+// LatencySnapshot.java
+// Immutable copy of a LatencyHistogram's bucket counts
+public class LatencySnapshot {
+    static final LatencySnapshot EMPTY =
+            new LatencySnapshot(new long[LatencyHistogram.BUCKET_COUNT], 0, Long.MAX_VALUE, 0);
+
+    private final long[] counts;
+    private final long count;
+    private final long sum;
+    private final long min;
+    private final long max;
+
+    LatencySnapshot(long[] counts, long sum, long min, long max) {
+        this.counts = counts;
+        this.sum = sum;
+        this.min = min;
+        this.max = max;
+        long total = 0;
+        for (long bucket : counts) {
+            total += bucket;
+        }
+        this.count = total;
+    }
+
+    public long getCount() { return count; }
+    public long getMin() { return count == 0 ? 0 : min; }
+    public long getMax() { return max; }
+    public long getTotal() { return sum; }
+
+    long getBucketCount(int index) { return counts[index]; }
+
+    public long getMean() {
+        return count == 0 ? 0 : sum / count;
+    }
+
+    // Nearest-rank percentile, e.g. percentile(99.0), reported as the bucket's upper bound; 0 when empty
+    public long percentile(double percentile) {
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(Math.max(LatencyHistogram.highestValue(i), getMin()), max);
+            }
+        }
+        return max;
+    }
+
+    // Counts recorded after the earlier snapshot; min and max come from the occupied buckets
+    LatencySnapshot minus(LatencySnapshot earlier) {
+        long[] delta = new long[counts.length];
+        long low = Long.MAX_VALUE;
+        long high = 0;
+        for (int i = 0; i < counts.length; i++) {
+            delta[i] = counts[i] - earlier.counts[i];
+            if (delta[i] > 0) {
+                low = Math.min(low, LatencyHistogram.lowestValue(i));
+                high = Math.max(high, LatencyHistogram.highestValue(i));
+            }
+        }
+        return new LatencySnapshot(delta, sum - earlier.sum, Math.max(low, min), Math.min(high, max));
+    }
+}
@@ -0,0 +1,290 @@
+package Main;
+
+
+// LoaderFleet.java
+import java.util.ArrayDeque;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ * Tracks the health of every autonomous loader and decides who works. Loaders wear with each
+ * container they move: the chance of a breakdown grows with the moves since the last repair
+ * or service, scaled by a per-loader frailty that the fleet does not know. From each loader's
+ * breakdown history the fleet estimates its failure rate per move, and with a service
+ * threshold it sends a loader whose predicted chance of failing on the next move has reached
+ * the threshold for a shorter preventive service, as long as another loader keeps working.
+ *
+ * A loader that breaks down mid-move hands its container back to the fleet; the next loader
+ * to look for work takes it before anything new from the sorter. Standby loaders stay parked
+ * until fewer than the minimum number of loaders are operational, and park again once the
+ * fleet is back above it.
+ */
+public class LoaderFleet {
+    private static final int WEAR_MOVES = 10;     // Moves since service that double the failure chance
+    private static final int PRIOR_MOVES = 20;    // Weight of the configured rate in a loader's estimate
+
+    private final LoaderHealth[] health;          // By loader id - 1
+    private final int primaryLoaders;
+    private final int minOperational;
+    private final double failureRate;             // Per move, for a freshly serviced loader of average frailty
+    private final double serviceThreshold;        // Predicted failure chance that triggers service; 0 = off
+    private final SimulationClock clock;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ClockCondition changed;         // Stranded work or a standby call
+    private final ArrayDeque<Container> stranded = new ArrayDeque<>();
+    private int operational;                      // Working loaders: not broken, in service or parked
+    private int standbyCalls;
+    private int rerouted;
+
+    public LoaderFleet(int primaryLoaders, int standbyLoaders, int minOperational, double failureRate,
+                       double serviceThreshold, SimulationClock clock) {
+        this.primaryLoaders = primaryLoaders;
+        this.minOperational = minOperational;
+        this.failureRate = failureRate;
+        this.serviceThreshold = serviceThreshold;
+        this.clock = clock;
+        this.changed = clock.newCondition(lock);
+        this.health = new LoaderHealth[primaryLoaders + standbyLoaders];
+        long now = clock.currentTimeMillis();
+        for (int i = 0; i < health.length; i++) {
+            boolean standby = i >= primaryLoaders;
+            health[i] = new LoaderHealth(ThreadLocalRandom.current().nextDouble(0.5, 2.0), standby, now);
+        }
+        this.operational = primaryLoaders;
+    }
+
+    public int getLoaders() { return health.length; }
+    public boolean isStandby(int loaderId) { return loaderId > primaryLoaders; }
+
+    // A parked standby loader waits here until it is called, stranded work appears or the wait ends;
+    // returns true once the loader should work
+    public boolean awaitDuty(int loaderId, long maxWaitMillis) throws InterruptedException {
+        lock.lock();
+        try {
+            LoaderHealth loader = health[loaderId - 1];
+            if (!loader.parked) return true;
+            if (operational >= minOperational) {
+                changed.await(maxWaitMillis);
+                if (operational >= minOperational) return false;
+            }
+            loader.parked = false;
+            loader.upSince = clock.currentTimeMillis();
+            operational++;
+            standbyCalls++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // A working standby loader goes back to its stand once the fleet is covered without it
+    public boolean shouldPark(int loaderId) {
+        lock.lock();
+        try {
+            LoaderHealth loader = health[loaderId - 1];
+            if (!isStandby(loaderId) || loader.parked || operational - 1 < minOperational) return false;
+            loader.parked = true;
+            loader.upTime += clock.currentTimeMillis() - loader.upSince;
+            operational--;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Container dropped by a loader that broke down, to be moved before new work
+    public Container takeStranded() {
+        lock.lock();
+        try {
+            return stranded.poll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean hasStranded() {
+        lock.lock();
+        try {
+            return !stranded.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Rolls whether the loader breaks down on the move it is starting
+    public boolean breaksDownOnMove(int loaderId) {
+        lock.lock();
+        try {
+            LoaderHealth loader = health[loaderId - 1];
+            double chance = failureRate * loader.frailty * wear(loader);
+            loader.moves++;
+            loader.movesSinceService++;
+            return ThreadLocalRandom.current().nextDouble() < chance;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Predicted chance of a breakdown on the next move, from the loader's own history
+    public double predictedFailure(int loaderId) {
+        lock.lock();
+        try {
+            return predictedLocked(health[loaderId - 1]);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // True (and the loader leaves the working set) when it is due for preventive service
+    public boolean startServiceIfDue(int loaderId) {
+        lock.lock();
+        try {
+            LoaderHealth loader = health[loaderId - 1];
+            if (serviceThreshold <= 0 || loader.movesSinceService == 0 || operational <= 1
+                    || predictedLocked(loader) < serviceThreshold) {
+                return false;
+            }
+            loader.services++;
+            goDownLocked(loader);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The loader broke down; carried is the container it dropped, or null
+    public void brokeDown(int loaderId, Container carried) {
+        lock.lock();
+        try {
+            LoaderHealth loader = health[loaderId - 1];
+            loader.breakdowns++;
+            goDownLocked(loader);
+            if (carried != null) {
+                stranded.add(carried);
+                rerouted++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Back from a repair or a service, with the wear reset
+    public void backOnline(int loaderId, boolean repaired) {
+        lock.lock();
+        try {
+            LoaderHealth loader = health[loaderId - 1];
+            long now = clock.currentTimeMillis();
+            long down = now - loader.downSince;
+            if (repaired) loader.repairTime += down;
+            else loader.serviceTime += down;
+            loader.movesSinceService = 0;
+            loader.upSince = now;
+            operational++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void goDownLocked(LoaderHealth loader) {
+        long now = clock.currentTimeMillis();
+        loader.upTime += now - loader.upSince;
+        loader.downSince = now;
+        operational--;
+        changed.signalAll(); // Standby loaders check whether they are needed
+    }
+
+    private static double wear(LoaderHealth loader) {
+        return 1.0 + (double) loader.movesSinceService / WEAR_MOVES;
+    }
+
+    private double predictedLocked(LoaderHealth loader) {
+        double estimatedRate = (loader.breakdowns + failureRate * PRIOR_MOVES) / (loader.moves + PRIOR_MOVES);
+        return estimatedRate * wear(loader);
+    }
+
+    public int getOperational() {
+        lock.lock();
+        try {
+            return operational;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getStandbyCalls() {
+        lock.lock();
+        try {
+            return standbyCalls;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getRerouted() {
+        lock.lock();
+        try {
+            return rerouted;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Copy of one loader's record; up time includes the current working stretch
+    public LoaderHealth getHealth(int loaderId) {
+        lock.lock();
+        try {
+            LoaderHealth loader = health[loaderId - 1];
+            LoaderHealth copy = new LoaderHealth(loader.frailty, loader.parked, loader.upSince);
+            copy.moves = loader.moves;
+            copy.movesSinceService = loader.movesSinceService;
+            copy.breakdowns = loader.breakdowns;
+            copy.services = loader.services;
+            copy.upTime = loader.upTime;
+            copy.repairTime = loader.repairTime;
+            copy.serviceTime = loader.serviceTime;
+            copy.predicted = predictedLocked(loader);
+            boolean working = !loader.parked && loader.upSince >= loader.downSince;
+            if (working) copy.upTime += clock.currentTimeMillis() - loader.upSince;
+            return copy;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Breakdown and maintenance history of one loader
+    public static final class LoaderHealth {
+        private final double frailty;
+        private boolean parked;
+        private long upSince;
+        private long downSince = Long.MIN_VALUE;
+        private int moves;
+        private int movesSinceService;
+        private int breakdowns;
+        private int services;
+        private long upTime;
+        private long repairTime;
+        private long serviceTime;
+        private double predicted;
+
+        private LoaderHealth(double frailty, boolean parked, long upSince) {
+            this.frailty = frailty;
+            this.parked = parked;
+            this.upSince = upSince;
+        }
+
+        public int getMoves() { return moves; }
+        public int getBreakdowns() { return breakdowns; }
+        public int getServices() { return services; }
+        public long getUpTime() { return upTime; }
+        public long getRepairTime() { return repairTime; }
+        public long getServiceTime() { return serviceTime; }
+        public double getFrailty() { return frailty; }
+        public double getPredictedFailure() { return predicted; }
+
+        // Mean working time between breakdowns; the whole working time when it never broke down
+        public long getMtbf() { return upTime / Math.max(1, breakdowns); }
+
+        // Mean time to repair; 0 without breakdowns
+        public long getMttr() { return breakdowns == 0 ? 0 : repairTime / breakdowns; }
+    }
+}
@@ -0,0 +1,76 @@
+package Main;
+
+
+// LoaderWorkQueues.java
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * How loaders get containers from the sorter's hand-off. SHARED has every loader poll the one
+ * channel. With work stealing each loader owns a deque: it claims a few containers from the
+ * channel at a time into its own deque and works through them oldest first, and a loader
+ * whose deque is empty steals the newest container from the fullest peer before going back
+ * to the channel. Containers claimed by a loader that is stuck at a bay or broken down are
+ * picked up by the others, and the channel is touched once per claim instead of per move.
+ */
+public class LoaderWorkQueues {
+    private final StageSource<Container> shared;
+    private final boolean stealing;
+    private final int claimBatch;
+    private final List<ConcurrentLinkedDeque<Container>> deques = new ArrayList<>(); // By loader id - 1
+    private final LongAdder claims = new LongAdder();
+    private final LongAdder steals = new LongAdder();
+
+    public LoaderWorkQueues(StageSource<Container> shared, int loaders, boolean stealing, int claimBatch) {
+        this.shared = shared;
+        this.stealing = stealing;
+        this.claimBatch = claimBatch;
+        for (int i = 0; i < loaders; i++) {
+            deques.add(new ConcurrentLinkedDeque<>());
+        }
+    }
+
+    // Next container for the loader, waiting up to timeoutMillis; null on timeout or end of stream
+    public Container next(int loaderId, long timeoutMillis) throws InterruptedException {
+        if (!stealing) return shared.poll(timeoutMillis);
+        ConcurrentLinkedDeque<Container> own = deques.get(loaderId - 1);
+        Container container = own.pollFirst();
+        if (container != null) return container;
+        container = steal(loaderId);
+        if (container != null) return container;
+        if (shared.drainTo(own, claimBatch, timeoutMillis) == 0) return null;
+        claims.increment();
+        return own.pollFirst(); // A peer may have stolen the whole claim already
+    }
+
+    private Container steal(int thiefId) {
+        ConcurrentLinkedDeque<Container> victim = null;
+        int most = 0;
+        for (int i = 0; i < deques.size(); i++) {
+            if (i == thiefId - 1) continue;
+            int queued = deques.get(i).size();
+            if (queued > most) {
+                most = queued;
+                victim = deques.get(i);
+            }
+        }
+        Container container = victim == null ? null : victim.pollLast();
+        if (container != null) steals.increment();
+        return container;
+    }
+
+    // True once the sorter has finished and no container is left in the channel or any deque
+    public boolean isDrained() {
+        if (!shared.isDrained()) return false;
+        for (ConcurrentLinkedDeque<Container> deque : deques) {
+            if (!deque.isEmpty()) return false;
+        }
+        return true;
+    }
+
+    public boolean isStealing() { return stealing; }
+    public long getClaims() { return claims.sum(); }
+    public long getSteals() { return steals.sum(); }
+}
@@ -4,38 +4,38 @@ package Main;
 
 // LoadingBay.java
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class LoadingBay {
     private final int bayId;
     private final ConcurrentLinkedQueue<Container> containers;
-    private final ReentrantLock bayLock;
-    private static final int MAX_CAPACITY = 10;
+    private final int capacity;
+    private final BackpressureGate occupancyGate; // Pauses packing when every bay is full
+    private final AtomicInteger containersReceived = new AtomicInteger(0);
     
-    public LoadingBay(int bayId) {
+    public LoadingBay(int bayId, int capacity, BackpressureGate occupancyGate) {
         this.bayId = bayId;
         this.containers = new ConcurrentLinkedQueue<>();
-        this.bayLock = new ReentrantLock();
-    }
-    
-    public boolean tryLock() {
-        return bayLock.tryLock();
-    }
-    
-    public void unlock() {
-        bayLock.unlock();
+        this.capacity = capacity;
+        this.occupancyGate = occupancyGate;
     }
     
     public boolean addContainer(Container container) {
-        if (containers.size() < MAX_CAPACITY) {
+        if (containers.size() < capacity) {
             containers.offer(container);
+            containersReceived.incrementAndGet();
+            occupancyGate.increment();
             return true;
         }
         return false;
     }
     
     public Container removeContainer() {
-        return containers.poll();
+        Container container = containers.poll();
+        if (container != null) {
+            occupancyGate.decrement();
+        }
+        return container;
     }
     
     public int getContainerCount() {
@@ -43,7 +43,7 @@ public class LoadingBay {
     }
     
     public boolean isFull() {
-        return containers.size() >= MAX_CAPACITY;
+        return containers.size() >= capacity;
     }
     
     public boolean isEmpty() {
@@ -51,9 +51,11 @@ public class LoadingBay {
     }
     
     public int getBayId() { return bayId; }
+    public int getCapacity() { return capacity; }
+    public int getContainersReceived() { return containersReceived.get(); }
     
     @Override
     public String toString() {
-        return "LoadingBay-" + bayId + " (" + containers.size() + "/" + MAX_CAPACITY + " containers)";
+        return "LoadingBay-" + bayId + " (" + containers.size() + "/" + capacity + " containers)";
     }
 }
@@ -1,38 +1,116 @@
 
+
 package Main;
 
 // Order.java
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.concurrent.atomic.AtomicInteger;
 
+/*
+ * An order kept to primitives so that 100k+ in flight stay cheap: with compressed oops the
+ * object is 32 bytes and owns nothing else. The tracking id is derived from the order id on
+ * demand, and the rejection state is a single byte (0 while the order is live, else the
+ * RejectionReason code + 1) set once by CAS. Stage entry is kept as an int offset from the
+ * creation time, which covers any simulated day (about 24 days of milliseconds).
+ */
 public class Order {
+    static final int MAX_ZONE = Short.MAX_VALUE; // The zone is stored as a short
     private static final AtomicInteger orderCounter = new AtomicInteger(1);
+    private static final byte LIVE = 0;
+    private static final VarHandle STATE;
+    static {
+        try {
+            STATE = MethodHandles.lookup().findVarHandle(Order.class, "state", byte.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     private final int orderId;
-    private final String trackingId;
-    private volatile boolean isRejected;
-    private volatile String rejectionReason;
     private final long creationTime;
-    
-    public Order() {
+    private final short zone;       // Regional delivery zone, used by the sorter
+    private volatile byte state;    // LIVE, or rejection reason code + 1
+    private int stageEnteredOffset; // Hand-offs between stages are synchronized, so no volatile needed
+
+    public Order(long creationTime) {
+        this(creationTime, 0);
+    }
+
+    public Order(long creationTime, int zone) {
         this.orderId = orderCounter.getAndIncrement();
-        this.trackingId = "TRK" + String.format("%06d", orderId);
-        this.isRejected = false;
-        this.creationTime = System.currentTimeMillis();
+        this.creationTime = creationTime;
+        this.zone = checkZone(zone);
+    }
+
+    // An order rebuilt from the journal, re-entering the pipeline at resumedAt
+    Order(int orderId, long creationTime, int zone, long resumedAt) {
+        this.orderId = orderId;
+        this.creationTime = creationTime;
+        this.zone = checkZone(zone);
+        this.stageEnteredOffset = (int) (resumedAt - creationTime);
+    }
+
+    private static short checkZone(int zone) {
+        if (zone < 0 || zone > MAX_ZONE) {
+            throw new IllegalArgumentException("Zone " + zone + " is outside 0.." + MAX_ZONE);
+        }
+        return (short) zone;
+    }
+
+    // An order decoded from a remote hand-off, exactly as it left its last stage in the other process
+    static Order received(int orderId, long creationTime, int zone, int stageEnteredOffset, byte state) {
+        Order order = new Order(orderId, creationTime, zone, creationTime + stageEnteredOffset);
+        order.state = state;
+        return order;
+    }
+
+    // Id the next new order will get
+    static int peekNextId() {
+        return orderCounter.get();
+    }
+
+    // Makes new orders continue after the ids a replayed journal already used
+    static void reserveIds(int lastUsed) {
+        orderCounter.accumulateAndGet(lastUsed + 1, Math::max);
     }
-    
+
+    // "TRK" and the order id padded to six digits
+    static String trackingId(int orderId) {
+        String digits = Integer.toString(orderId);
+        return digits.length() >= 6 ? "TRK" + digits : "TRK" + "000000".substring(digits.length()) + digits;
+    }
+
     // Getters and setters
     public int getOrderId() { return orderId; }
-    public String getTrackingId() { return trackingId; }
-    public boolean isRejected() { return isRejected; }
-    public String getRejectionReason() { return rejectionReason; }
+    public String getTrackingId() { return trackingId(orderId); }
+    public boolean isRejected() { return state != LIVE; }
     public long getCreationTime() { return creationTime; }
-    
-    public synchronized void reject(String reason) {
-        this.isRejected = true;
-        this.rejectionReason = reason;
+    public int getZone() { return zone; }
+
+    int getStageEnteredOffset() { return stageEnteredOffset; }
+    byte getState() { return state; }
+
+    // Null while the order has not been rejected
+    public RejectionReason getRejectionReason() {
+        byte current = state;
+        return current == LIVE ? null : RejectionReason.fromCode(current - 1);
+    }
+
+    // Marks the order as leaving its current stage; returns the time spent there
+    public long completeStage(long now) {
+        long elapsed = now - creationTime - stageEnteredOffset;
+        stageEnteredOffset = (int) (now - creationTime);
+        return elapsed;
     }
-    
+
+    // Rejects a live order; false if it had already been rejected, which keeps the first reason
+    public boolean reject(RejectionReason reason) {
+        return STATE.compareAndSet(this, LIVE, (byte) (reason.ordinal() + 1));
+    }
+
     @Override
     public String toString() {
-        return "Order #" + orderId + " (Tracking: " + trackingId + ")";
+        return "Order #" + orderId + " (Tracking: " + getTrackingId() + ", Zone: " + zone + ")";
     }
 }
@@ -0,0 +1,41 @@
+package Main;
+
+
+// OrderBuffer.java
+/*
+ * Fixed-capacity, array-backed list of orders for single-writer use (sorter batches and
+ * containers). Nothing is copied on add and clear() keeps the array, so a buffer can be
+ * reused indefinitely. Readers on other threads must receive it through a hand-off.
+ */
+public class OrderBuffer {
+    private final Order[] orders;
+    private int size = 0;
+
+    public OrderBuffer(int capacity) {
+        this.orders = new Order[capacity];
+    }
+
+    // False when the buffer is already full
+    public boolean add(Order order) {
+        if (size == orders.length) return false;
+        orders[size++] = order;
+        return true;
+    }
+
+    public Order get(int index) {
+        if (index >= size) throw new IndexOutOfBoundsException("Index " + index + " out of " + size);
+        return orders[index];
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            orders[i] = null; // Do not keep shipped orders reachable
+        }
+        size = 0;
+    }
+
+    public int size() { return size; }
+    public int capacity() { return orders.length; }
+    public boolean isEmpty() { return size == 0; }
+    public boolean isFull() { return size == orders.length; }
+}
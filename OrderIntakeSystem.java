@@ -3,54 +3,115 @@ package Main;
 
 
 // OrderIntakeSystem.java
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
 
+// Verifies arriving orders and publishes them to picking in micro-batches (1 = one at a time).
+// In a sharded run an arrival that finds the hand-off full may be routed to another facility,
+// and arrivals routed here are verified alongside this facility's own
 public class OrderIntakeSystem implements Runnable {
-    private final BlockingQueue<Order> orderQueue;
+    private final StageSink<Order> orderQueue;
     private final Statistics statistics;
     private final int totalOrders;
+    private final int zones;
+    private final int batchSize;
+    private final List<Order> batch;
+    private final DurationRange arrivalInterval;
+    private final ShardRouter router;
+    private final int shard;
+    private final SimulationClock clock;
+    private final EventLog eventLog;
+    private final OrderJournal journal;
     private volatile boolean isRunning = true;
     
-    public OrderIntakeSystem(BlockingQueue<Order> orderQueue, Statistics statistics, int totalOrders) {
+    public OrderIntakeSystem(StageSink<Order> orderQueue, Statistics statistics, int totalOrders, int zones,
+                            int batchSize, DurationRange arrivalInterval, ShardRouter router, int shard, 
+                            SimulationClock clock, EventLog eventLog, OrderJournal journal) {
         this.orderQueue = orderQueue;
         this.statistics = statistics;
         this.totalOrders = totalOrders;
+        this.zones = zones;
+        this.batchSize = batchSize;
+        this.batch = new ArrayList<>(batchSize);
+        this.arrivalInterval = arrivalInterval;
+        this.router = router;
+        this.shard = shard;
+        this.clock = clock;
+        this.eventLog = eventLog;
+        this.journal = journal;
     }
     
     @Override
     public void run() {
         try {
             for (int i = 0; i < totalOrders; i++) {
-                Order order = new Order();
+                admitRouted();
                 
-                // Simulate order verification (payment, inventory, shipping address)
-                if (ThreadLocalRandom.current().nextDouble() < 0.05) { // 5% rejection rate
-                    order.reject("Payment verification failed");
-                    statistics.addRejection("Payment verification failed");
-                    System.out.println("OrderIntake: Order #" + order.getOrderId() + 
-                                     " REJECTED - Payment verification failed (Thread: " + 
-                                     Thread.currentThread().getName() + ")");
-                    continue;
+                // Destination zone comes with the shipping address
+                int zone = ThreadLocalRandom.current().nextInt(zones);
+                int target = orderQueue.size() + batch.size() >= orderQueue.getCapacity() 
+                        ? router.routeOverflow(shard, zone) : 0;
+                if (target != 0) {
+                    eventLog.log(EventType.ORDER_ROUTED_OUT, zone, target);
+                } else {
+                    admit(new Order(clock.currentTimeMillis(), zone));
                 }
                 
-                orderQueue.offer(order);
-                statistics.incrementOrdersProcessed();
-                System.out.println("OrderIntake: Order #" + order.getOrderId() + 
-                                 " received and verified (Thread: " + 
-                                 Thread.currentThread().getName() + ")");
-                
-                Thread.sleep(500); // Orders arrive every 500ms
+                clock.sleep(arrivalInterval.sample()); // Orders arrive every 500ms by default
             }
+            router.closeIntake(shard);
+            admitRouted(); // Arrivals routed here before the intake closed
+            publishBatch(); // Last, part-full batch
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             System.err.println("OrderIntakeSystem interrupted: " + e.getMessage());
         } finally {
             isRunning = false;
-            System.out.println("OrderIntake: All " + totalOrders + " orders processed (Thread: " + 
-                             Thread.currentThread().getName() + ")");
+            orderQueue.producerFinished();
+            eventLog.log(EventType.INTAKE_FINISHED, totalOrders);
+        }
+    }
+    
+    // Verifies one order (payment, inventory, shipping address) and adds it to the batch
+    private void admit(Order order) throws InterruptedException {
+        if (ThreadLocalRandom.current().nextDouble() < 0.05) { // 5% rejection rate
+            RejectionReason reason = RejectionReason.PAYMENT_FAILED;
+            order.reject(reason);
+            statistics.addRejection(reason, order, clock.currentTimeMillis());
+            journal.record(JournalRecordType.REJECTED, order.getOrderId(), order.getZone(), reason.ordinal());
+            eventLog.log(EventType.INTAKE_REJECTED, order.getOrderId(), reason.ordinal());
+            return;
+        }
+        
+        journal.record(JournalRecordType.RECEIVED, order.getOrderId(), order.getZone(), 0);
+        batch.add(order);
+        statistics.incrementOrdersProcessed();
+        eventLog.log(EventType.ORDER_RECEIVED, order.getOrderId());
+        if (batch.size() >= batchSize) {
+            publishBatch();
+        }
+    }
+    
+    // Arrivals other facilities could not take in become orders here, stamped with this clock
+    private void admitRouted() throws InterruptedException {
+        int[] routed;
+        while ((routed = router.pollRouted(shard)) != null) {
+            Order order = new Order(clock.currentTimeMillis(), routed[0]);
+            eventLog.log(EventType.ORDER_ROUTED_IN, order.getOrderId(), routed[1]);
+            admit(order);
+        }
+    }
+    
+    // Intake latency runs until the batch is handed over, so it includes the wait for the batch to fill
+    private void publishBatch() throws InterruptedException {
+        if (batch.isEmpty()) return;
+        long now = clock.currentTimeMillis();
+        for (Order order : batch) {
+            statistics.completeStage(Statistics.STAGE_INTAKE, order, now);
         }
+        orderQueue.putAll(batch);
+        batch.clear();
     }
     
     public boolean isRunning() { return isRunning; }
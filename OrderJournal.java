@@ -0,0 +1,287 @@
+package Main;
+
+
+// OrderJournal.java
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/*
+ * Append-only write-ahead journal of order and container stage transitions. A stage records a
+ * transition before handing the order on, so after a crash the journal holds a prefix of what
+ * happened and JournalReplay can rebuild the in-flight pipeline from it.
+ *
+ * File layout: the 8-byte MAGIC header followed by 24-byte records
+ *
+ *   long dayTime | byte type | byte pad | short zone | int id | int a | int crc32c (of the first 20 bytes)
+ *
+ * dayTime is simulated milliseconds since the start of the day and carries on across restarts.
+ *
+ * Group commit: stage threads append into a shared buffer; a writer thread swaps it out, writes
+ * it through the FileChannel and forces it, so one fsync covers every record appended meanwhile.
+ * With a sync interval the writer forces at most once per interval and a crash can lose that
+ * last interval; with 0 every record() waits until its record is on disk. The writer runs on
+ * real time like the EventLog writer, so waiting for it only pauses a virtual clock.
+ */
+public class OrderJournal implements AutoCloseable {
+    public static final byte[] MAGIC = "SCJRNL01".getBytes(StandardCharsets.US_ASCII);
+    public static final int RECORD_BYTES = 24;
+    static final int CHECKED_BYTES = 20;
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final FileChannel channel; // Null when journaling is off
+    private final SimulationClock clock;
+    private final long syncMillis;
+    private final long origin;        // Clock reading at resumedAt
+    private final long resumedAt;     // Day time the journal left off at, 0 for a new day
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition recordsPending = lock.newCondition(); // Writer waits for records
+    private final Condition progress = lock.newCondition();       // Stages wait for room or durability
+    private final Thread writer;
+    private final long openedNanos = System.nanoTime();
+    private ByteBuffer pending = ByteBuffer.allocateDirect(BUFFER_BYTES);   // Guarded by lock
+    private ByteBuffer writing = ByteBuffer.allocateDirect(BUFFER_BYTES);   // Writer thread only
+    private long appended;            // Records accepted, guarded by lock
+    private long durable;             // Records forced to disk, guarded by lock
+    private boolean closed;           // Guarded by lock
+    private long dropped;             // Guarded by lock
+    private long durableWaitNanos;    // Guarded by lock
+    private volatile IOException failure;
+    private volatile long forces;
+    private volatile long forceNanos;
+    private volatile long maxBatch;
+    private volatile long closedNanos;
+
+    private OrderJournal(FileChannel channel, long syncMillis, SimulationClock clock, long resumedAt) {
+        this.channel = channel;
+        this.syncMillis = syncMillis;
+        this.clock = clock;
+        this.resumedAt = resumedAt;
+        this.origin = clock == null ? 0 : clock.currentTimeMillis();
+        if (channel == null) {
+            this.writer = null;
+        } else {
+            this.writer = new Thread(this::writeLoop, "OrderJournal-writer");
+            this.writer.setDaemon(true);
+            this.writer.start();
+        }
+    }
+
+    // A journal that records nothing (benchmarks, no --journal)
+    public static OrderJournal disabled() {
+        return new OrderJournal(null, 0, null, 0);
+    }
+
+    // Starts a new day, replacing any journal at path
+    public static OrderJournal create(Path path, long syncMillis, SimulationClock clock) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                               StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer header = ByteBuffer.wrap(MAGIC);
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        channel.force(true);
+        return new OrderJournal(channel, syncMillis, clock, 0);
+    }
+
+    // Carries on after the last intact record of a replayed journal, dropping any torn tail
+    public static OrderJournal resume(Path path, JournalReplay replay, long syncMillis,
+                                      SimulationClock clock) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE);
+        channel.truncate(replay.getValidBytes());
+        channel.position(replay.getValidBytes());
+        return new OrderJournal(channel, syncMillis, clock, replay.getLastDayTime());
+    }
+
+    public boolean isEnabled() {
+        return channel != null;
+    }
+
+    // Converts a journal day time into a reading of this run's clock (earlier days come out negative)
+    public long toClockTime(long dayTime) {
+        return origin + dayTime - resumedAt;
+    }
+
+    public void record(JournalRecordType type, int id, int zone, int a) {
+        if (channel == null) return;
+        long dayTime = resumedAt + clock.currentTimeMillis() - origin;
+        lock.lock();
+        try {
+            while (pending.remaining() < RECORD_BYTES && !closed) {
+                recordsPending.signal();
+                progress.awaitUninterruptibly(); // Writer is behind; it always catches up or fails
+            }
+            if (closed) {
+                dropped++;
+                return;
+            }
+            pending.putLong(dayTime).put((byte) type.ordinal()).put((byte) 0).putShort((short) zone)
+                   .putInt(id).putInt(a).putInt(0); // The writer fills in the checksum
+            long sequence = ++appended;
+
+            if (syncMillis == 0) {
+                recordsPending.signal();
+                long waitStart = System.nanoTime();
+                while (durable < sequence && failure == null) {
+                    progress.awaitUninterruptibly();
+                }
+                durableWaitNanos += System.nanoTime() - waitStart;
+            } else if (pending.position() >= BUFFER_BYTES / 2) {
+                recordsPending.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Writes and forces everything recorded so far, then closes the file
+    @Override
+    public void close() throws IOException {
+        if (channel == null) return;
+        lock.lock();
+        try {
+            if (closed) return;
+            closed = true;
+            recordsPending.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closedNanos = System.nanoTime();
+        channel.close();
+        if (failure != null) throw failure;
+    }
+
+    private void writeLoop() {
+        CRC32C crc = new CRC32C();
+        byte[] record = new byte[CHECKED_BYTES];
+        try {
+            while (true) {
+                boolean finishing;
+                long batchEnd;
+                lock.lock();
+                try {
+                    if (syncMillis > 0 && !closed && pending.position() < BUFFER_BYTES / 2) {
+                        recordsPending.await(syncMillis, TimeUnit.MILLISECONDS); // Gather one interval's records
+                    }
+                    while (pending.position() == 0 && !closed) {
+                        if (syncMillis > 0) {
+                            recordsPending.await(syncMillis, TimeUnit.MILLISECONDS); // Appends do not signal
+                        } else {
+                            recordsPending.await();
+                        }
+                    }
+                    finishing = closed;
+                    ByteBuffer full = pending;
+                    pending = writing;
+                    writing = full;
+                    batchEnd = appended;
+                    progress.signalAll(); // Stages waiting for room can carry on
+                } finally {
+                    lock.unlock();
+                }
+
+                if (writing.position() > 0) {
+                    writing.flip();
+                    long records = writing.remaining() / RECORD_BYTES;
+                    for (int offset = 0; offset < writing.limit(); offset += RECORD_BYTES) {
+                        writing.get(offset, record);
+                        crc.reset();
+                        crc.update(record);
+                        writing.putInt(offset + CHECKED_BYTES, (int) crc.getValue());
+                    }
+                    while (writing.hasRemaining()) {
+                        channel.write(writing);
+                    }
+                    writing.clear();
+
+                    long forceStart = System.nanoTime();
+                    channel.force(false);
+                    forceNanos += System.nanoTime() - forceStart;
+                    forces++;
+                    maxBatch = Math.max(maxBatch, records);
+                }
+
+                lock.lock();
+                try {
+                    durable = batchEnd;
+                    progress.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                if (finishing) break;
+            }
+        } catch (IOException e) {
+            failWith(e);
+            System.err.println("OrderJournal writer failed: " + e.getMessage());
+        } catch (InterruptedException e) {
+            failWith(new IOException("Journal writer interrupted", e));
+        }
+    }
+
+    private void failWith(IOException e) {
+        lock.lock();
+        try {
+            failure = e;
+            closed = true;
+            progress.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getRecords() {
+        lock.lock();
+        try {
+            return durable;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getDropped() {
+        lock.lock();
+        try {
+            return dropped;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Total time stages spent waiting for their records to be forced (sync interval 0 only)
+    public double getDurableWaitMillis() {
+        lock.lock();
+        try {
+            return durableWaitNanos / 1_000_000.0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getSyncMillis() { return syncMillis; }
+    public long getForces() { return forces; }
+    public long getMaxBatch() { return maxBatch; }
+    public double getForceMillis() { return forceNanos / 1_000_000.0; }
+
+    public double getAverageBatch() {
+        long forced = forces;
+        return forced == 0 ? 0.0 : (double) getRecords() / forced;
+    }
+
+    // Durable records per wall-clock second while the journal was open
+    public double getRecordsPerSecond() {
+        long end = closedNanos == 0 ? System.nanoTime() : closedNanos;
+        return getRecords() * 1e9 / Math.max(1, end - openedNanos);
+    }
+}
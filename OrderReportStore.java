@@ -0,0 +1,186 @@
+package Main;
+
+
+// OrderReportStore.java
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Per-order detail for one simulated day, kept in a memory-mapped columnar file so it never
+ * sits on the heap. The file is sized up front for the day's orders: a 64-byte header, then
+ * every ReportColumn in turn as one fixed-width array indexed by (order id - first order id).
+ * A stage writes the order's completion time straight into its row when the order leaves the
+ * stage, and each row is only written by the stage thread holding the order at the time, so
+ * no locking is needed. Rows of orders that never finished are left IN_FLIGHT.
+ *
+ * Header: MAGIC | int rows | int firstOrderId | int columns | int rowBytes | long dayStartEpochMillis
+ *
+ * Every run writes a new day-<timestamp>.scr file into the store directory; ReportQuery scans
+ * any number of them without copying the columns onto the heap.
+ */
+public class OrderReportStore implements AutoCloseable {
+    public static final byte[] MAGIC = "SCRPT001".getBytes(StandardCharsets.US_ASCII);
+    public static final int HEADER_BYTES = 64;
+    public static final String FILE_SUFFIX = ".scr";
+    public static final int NOT_REACHED = Integer.MIN_VALUE;
+    public static final byte IN_FLIGHT = 0;
+    public static final byte DELIVERED = 1;
+    public static final byte REJECTED = 2;
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final Path path;
+    private final MappedByteBuffer columns; // Null when the store is off
+    private final int rows;
+    private final int firstOrderId;
+    private final long dayStart;            // Clock reading at the start of the day
+    private final int[] offsets = new int[ReportColumn.values().length];
+    private final LongAdder outOfRange = new LongAdder();
+
+    private OrderReportStore(Path path, MappedByteBuffer columns, int rows, int firstOrderId, long dayStart) {
+        this.path = path;
+        this.columns = columns;
+        this.rows = rows;
+        this.firstOrderId = firstOrderId;
+        this.dayStart = dayStart;
+        for (ReportColumn column : ReportColumn.values()) {
+            offsets[column.ordinal()] = (int) columnOffset(column, rows);
+        }
+    }
+
+    // A store that keeps nothing (benchmarks, no --report-store)
+    public static OrderReportStore disabled() {
+        return new OrderReportStore(null, null, 0, 0, 0);
+    }
+
+    // Creates a day file for rows orders, starting at the next order id to be issued
+    public static OrderReportStore create(Path directory, int rows, SimulationClock clock) throws IOException {
+        long fileBytes = columnOffset(null, rows);
+        if (fileBytes > Integer.MAX_VALUE) {
+            throw new IOException("Too many orders for one report file: " + rows);
+        }
+        Files.createDirectories(directory);
+        String stamp = LocalDateTime.now().format(FILE_TIME);
+        Path path = directory.resolve("day-" + stamp + FILE_SUFFIX);
+        for (int n = 2; Files.exists(path); n++) {
+            path = directory.resolve("day-" + stamp + "-" + n + FILE_SUFFIX);
+        }
+
+        MappedByteBuffer columns;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                                                    StandardOpenOption.WRITE)) {
+            columns = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileBytes); // Stays valid after close
+        }
+        int firstOrderId = Order.peekNextId();
+        columns.put(0, MAGIC);
+        columns.putInt(8, rows).putInt(12, firstOrderId).putInt(16, ReportColumn.values().length)
+               .putInt(20, ReportColumn.rowBytes()).putLong(24, System.currentTimeMillis());
+
+        OrderReportStore store = new OrderReportStore(path, columns, rows, firstOrderId, clock.currentTimeMillis());
+        for (ReportColumn column : ReportColumn.values()) {
+            if (!column.isTime()) continue;
+            int base = store.offsets[column.ordinal()];
+            for (int row = 0; row < rows; row++) {
+                columns.putInt(base + row * 4, NOT_REACHED);
+            }
+        }
+        return store;
+    }
+
+    // Start of the column's array in a file of the given rows; null gives the file size
+    static long columnOffset(ReportColumn column, int rows) {
+        long offset = HEADER_BYTES;
+        for (ReportColumn previous : ReportColumn.values()) {
+            if (previous == column) break;
+            offset += (long) previous.getWidth() * rows;
+        }
+        return offset;
+    }
+
+    public boolean isEnabled() {
+        return columns != null;
+    }
+
+    // The order left the stage at index stage of Statistics.LATENCY_STAGES; location is the
+    // container, bay or truck for the container, loading and truck stages
+    public void recordStage(Order order, int stage, long now, int location) {
+        int row = touch(order);
+        if (row < 0) return;
+        ReportColumn column = ReportColumn.STAGE_TIMES[stage];
+        putTime(column, row, now);
+        switch (column) {
+            case SHIPPED: putInt(ReportColumn.CONTAINER, row, location); break;
+            case LOADED: putInt(ReportColumn.BAY, row, location); break;
+            case DEPARTED:
+                putInt(ReportColumn.TRUCK, row, location);
+                columns.put(offsets[ReportColumn.STATUS.ordinal()] + row, DELIVERED);
+                break;
+            default: break;
+        }
+    }
+
+    public void recordRejection(Order order, RejectionReason reason, long now) {
+        int row = touch(order);
+        if (row < 0) return;
+        putTime(ReportColumn.REJECTED_AT, row, now);
+        columns.put(offsets[ReportColumn.REASON.ordinal()] + row, (byte) reason.ordinal());
+        columns.put(offsets[ReportColumn.STATUS.ordinal()] + row, REJECTED);
+    }
+
+    // Row of the order with its identity columns filled in, or -1 when the store cannot hold it
+    private int touch(Order order) {
+        if (columns == null) return -1;
+        int row = order.getOrderId() - firstOrderId;
+        if (row < 0 || row >= rows) {
+            outOfRange.increment();
+            return -1;
+        }
+        putInt(ReportColumn.ORDER_ID, row, order.getOrderId());
+        columns.putShort(offsets[ReportColumn.ZONE.ordinal()] + row * 2, (short) order.getZone());
+        putTime(ReportColumn.CREATED, row, order.getCreationTime());
+        return row;
+    }
+
+    private void putInt(ReportColumn column, int row, int value) {
+        columns.putInt(offsets[column.ordinal()] + row * 4, value);
+    }
+
+    private void putTime(ReportColumn column, int row, long time) {
+        long sinceStart = Math.max(Integer.MIN_VALUE + 1L, Math.min(time - dayStart, Integer.MAX_VALUE));
+        putInt(column, row, (int) sinceStart);
+    }
+
+    // Flushes the mapped columns to the file; the mapping itself is released with the store
+    @Override
+    public void close() {
+        if (columns != null) columns.force();
+    }
+
+    public Path getPath() { return path; }
+    public int getRows() { return rows; }
+    public long getOutOfRange() { return outOfRange.sum(); }
+
+    // Checks a mapped day file's header and returns its row count
+    static int readHeader(ByteBuffer file, Path path) throws IOException {
+        byte[] magic = new byte[MAGIC.length];
+        file.get(0, magic);
+        if (!Arrays.equals(magic, MAGIC) || file.getInt(16) != ReportColumn.values().length
+                || file.getInt(20) != ReportColumn.rowBytes()) {
+            throw new IOException("Not a report store day file: " + path);
+        }
+        int rows = file.getInt(8);
+        if (file.capacity() < columnOffset(null, rows)) {
+            throw new IOException("Report store day file is truncated: " + path);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,166 @@
+package Main;
+
+
+// OrderWire.java
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/*
+ * Binary protocol of a remote order hand-off. Every frame is an int length (the bytes after
+ * it), a type byte and the payload, big-endian:
+ *
+ *   HELLO    upstream -> downstream  int magic, byte version, byte split, long clock millis
+ *   WELCOME  downstream -> upstream  int credits (the downstream hand-off capacity), long clock millis
+ *   ORDERS   upstream -> downstream  short count, then count orders of ORDER_BYTES each
+ *   CREDIT   downstream -> upstream  int orders taken downstream since the last CREDIT
+ *   BAYS     downstream -> upstream  byte 1 = loading bays full (hold packing), 0 = open again
+ *   END      upstream -> downstream  long orders verified, long boxes packed, byte reasons, then a long
+ *                                    count of upstream rejections per reason
+ *
+ * An order is its id, creation time (already on the downstream clock), zone, stage-entry
+ * offset and rejection state, so it arrives exactly as it left its last upstream stage.
+ */
+final class OrderWire {
+    static final int MAGIC = 0x53435254; // "SCRT"
+    static final byte VERSION = 1;
+
+    static final byte HELLO = 1;
+    static final byte WELCOME = 2;
+    static final byte ORDERS = 3;
+    static final byte CREDIT = 4;
+    static final byte BAYS = 5;
+    static final byte END = 6;
+
+    static final int HEADER_BYTES = 5;   // Length and type
+    static final int ORDERS_HEADER_BYTES = HEADER_BYTES + 2;
+    static final int ORDER_BYTES = 19;
+    private static final int MAX_FRAME = 1 << 20;
+
+    private OrderWire() { }
+
+    static void putOrder(ByteBuffer frame, Order order, long clockOffset) {
+        frame.putInt(order.getOrderId());
+        frame.putLong(order.getCreationTime() + clockOffset);
+        frame.putShort((short) order.getZone());
+        frame.putInt(order.getStageEnteredOffset());
+        frame.put(order.getState());
+    }
+
+    static Order getOrder(ByteBuffer frame) {
+        int orderId = frame.getInt();
+        long creationTime = frame.getLong();
+        int zone = frame.getShort();
+        int stageEnteredOffset = frame.getInt();
+        byte state = frame.get();
+        return Order.received(orderId, creationTime, zone, stageEnteredOffset, state);
+    }
+
+    // Starts a frame of the given type in an empty buffer; finish() fills in the length
+    static ByteBuffer begin(ByteBuffer frame, byte type) {
+        frame.clear();
+        frame.putInt(0);
+        frame.put(type);
+        return frame;
+    }
+
+    static ByteBuffer finish(ByteBuffer frame) {
+        frame.putInt(0, frame.position() - 4);
+        return frame.flip();
+    }
+
+    static void write(SocketChannel socket, ByteBuffer frame) throws IOException {
+        while (frame.hasRemaining()) {
+            socket.write(frame);
+        }
+    }
+
+    // Reads the next frame into buffer, positioned at its type byte; false at a clean end of stream
+    static boolean read(SocketChannel socket, ByteBuffer buffer) throws IOException {
+        buffer.clear().limit(4);
+        if (!fill(socket, buffer, true)) return false;
+        int length = buffer.getInt(0);
+        if (length < 1 || length > MAX_FRAME) throw new IOException("Bad frame length " + length);
+        if (length + 4 > buffer.capacity()) throw new IOException("Frame of " + length + " bytes exceeds the buffer");
+        buffer.limit(4 + length);
+        fill(socket, buffer, false);
+        buffer.position(4);
+        return true;
+    }
+
+    private static boolean fill(SocketChannel socket, ByteBuffer buffer, boolean atFrameStart) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (socket.read(buffer) < 0) {
+                if (atFrameStart && buffer.position() == 0) return false;
+                throw new EOFException("Connection closed inside a frame");
+            }
+        }
+        return true;
+    }
+
+    // HOST:PORT, or unix:PATH for a Unix domain socket
+    static SocketAddress parseAddress(String address) {
+        if (address.startsWith("unix:")) {
+            if (address.length() == 5) throw new IllegalArgumentException("--remote=unix: needs a socket path");
+            return UnixDomainSocketAddress.of(address.substring(5));
+        }
+        int colon = address.lastIndexOf(':');
+        if (colon <= 0) throw new IllegalArgumentException("--remote must be HOST:PORT or unix:PATH: " + address);
+        int port = Integer.parseInt(address.substring(colon + 1).trim());
+        if (port <= 0 || port > 65535) throw new IllegalArgumentException("--remote port must be 1-65535: " + address);
+        return InetSocketAddress.createUnresolved(address.substring(0, colon), port);
+    }
+
+    static SocketChannel connect(SocketAddress address) throws IOException {
+        if (address instanceof UnixDomainSocketAddress) {
+            SocketChannel socket = SocketChannel.open(StandardProtocolFamily.UNIX);
+            socket.connect(address);
+            return socket;
+        }
+        InetSocketAddress inet = (InetSocketAddress) address;
+        SocketChannel socket = SocketChannel.open(new InetSocketAddress(inet.getHostString(), inet.getPort()));
+        socket.setOption(StandardSocketOptions.TCP_NODELAY, true); // Batching is ours, not Nagle's
+        return socket;
+    }
+
+    // A stale socket file from an earlier run would make the bind fail
+    static ServerSocketChannel listen(SocketAddress address) throws IOException {
+        if (address instanceof UnixDomainSocketAddress) {
+            Path path = ((UnixDomainSocketAddress) address).getPath();
+            Files.deleteIfExists(path);
+            ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+            server.bind(address);
+            return server;
+        }
+        InetSocketAddress inet = (InetSocketAddress) address;
+        ServerSocketChannel server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(inet.getHostString(), inet.getPort()));
+        return server;
+    }
+
+    static SocketChannel accept(ServerSocketChannel server) throws IOException {
+        SocketChannel socket = server.accept();
+        if (!(server.getLocalAddress() instanceof UnixDomainSocketAddress)) {
+            socket.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        }
+        return socket;
+    }
+
+    static void unlink(SocketAddress address) {
+        if (!(address instanceof UnixDomainSocketAddress)) return;
+        try {
+            Files.deleteIfExists(((UnixDomainSocketAddress) address).getPath());
+        } catch (IOException e) {
+            // Only a leftover file; the next listen removes it
+        }
+    }
+}
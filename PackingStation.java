@@ -6,63 +6,98 @@ package Main;
 
 
 // PackingStation.java
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
 
+// One packing lane; several lanes share the input channel and a LaneSequencer
 public class PackingStation implements Runnable {
-    private final BlockingQueue<Order> incomingOrders;
-    private final BlockingQueue<Order> outgoingOrders;
+    private final int laneId;
+    private final StageSource<Order> incomingOrders;
+    private final StageSink<Order> outgoingOrders;
+    private final LaneSequencer sequencer;
+    private final LaneSequencer.Lane lane = new LaneSequencer.Lane();
     private final Statistics statistics;
-    private final OrderIntakeSystem orderIntake;
-    private final Object packingLock = new Object(); // Only 1 order at a time
+    private final DurationRange packTime;
+    private final SimulationClock clock;
+    private final EventLog eventLog;
+    private final OrderJournal journal;
+    private final BackpressureGate bayOccupancy;
+    private final ReentrantLock packingLock = new ReentrantLock(); // Only 1 order at a time per lane
+    private int ordersPacked = 0;
     
-    public PackingStation(BlockingQueue<Order> incomingOrders, BlockingQueue<Order> outgoingOrders, 
-                         Statistics statistics, OrderIntakeSystem orderIntake) {
+    public PackingStation(int laneId, StageSource<Order> incomingOrders, StageSink<Order> outgoingOrders, 
+                         LaneSequencer sequencer, Statistics statistics, BackpressureGate bayOccupancy, 
+                         DurationRange packTime, SimulationClock clock, EventLog eventLog, 
+                         OrderJournal journal) {
+        this.laneId = laneId;
         this.incomingOrders = incomingOrders;
         this.outgoingOrders = outgoingOrders;
+        this.sequencer = sequencer;
         this.statistics = statistics;
-        this.orderIntake = orderIntake;
+        this.packTime = packTime;
+        this.clock = clock;
+        this.eventLog = eventLog;
+        this.journal = journal;
+        this.bayOccupancy = bayOccupancy;
     }
     
     @Override
     public void run() {
         try {
-            while (orderIntake.isRunning() || !incomingOrders.isEmpty()) {
-                Order order = incomingOrders.poll();
-                if (order == null) {
-                    Thread.sleep(100);
+            while (sequencer.take(incomingOrders, lane)) { // False marks end of stream
+                Order order = lane.getOrder();
+                
+                if (order.isRejected()) {
+                    sequencer.skip(lane);
                     continue;
                 }
                 
-                if (order.isRejected()) continue;
+                // Loading bays full: hold packing until a truck frees a slot
+                if (bayOccupancy.isPaused()) {
+                    eventLog.log(EventType.PACKING_PAUSED, laneId);
+                    bayOccupancy.awaitOpen();
+                }
                 
-                synchronized (packingLock) { // Only 1 order can be packed at a time
-                    System.out.println("PackingStation: Started packing Order #" + order.getOrderId() + 
-                                     " (Thread: " + Thread.currentThread().getName() + ")");
+                packingLock.lock(); // Only 1 order can be packed at a time on a lane
+                try {
+                    eventLog.log(EventType.PACK_STARTED, order.getOrderId(), laneId);
                     
                     // Simulate packing time
-                    Thread.sleep(ThreadLocalRandom.current().nextInt(800, 1500));
+                    long workTime = packTime.sample();
+                    clock.sleep(workTime);
+                    statistics.recordStageBusyTime(Statistics.STAGE_PACKING, workTime);
+                    statistics.recordLaneWork(Statistics.STAGE_PACKING, laneId, workTime);
                     
                     // Scanner checks contents (2% rejection rate)
                     if (ThreadLocalRandom.current().nextDouble() < 0.02) {
-                        order.reject("Contents mismatch detected");
-                        statistics.addRejection("Contents mismatch detected");
-                        System.out.println("PackingStation: Order #" + order.getOrderId() + 
-                                         " REJECTED - Contents mismatch (Thread: " + 
-                                         Thread.currentThread().getName() + ")");
+                        RejectionReason reason = RejectionReason.CONTENTS_MISMATCH;
+                        order.reject(reason);
+                        statistics.addRejection(reason, order, clock.currentTimeMillis());
+                        journal.record(JournalRecordType.REJECTED, order.getOrderId(), order.getZone(), 
+                                       reason.ordinal());
+                        eventLog.log(EventType.PACK_REJECTED, order.getOrderId(), reason.ordinal(), laneId);
+                        sequencer.skip(lane);
                     } else {
                         statistics.incrementBoxesPacked();
-                        outgoingOrders.offer(order);
-                        System.out.println("PackingStation: Packed Order #" + order.getOrderId() + 
-                                         " into shipping box (Thread: " + 
-                                         Thread.currentThread().getName() + ")");
+                        statistics.completeStage(Statistics.STAGE_PACKING, order, clock.currentTimeMillis());
+                        journal.record(JournalRecordType.PACKED, order.getOrderId(), order.getZone(), laneId);
+                        sequencer.emit(lane, outgoingOrders);
+                        ordersPacked++;
+                        eventLog.log(EventType.PACKED, order.getOrderId(), laneId);
                     }
+                } finally {
+                    packingLock.unlock();
                 }
             }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            System.err.println("PackingStation interrupted: " + e.getMessage());
+            System.err.println("PackingStation-" + laneId + " interrupted: " + e.getMessage());
+        } finally {
+            sequencer.release(lane);
+            outgoingOrders.producerFinished();
         }
-        System.out.println("PackingStation: Shutting down (Thread: " + Thread.currentThread().getName() + ")");
+        eventLog.log(EventType.PACKER_STOPPED, laneId, ordersPacked);
     }
+    
+    public int getLaneId() { return laneId; }
 }
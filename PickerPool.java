@@ -0,0 +1,191 @@
+package Main;
+
+
+// PickerPool.java
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ * Picker workers sharing one set of picking slots (the robotic arms). With min < max a
+ * controller checks the intake queue every few seconds: it adds a worker while orders are
+ * queueing or picks are slow and a slot is free, and retires one once the queue is empty and
+ * picks are fast. Workers retire between orders. The pool counts as a single producer on the
+ * picked-order channel and finishes it once the last worker has stopped.
+ */
+public class PickerPool implements Runnable {
+    private static final long CONTROL_INTERVAL_MILLIS = 5000;
+
+    private final StageSource<Order> incomingOrders;
+    private final StageSink<Order> outgoingOrders;
+    private final ClockSemaphore pickingSlots;
+    private final Statistics statistics;
+    private final DurationRange pickTime;
+    private final int waveSize;
+    private final int minPickers;
+    private final int maxPickers;
+    private final long latencyTarget; // Pick p95 above this asks for another worker
+    private final SimulationClock clock;
+    private final EventLog eventLog;
+    private final OrderJournal journal;
+    private final ReentrantLock lock = new ReentrantLock();
+    private Executor executor;
+    private int target;       // Workers the controller wants
+    private int active;       // Workers not yet retired
+    private int running;      // Worker threads not yet exited
+    private int nextPickerId = 1;
+    private boolean streamEnded = false;
+
+    public PickerPool(StageSource<Order> incomingOrders, StageSink<Order> outgoingOrders, 
+                      ClockSemaphore pickingSlots, Statistics statistics, DurationRange pickTime, 
+                      int waveSize, int initialPickers, int minPickers, int maxPickers, long latencyTarget, 
+                      SimulationClock clock, EventLog eventLog, OrderJournal journal) {
+        if (minPickers <= 0 || minPickers > initialPickers || initialPickers > maxPickers) {
+            throw new IllegalArgumentException("Picker bounds must satisfy 0 < min <= initial <= max: " + 
+                                               minPickers + ", " + initialPickers + ", " + maxPickers);
+        }
+        this.incomingOrders = incomingOrders;
+        this.outgoingOrders = outgoingOrders;
+        this.pickingSlots = pickingSlots;
+        this.statistics = statistics;
+        this.pickTime = pickTime;
+        this.waveSize = waveSize;
+        this.minPickers = minPickers;
+        this.maxPickers = maxPickers;
+        this.latencyTarget = latencyTarget;
+        this.clock = clock;
+        this.eventLog = eventLog;
+        this.journal = journal;
+        this.target = initialPickers;
+    }
+
+    // Starts the initial workers, and the controller when the pool may resize
+    public void start(Executor executor) {
+        this.executor = executor;
+        lock.lock();
+        try {
+            for (int i = 0; i < target; i++) {
+                startWorkerLocked();
+            }
+            statistics.recordActivePickers(active);
+        } finally {
+            lock.unlock();
+        }
+        if (isAdaptive()) {
+            executor.execute(clock.participant(this));
+        }
+    }
+
+    // Controller loop; ends with the order stream
+    @Override
+    public void run() {
+        LatencySnapshot previous = statistics.getStageLatency(Statistics.STAGE_PICKING);
+        try {
+            while (true) {
+                clock.sleep(CONTROL_INTERVAL_MILLIS);
+                if (incomingOrders.isDrained()) break;
+
+                LatencySnapshot current = statistics.getStageLatency(Statistics.STAGE_PICKING);
+                long p95 = current.minus(previous).percentile(95);
+                previous = current;
+                adjust(incomingOrders.size(), p95);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    void adjust(int queueDepth, long pickP95) {
+        lock.lock();
+        try {
+            if (streamEnded) return;
+            if ((queueDepth > target || pickP95 > latencyTarget) && target < maxPickers 
+                    && pickingSlots.availablePermits() > 0) {
+                if (active <= target && !startWorkerLocked()) { // Otherwise a retiring worker simply stays
+                    return;
+                }
+                target++;
+                statistics.recordPickerScale(true);
+                statistics.recordActivePickers(active);
+                eventLog.log(EventType.PICKERS_SCALED_UP, target, queueDepth, (int) pickP95);
+            } else if (queueDepth == 0 && pickP95 <= latencyTarget / 2 && target > minPickers) {
+                target--;
+                statistics.recordPickerScale(false);
+                eventLog.log(EventType.PICKERS_SCALED_DOWN, target, queueDepth, (int) pickP95);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Called by a worker between orders; true means it should exit now
+    boolean tryRetire() {
+        lock.lock();
+        try {
+            if (active > target) {
+                active--;
+                statistics.recordActivePickers(active);
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // A worker that stops without retiring has seen the end of the stream (or was interrupted)
+    void workerExited(boolean retired) {
+        lock.lock();
+        try {
+            running--;
+            if (!retired) {
+                active--;
+                streamEnded = true;
+            }
+            if (streamEnded && running == 0) {
+                outgoingOrders.producerFinished();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // False once the executor has been shut down; the simulation is then only draining
+    private boolean startWorkerLocked() {
+        PickingStation worker = new PickingStation(nextPickerId, incomingOrders, outgoingOrders, this, 
+                                                   statistics, pickingSlots, pickTime, waveSize, clock, eventLog, 
+                                                   journal);
+        try {
+            executor.execute(clock.participant(worker));
+        } catch (RejectedExecutionException e) {
+            clock.deregister(); // participant() registered the worker that never ran
+            return false;
+        }
+        nextPickerId++;
+        active++;
+        running++;
+        return true;
+    }
+
+    public boolean isAdaptive() { return minPickers < maxPickers; }
+
+    public int getActivePickers() {
+        lock.lock();
+        try {
+            return active;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getTargetPickers() {
+        lock.lock();
+        try {
+            return target;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getAvailableSlots() { return pickingSlots.availablePermits(); }
+}
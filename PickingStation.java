@@ -1,68 +1,116 @@
-
 package Main;
 
 
 // PickingStation.java
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
-import java.util.concurrent.Semaphore;
 
+/*
+ * One picker worker; the PickerPool starts and retires workers, which share the pool's picking
+ * slots. Each iteration claims a wave of up to waveSize queued orders, picks them one after
+ * another on one slot, and hands the picked ones to packing together.
+ */
 public class PickingStation implements Runnable {
-    private final BlockingQueue<Order> incomingOrders;
-    private final BlockingQueue<Order> outgoingOrders;
+    private static final long IDLE_CHECK_MILLIS = 1000; // How often an idle worker asks whether to retire
+    
+    private final int pickerId;
+    private final StageSource<Order> incomingOrders;
+    private final StageSink<Order> outgoingOrders;
+    private final PickerPool pool;
     private final Statistics statistics;
-    private final Semaphore pickingSlots; // Max 4 orders can be picked at a time
-    private final OrderIntakeSystem orderIntake;
+    private final ClockSemaphore pickingSlots; // Shared: max 4 orders picked at a time across all workers
+    private final DurationRange pickTime;
+    private final int waveSize;
+    private final List<Order> wave;
+    private final List<Order> picked;
+    private final SimulationClock clock;
+    private final EventLog eventLog;
+    private final OrderJournal journal;
     
-    public PickingStation(BlockingQueue<Order> incomingOrders, BlockingQueue<Order> outgoingOrders, 
-                         Statistics statistics, OrderIntakeSystem orderIntake) {
+    public PickingStation(int pickerId, StageSource<Order> incomingOrders, StageSink<Order> outgoingOrders, 
+                         PickerPool pool, Statistics statistics, ClockSemaphore pickingSlots, 
+                         DurationRange pickTime, int waveSize, SimulationClock clock, EventLog eventLog, 
+                         OrderJournal journal) {
+        this.pickerId = pickerId;
         this.incomingOrders = incomingOrders;
         this.outgoingOrders = outgoingOrders;
+        this.pool = pool;
         this.statistics = statistics;
-        this.pickingSlots = new Semaphore(4); // Up to 4 orders can be picked at a time
-        this.orderIntake = orderIntake;
+        this.pickingSlots = pickingSlots;
+        this.pickTime = pickTime;
+        this.waveSize = waveSize;
+        this.wave = new ArrayList<>(waveSize);
+        this.picked = new ArrayList<>(waveSize);
+        this.clock = clock;
+        this.eventLog = eventLog;
+        this.journal = journal;
     }
     
     @Override
     public void run() {
+        boolean retired = false;
         try {
-            while (orderIntake.isRunning() || !incomingOrders.isEmpty()) {
-                Order order = incomingOrders.poll();
-                if (order == null) {
-                    Thread.sleep(100);
+            while (true) {
+                if (pool.tryRetire()) { // Pool has shrunk below the running workers
+                    retired = true;
+                    break;
+                }
+                if (incomingOrders.drainTo(wave, waveSize, IDLE_CHECK_MILLIS) == 0) {
+                    if (incomingOrders.isDrained()) break; // Nothing from a drained channel: end of stream
                     continue;
                 }
                 
                 pickingSlots.acquire(); // Wait for available picking slot
                 
                 try {
-                    System.out.println("PickingStation: Started picking Order #" + order.getOrderId() + 
-                                     " (Thread: " + Thread.currentThread().getName() + ")");
-                    
-                    // Simulate picking time (robotic arms picking items)
-                    Thread.sleep(ThreadLocalRandom.current().nextInt(1000, 2000));
+                    for (Order order : wave) {
+                        pickOne(order);
+                    }
                     
-                    // Check for missing items (3% chance)
-                    if (ThreadLocalRandom.current().nextDouble() < 0.03) {
-                        order.reject("Missing items detected");
-                        statistics.addRejection("Missing items detected");
-                        System.out.println("PickingStation: Order #" + order.getOrderId() + 
-                                         " REJECTED - Missing items (Thread: " + 
-                                         Thread.currentThread().getName() + ")");
-                    } else {
-                        outgoingOrders.offer(order);
-                        System.out.println("PickingStation: Completed picking Order #" + order.getOrderId() + 
-                                         " (Thread: " + Thread.currentThread().getName() + ")");
+                    long now = clock.currentTimeMillis();
+                    for (Order order : picked) {
+                        statistics.completeStage(Statistics.STAGE_PICKING, order, now);
+                        journal.record(JournalRecordType.PICKED, order.getOrderId(), order.getZone(), pickerId);
+                    }
+                    outgoingOrders.putAll(picked);
+                    for (Order order : picked) {
+                        eventLog.log(EventType.PICK_COMPLETED, order.getOrderId(), pickerId);
                     }
                 } finally {
                     pickingSlots.release(); // Release picking slot
+                    wave.clear();
+                    picked.clear();
                 }
             }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            System.err.println("PickingStation interrupted: " + e.getMessage());
+            System.err.println("PickingStation-" + pickerId + " interrupted: " + e.getMessage());
+        } finally {
+            pool.workerExited(retired);
         }
-        System.out.println("PickingStation: Shutting down (Thread: " + Thread.currentThread().getName() + ")");
+        eventLog.log(retired ? EventType.PICKER_RETIRED : EventType.PICKER_STOPPED, pickerId);
     }
+    
+    private void pickOne(Order order) throws InterruptedException {
+        eventLog.log(EventType.PICK_STARTED, order.getOrderId(), pickerId);
+        
+        // Simulate picking time (robotic arms picking items)
+        long workTime = pickTime.sample();
+        clock.sleep(workTime);
+        statistics.recordStageBusyTime(Statistics.STAGE_PICKING, workTime);
+        
+        // Check for missing items (3% chance)
+        if (ThreadLocalRandom.current().nextDouble() < 0.03) {
+            RejectionReason reason = RejectionReason.MISSING_ITEMS;
+            order.reject(reason);
+            statistics.addRejection(reason, order, clock.currentTimeMillis());
+            journal.record(JournalRecordType.REJECTED, order.getOrderId(), order.getZone(), reason.ordinal());
+            eventLog.log(EventType.PICK_REJECTED, order.getOrderId(), reason.ordinal(), pickerId);
+        } else {
+            picked.add(order);
+        }
+    }
+    
+    public int getPickerId() { return pickerId; }
 }
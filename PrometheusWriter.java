@@ -0,0 +1,94 @@
+package Main;
+
+
+// PrometheusWriter.java
+import java.util.Locale;
+
+/*
+ * Builds a Prometheus text-format (0.0.4) exposition. Start each metric family with
+ * gauge()/counter()/summary() and then add its samples; labels are given as name/value pairs.
+ */
+public class PrometheusWriter {
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final double[] QUANTILES = { 0.5, 0.9, 0.95, 0.99 };
+
+    private final StringBuilder out = new StringBuilder(8192);
+
+    public PrometheusWriter gauge(String name, String help) {
+        return family(name, help, "gauge");
+    }
+
+    public PrometheusWriter counter(String name, String help) {
+        return family(name, help, "counter");
+    }
+
+    public PrometheusWriter summary(String name, String help) {
+        return family(name, help, "summary");
+    }
+
+    public PrometheusWriter sample(String name, double value, String... labels) {
+        out.append(name);
+        appendLabels(labels, null);
+        out.append(' ').append(format(value)).append('\n');
+        return this;
+    }
+
+    // Quantile, _sum and _count samples for one label set of a summary family
+    public PrometheusWriter summarySamples(String name, LatencySnapshot snapshot, String... labels) {
+        for (double quantile : QUANTILES) {
+            out.append(name);
+            appendLabels(labels, format(quantile));
+            out.append(' ').append(snapshot.percentile(quantile * 100)).append('\n');
+        }
+        sample(name + "_sum", snapshot.getTotal(), labels);
+        sample(name + "_count", snapshot.getCount(), labels);
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return out.toString();
+    }
+
+    private PrometheusWriter family(String name, String help, String type) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        return this;
+    }
+
+    private void appendLabels(String[] labels, String quantile) {
+        if (labels.length == 0 && quantile == null) return;
+        out.append('{');
+        for (int i = 0; i + 1 < labels.length; i += 2) {
+            if (i > 0) out.append(',');
+            out.append(labels[i]).append("=\"");
+            escape(labels[i + 1]);
+            out.append('"');
+        }
+        if (quantile != null) {
+            if (labels.length > 0) out.append(',');
+            out.append("quantile=\"").append(quantile).append('"');
+        }
+        out.append('}');
+    }
+
+    private void escape(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == '\\' || ch == '"') {
+                out.append('\\').append(ch);
+            } else if (ch == '\n') {
+                out.append("\\n");
+            } else {
+                out.append(ch);
+            }
+        }
+    }
+
+    private static String format(double value) {
+        if (value == Math.rint(value) && !Double.isInfinite(value)) {
+            return Long.toString((long) value);
+        }
+        return String.format(Locale.ROOT, "%s", value);
+    }
+}
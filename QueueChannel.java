@@ -0,0 +1,225 @@
+package Main;
+
+
+// QueueChannel.java
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class QueueChannel<T> implements StageChannel<T> {
+    private final String name;
+    private final int capacity;
+    private final SimulationClock clock;
+    private final Statistics statistics;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ClockCondition notEmpty;
+    private final ClockCondition notFull;
+    private final ArrayDeque<Entry<T>> items = new ArrayDeque<>();
+    private int openProducers;
+
+    private long handOffs = 0;
+    private long totalLatency = 0;
+    private long maxLatency = 0;
+
+    public QueueChannel(String name, int capacity, int producers, SimulationClock clock, Statistics statistics) {
+        if (capacity <= 0) throw new IllegalArgumentException("Channel capacity must be positive: " + capacity);
+        this.name = name;
+        this.capacity = capacity;
+        this.clock = clock;
+        this.statistics = statistics;
+        this.openProducers = producers;
+        this.notEmpty = clock.newCondition(lock);
+        this.notFull = clock.newCondition(lock);
+    }
+
+    @Override
+    public void put(T item) throws InterruptedException {
+        lock.lock();
+        try {
+            if (items.size() >= capacity) {
+                // Downstream is saturated: the producer pauses until a slot frees up
+                statistics.recordBackpressurePause(name);
+                while (items.size() >= capacity) {
+                    notFull.await();
+                }
+                statistics.recordBackpressureResume(name);
+            }
+            items.add(new Entry<>(item, clock.currentTimeMillis()));
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Fills every free slot per lock hold, so a batch costs one hand-shake while there is room
+    @Override
+    public void putAll(List<? extends T> batch) throws InterruptedException {
+        lock.lock();
+        try {
+            int next = 0;
+            boolean paused = false;
+            while (next < batch.size()) {
+                if (items.size() >= capacity) {
+                    if (!paused) {
+                        statistics.recordBackpressurePause(name);
+                        paused = true;
+                    }
+                    notFull.await();
+                    continue;
+                }
+                long now = clock.currentTimeMillis();
+                while (next < batch.size() && items.size() < capacity) {
+                    items.add(new Entry<>(batch.get(next++), now));
+                }
+                notEmpty.signalAll(); // Several consumers may each claim part of the batch
+            }
+            if (paused) {
+                statistics.recordBackpressureResume(name);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T poll(long timeoutMillis) throws InterruptedException {
+        lock.lock();
+        try {
+            long deadline = clock.currentTimeMillis() + timeoutMillis;
+            while (items.isEmpty()) {
+                if (openProducers == 0) return null;
+                long remaining = deadline - clock.currentTimeMillis();
+                if (remaining <= 0) return null;
+                notEmpty.await(remaining);
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super T> sink, int maxItems, long timeoutMillis) throws InterruptedException {
+        lock.lock();
+        try {
+            long deadline = clock.currentTimeMillis() + timeoutMillis;
+            while (items.isEmpty()) {
+                if (openProducers == 0) return 0;
+                long remaining = deadline - clock.currentTimeMillis();
+                if (remaining <= 0) return 0;
+                notEmpty.await(remaining);
+            }
+            int drained = 0;
+            while (drained < maxItems && !items.isEmpty()) {
+                sink.add(dequeue());
+                drained++;
+            }
+            return drained;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T take() throws InterruptedException {
+        lock.lock();
+        try {
+            while (items.isEmpty()) {
+                if (openProducers == 0) return null;
+                notEmpty.await();
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void producerFinished() {
+        lock.lock();
+        try {
+            if (openProducers > 0 && --openProducers == 0) {
+                notEmpty.signalAll(); // Wake consumers so they observe end of stream
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isDrained() {
+        lock.lock();
+        try {
+            return openProducers == 0 && items.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return items.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int getCapacity() { return capacity; }
+
+    @Override
+    public String getName() { return name; }
+
+    @Override
+    public long getHandOffs() {
+        lock.lock();
+        try {
+            return handOffs;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public double getAverageLatencyMillis() {
+        lock.lock();
+        try {
+            return handOffs == 0 ? 0.0 : (double) totalLatency / handOffs;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long getMaxLatencyMillis() {
+        lock.lock();
+        try {
+            return maxLatency;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private T dequeue() {
+        Entry<T> entry = items.poll();
+        notFull.signal();
+        long latency = clock.currentTimeMillis() - entry.enqueuedAt;
+        handOffs++;
+        totalLatency += latency;
+        maxLatency = Math.max(maxLatency, latency);
+        return entry.item;
+    }
+
+    private static final class Entry<T> {
+        final T item;
+        final long enqueuedAt;
+
+        Entry(T item, long enqueuedAt) {
+            this.item = item;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package Main;
+
+
+// RealTimeClock.java
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+
+public class RealTimeClock implements SimulationClock {
+    private final double timeScale; // Simulated milliseconds per real millisecond
+    private final long originMillis = System.currentTimeMillis();
+    private final long originNanos = System.nanoTime();
+
+    public RealTimeClock() {
+        this(1.0);
+    }
+
+    // A scale above 1 compresses the day, e.g. 100 runs every sleep 100x faster
+    public RealTimeClock(double timeScale) {
+        if (timeScale <= 0) throw new IllegalArgumentException("Time scale must be positive: " + timeScale);
+        this.timeScale = timeScale;
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        if (timeScale == 1.0) return System.currentTimeMillis();
+        return originMillis + (long) ((System.nanoTime() - originNanos) * timeScale / 1_000_000L);
+    }
+
+    @Override
+    public void sleep(long millis) throws InterruptedException {
+        if (timeScale == 1.0) {
+            Thread.sleep(millis);
+        } else {
+            TimeUnit.NANOSECONDS.sleep(toRealNanos(millis));
+        }
+    }
+
+    @Override
+    public ClockCondition newCondition(Lock lock) {
+        Condition condition = lock.newCondition();
+        return new ClockCondition() {
+            @Override
+            public void await() throws InterruptedException {
+                condition.await();
+            }
+
+            @Override
+            public boolean await(long millis) throws InterruptedException {
+                return condition.await(toRealNanos(millis), TimeUnit.NANOSECONDS);
+            }
+
+            @Override
+            public void signal() {
+                condition.signal();
+            }
+
+            @Override
+            public void signalAll() {
+                condition.signalAll();
+            }
+        };
+    }
+
+    // Wall-clock time needs no participant bookkeeping
+    @Override
+    public void register() { }
+
+    @Override
+    public void deregister() { }
+
+    public double getTimeScale() { return timeScale; }
+
+    private long toRealNanos(long millis) {
+        return (long) (millis * 1_000_000L / timeScale);
+    }
+}
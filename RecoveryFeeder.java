@@ -0,0 +1,144 @@
+package Main;
+
+
+// RecoveryFeeder.java
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Resumes a replayed journal. Finished orders go straight into the statistics; every in-flight
+ * order re-enters the pipeline after the last transition the journal holds for it, and sorted
+ * containers that never left on a truck go back to the loaders (bay contents are reloaded, so
+ * part-full containers from the sorter ship as they are). The feeder is one extra producer
+ * on each stage channel.
+ */
+public class RecoveryFeeder implements Runnable {
+    private final StageSink<Order> intakeQueue;
+    private final StageSink<Order> pickingQueue;
+    private final StageSink<Order> packingQueue;
+    private final StageSink<Order> labellingQueue;
+    private final StageSink<Container> containerQueue;
+    private final JournalReplay replay;
+    private final Statistics statistics;
+    private final AtomicInteger containersInSystem;
+    private final EventLog eventLog;
+    private final List<Order> verified = new ArrayList<>();
+    private final List<Order> picked = new ArrayList<>();
+    private final List<Order> packed = new ArrayList<>();
+    private final List<Order> labelled = new ArrayList<>();
+    private final List<Container> containers = new ArrayList<>();
+
+    // Rebuilds the orders and containers at once, so their ids are taken before intake starts
+    public RecoveryFeeder(StageSink<Order> intakeQueue, StageSink<Order> pickingQueue,
+                          StageSink<Order> packingQueue, StageSink<Order> labellingQueue,
+                          StageSink<Container> containerQueue, JournalReplay replay, OrderJournal journal,
+                          Statistics statistics, AtomicInteger containersInSystem, SimulationClock clock,
+                          EventLog eventLog) {
+        this.intakeQueue = intakeQueue;
+        this.pickingQueue = pickingQueue;
+        this.packingQueue = packingQueue;
+        this.labellingQueue = labellingQueue;
+        this.containerQueue = containerQueue;
+        this.replay = replay;
+        this.statistics = statistics;
+        this.containersInSystem = containersInSystem;
+        this.eventLog = eventLog;
+
+        Order.reserveIds(replay.getMaxOrderId());
+        Container.reserveIds(replay.getMaxContainerId());
+        long now = clock.currentTimeMillis();
+        for (JournalReplay.OrderState state : replay.getOrders()) {
+            List<Order> stage;
+            switch (state.lastTransition) {
+                case RECEIVED: stage = verified; break;
+                case PICKED: stage = picked; break;
+                case PACKED: stage = packed; break;
+                case LABELLED: stage = labelled; break;
+                default: continue; // Rejected, or sorted into a container
+            }
+            stage.add(restore(state, journal, now));
+        }
+        for (JournalReplay.ContainerState state : replay.getContainers()) {
+            if (state.isDeparted()) continue;
+            Container container = new Container(state.containerId, state.zone);
+            for (JournalReplay.OrderState order : state.orders) {
+                container.addOrder(restore(order, journal, now));
+            }
+            containers.add(container);
+        }
+    }
+
+    private static Order restore(JournalReplay.OrderState state, OrderJournal journal, long now) {
+        return new Order(state.orderId, journal.toClockTime(state.receivedAt), state.zone, now);
+    }
+
+    @Override
+    public void run() {
+        try {
+            restoreStatistics();
+            eventLog.log(EventType.JOURNAL_RECOVERED, replay.getOrders().size(), getInFlightOrders(),
+                         containers.size());
+
+            // Furthest along first, so the oldest work clears the pipeline first
+            for (Container container : containers) {
+                containersInSystem.incrementAndGet();
+                containerQueue.put(container);
+            }
+            labellingQueue.putAll(labelled);
+            packingQueue.putAll(packed);
+            pickingQueue.putAll(picked);
+            intakeQueue.putAll(verified);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("RecoveryFeeder interrupted: " + e.getMessage());
+        } finally {
+            containerQueue.producerFinished();
+            labellingQueue.producerFinished();
+            packingQueue.producerFinished();
+            pickingQueue.producerFinished();
+            intakeQueue.producerFinished();
+        }
+    }
+
+    // Counters the stages would have raised before the crash. Boxes count once an order is packed, as
+    // PackingStation counts them; containers count once sorted, including the part-full ones requeued
+    // here, which never pass through SortingArea again
+    private void restoreStatistics() {
+        for (JournalReplay.OrderState order : replay.getOrders()) {
+            if (order.verified) statistics.incrementOrdersProcessed();
+            if (order.packed) statistics.incrementBoxesPacked();
+            if (order.rejection != null) statistics.addRejection(order.rejection);
+        }
+        int loaded = 0;
+        for (JournalReplay.ContainerState container : replay.getContainers()) {
+            statistics.incrementContainersShipped();
+            if (container.isLoaded()) loaded++;
+            if (!container.isDeparted()) continue;
+            for (JournalReplay.OrderState order : container.orders) {
+                statistics.recordOrderLatency(container.departedAt - order.receivedAt);
+            }
+        }
+        for (int i = 0; i < replay.getDepartedTrucks().size(); i++) {
+            statistics.incrementTrucksDispatched();
+        }
+
+        // Every delivered order was boxed and every loaded container was shipped by the sorter
+        if (statistics.getOrdersDelivered() > statistics.getBoxesPacked() || 
+                loaded > statistics.getContainersShipped()) {
+            System.err.println("Recovered statistics are inconsistent: " + statistics.getOrdersDelivered() + 
+                               " orders delivered of " + statistics.getBoxesPacked() + " boxes packed, " + 
+                               loaded + " containers loaded of " + statistics.getContainersShipped() + " shipped");
+        }
+    }
+
+    public int getInFlightOrders() {
+        int orders = verified.size() + picked.size() + packed.size() + labelled.size();
+        for (Container container : containers) {
+            orders += container.getOrderCount();
+        }
+        return orders;
+    }
+
+    public int getRequeuedContainers() { return containers.size(); }
+}
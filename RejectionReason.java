@@ -0,0 +1,27 @@
+package Main;
+
+
+// RejectionReason.java
+public enum RejectionReason {
+    PAYMENT_FAILED("Payment verification failed", Statistics.STAGE_INTAKE),
+    MISSING_ITEMS("Missing items detected", Statistics.STAGE_PICKING),
+    CONTENTS_MISMATCH("Contents mismatch detected", Statistics.STAGE_PACKING),
+    QUALITY_CHECK_FAILED("Quality check failed", Statistics.STAGE_LABELLING);
+
+    private static final RejectionReason[] VALUES = values();
+
+    private final String description;
+    private final String stage; // Where orders are rejected for this reason
+
+    RejectionReason(String description, String stage) {
+        this.description = description;
+        this.stage = stage;
+    }
+
+    public String getDescription() { return description; }
+    public String getStage() { return stage; }
+
+    public static RejectionReason fromCode(int code) {
+        return VALUES[code];
+    }
+}
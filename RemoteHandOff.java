@@ -0,0 +1,163 @@
+package Main;
+
+
+// RemoteHandOff.java
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.util.Locale;
+
+/*
+ * Splits one facility across two processes at an order hand-off (--process, --split). The
+ * upstream process runs the stages up to the split, the downstream process runs the rest with
+ * the bays, loaders and trucks, and the hand-off between them becomes a RemoteOrderSender /
+ * RemoteOrderReceiver pair over a TCP or Unix domain socket. When packing runs upstream, the
+ * downstream bay gate is mirrored into the upstream process, so packing still pauses while
+ * every bay is full.
+ *
+ * Each process keeps its own clock, Statistics and report; the downstream report covers the
+ * whole day because the upstream order, box and rejection counts arrive with the END frame.
+ */
+public class RemoteHandOff {
+    public enum Role { SINGLE, UPSTREAM, DOWNSTREAM }
+
+    // The order hand-offs a facility can be split at, in pipeline order; split N follows STAGES[N]
+    private static final String[] SPLITS = { "picking->packing", "packing->labelling", "labelling->sorting" };
+    private static final String[] STAGES = {
+        Statistics.STAGE_INTAKE, Statistics.STAGE_PICKING, Statistics.STAGE_PACKING,
+        Statistics.STAGE_LABELLING, Statistics.STAGE_SORTING, Statistics.STAGE_LOADING
+    };
+    private static final long CONNECT_WAIT_MILLIS = 30_000;
+
+    private final Role role;
+    private final int split;
+    private final SocketAddress address;
+    private final int batchSize;
+    private final long lingerMillis;
+    private RemoteOrderSender sender;
+    private RemoteOrderReceiver receiver;
+
+    public RemoteHandOff(Role role, int split, SocketAddress address, int batchSize, long lingerMillis) {
+        this.role = role;
+        this.split = split;
+        this.address = address;
+        this.batchSize = batchSize;
+        this.lingerMillis = lingerMillis;
+    }
+
+    // One process runs the whole facility
+    public static RemoteHandOff disabled() {
+        return new RemoteHandOff(Role.SINGLE, 0, null, 1, 0);
+    }
+
+    // 1-based position in SPLITS, for --split
+    static int parseSplit(String name) {
+        for (int i = 0; i < SPLITS.length; i++) {
+            if (SPLITS[i].equals(name)) return i + 1;
+        }
+        throw new IllegalArgumentException("--split must be picking->packing, packing->labelling or labelling->sorting");
+    }
+
+    static String splitName(int split) {
+        return split >= 1 && split <= SPLITS.length ? SPLITS[split - 1] : "unknown hand-off " + split;
+    }
+
+    public boolean isEnabled() { return role != Role.SINGLE; }
+    public boolean isUpstream() { return role == Role.UPSTREAM; }
+    public boolean isDownstream() { return role == Role.DOWNSTREAM; }
+
+    // Whether this process runs the given Statistics stage
+    public boolean runs(String stage) {
+        if (role == Role.SINGLE) return true;
+        int index = 0;
+        while (!STAGES[index].equals(stage)) index++;
+        return role == Role.UPSTREAM ? index <= split : index > split;
+    }
+
+    // Whether the named hand-off is the one that crosses to the other process
+    public boolean carries(String channelName) {
+        return role != Role.SINGLE && SPLITS[split - 1].equals(channelName);
+    }
+
+    // Opens this process's end of the split hand-off: the producer end upstream, the consumer end downstream
+    public void open(String name, int capacity, int producers, SimulationClock clock, Statistics statistics) {
+        if (role == Role.UPSTREAM) {
+            sender = new RemoteOrderSender(name, producers, batchSize, lingerMillis, clock, statistics);
+        } else {
+            receiver = new RemoteOrderReceiver(name, capacity, batchSize, clock, statistics);
+        }
+    }
+
+    // The split hand-off's producer end, or null outside an upstream process
+    public StageSink<Order> getSink() { return sender; }
+
+    // The split hand-off's consumer end, or null outside a downstream process
+    public StageSource<Order> getSource() { return receiver; }
+
+    // Joins the other process before the day starts; bays is the packing gate, mirrored across when
+    // packing and the bays end up in different processes
+    public void connect(BackpressureGate bays) throws IOException {
+        boolean mirrorBays = split >= 2; // Packing runs upstream
+        if (role == Role.UPSTREAM) {
+            sender.connect(address, split, CONNECT_WAIT_MILLIS, mirrorBays ? bays : null);
+            System.out.println("Connected to the downstream process on " + address + " (clock offset " +
+                               sender.getClockOffset() + "ms)");
+        } else if (role == Role.DOWNSTREAM) {
+            receiver.accept(address, split);
+            if (mirrorBays) bays.setListener(receiver::sendBays);
+        }
+    }
+
+    // Upstream: true once every order has been sent and the END frame is out
+    public boolean isFinished() {
+        return sender == null || sender.isDrained();
+    }
+
+    // Upstream: finished with every order sent, none dropped on a lost connection
+    public boolean isComplete() {
+        return sender != null && sender.isComplete();
+    }
+
+    public void close() {
+        if (sender != null) sender.close();
+    }
+
+    public void printReport() {
+        System.out.println("\nREMOTE HAND-OFF (" + role.name().toLowerCase(Locale.ROOT) + ", " +
+                         splitName(split) + " via " + address + "):");
+        if (sender != null) {
+            long orders = sender.getSent();
+            System.out.printf(Locale.ROOT, "  Sent: %d orders in %d frames (%.1f per frame) | %d bytes, %.1f per order%n",
+                    orders, sender.getFrames(), (double) orders / Math.max(1, sender.getFrames()), sender.getBytes(),
+                    (double) sender.getBytes() / Math.max(1, orders));
+            System.out.printf(Locale.ROOT, "  Encode: %.0fns per order | Credit frames: %d | Waits for credit: %d" +
+                    " | Dropped: %d%n", sender.getEncodeNanosPerOrder(), sender.getCreditFrames(),
+                    sender.getCreditStalls(), sender.getDropped());
+        } else {
+            long orders = receiver.getReceived();
+            System.out.printf(Locale.ROOT, "  Received: %d orders in %d frames | %d bytes, %.1f per order%n", orders,
+                    receiver.getFrames(), receiver.getBytes(), (double) receiver.getBytes() / Math.max(1, orders));
+            System.out.printf(Locale.ROOT, "  Decode: %.0fns per order | Credit frames: %d | Hand-off avg: %.1fms," +
+                    " max: %dms%n", receiver.getDecodeNanosPerOrder(), receiver.getCreditFrames(),
+                    receiver.getAverageLatencyMillis(), receiver.getMaxLatencyMillis());
+        }
+    }
+
+    // Appended to the result object only in a split run, so other runs keep their shape
+    public String toJson() {
+        if (role == Role.SINGLE) return "";
+        if (sender != null) {
+            return String.format(Locale.ROOT,
+                    ",\"remote\":{\"role\":\"upstream\",\"split\":\"%s\",\"batch\":%d,\"orders\":%d,\"frames\":%d," +
+                    "\"bytes\":%d,\"encodeNanosPerOrder\":%.1f,\"creditFrames\":%d,\"creditWaits\":%d,\"dropped\":%d}",
+                    splitName(split), batchSize, sender.getSent(), sender.getFrames(), sender.getBytes(),
+                    sender.getEncodeNanosPerOrder(), sender.getCreditFrames(), sender.getCreditStalls(),
+                    sender.getDropped());
+        }
+        return String.format(Locale.ROOT,
+                ",\"remote\":{\"role\":\"downstream\",\"split\":\"%s\",\"orders\":%d,\"frames\":%d,\"bytes\":%d," +
+                "\"decodeNanosPerOrder\":%.1f,\"creditFrames\":%d,\"handOffMillis\":{\"avg\":%.1f,\"max\":%d}}",
+                splitName(split), receiver.getReceived(), receiver.getFrames(), receiver.getBytes(),
+                receiver.getDecodeNanosPerOrder(), receiver.getCreditFrames(), receiver.getAverageLatencyMillis(),
+                receiver.getMaxLatencyMillis());
+    }
+}
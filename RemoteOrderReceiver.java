@@ -0,0 +1,289 @@
+package Main;
+
+
+// RemoteOrderReceiver.java
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ * Downstream end of a hand-off whose producers run in another process. A reader thread
+ * decodes ORDERS frames into a local channel of the hand-off's capacity, which the upstream
+ * credits keep from ever filling. Stages take orders from it as from any channel, and each
+ * take owes the upstream a credit; credits go back a batch at a time. A batch is at most half
+ * the capacity, so an upstream out of credits always has more than half of them queued or on
+ * the wire here, and taking those returns at least one batch.
+ *
+ * Hand-off latency runs from an order leaving its upstream stage to a stage here taking it,
+ * so it includes the sequencing, linger, wire and queue time. When the END frame arrives the
+ * upstream totals are added to this process's statistics and the local channel ends.
+ *
+ * Bay changes are heard under the bay gate's lock, so they are only recorded there; a writer
+ * thread sends the latest state, and a stalled upstream never holds up the loaders and trucks.
+ */
+public class RemoteOrderReceiver implements StageSource<Order> {
+    private final String name;
+    private final QueueChannel<Order> arrivals;
+    private final int creditBatch;
+    private final SimulationClock clock;
+    private final Statistics statistics;
+    private final ReentrantLock writeLock = new ReentrantLock(); // CREDIT and BAYS frames share the socket
+    private final AtomicInteger owed = new AtomicInteger();
+    private final ReentrantLock baysLock = new ReentrantLock();
+    private final ClockCondition baysChanged;
+    private boolean baysFull = false;       // Latest state of the bay gate
+    private boolean baysSent = false;       // Last state the upstream process was told
+    private volatile boolean ended = false;
+    private SocketChannel socket;
+
+    private final LongAdder received = new LongAdder();
+    private final LongAdder frames = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder decodeNanos = new LongAdder();
+    private final LongAdder creditFrames = new LongAdder();
+    private final LongAdder handOffs = new LongAdder();
+    private final LongAdder totalLatency = new LongAdder();
+    private final AtomicLong maxLatency = new AtomicLong();
+
+    public RemoteOrderReceiver(String name, int capacity, int batchSize, SimulationClock clock, Statistics statistics) {
+        this.name = name;
+        this.arrivals = new QueueChannel<>(name, capacity, 1, clock, statistics);
+        this.creditBatch = Math.max(1, Math.min(batchSize, capacity / 2));
+        this.clock = clock;
+        this.statistics = statistics;
+        this.baysChanged = clock.newCondition(baysLock);
+    }
+
+    // Waits for the upstream process to connect, checks it splits the facility at the same hand-off,
+    // and grants it the local capacity as credits
+    public void accept(SocketAddress address, int split) throws IOException {
+        SocketChannel channel;
+        try (ServerSocketChannel server = OrderWire.listen(address)) {
+            System.out.println("Waiting for the upstream process on " + address);
+            channel = OrderWire.accept(server);
+        } finally {
+            OrderWire.unlink(address);
+        }
+
+        ByteBuffer frame = ByteBuffer.allocate(64);
+        if (!OrderWire.read(channel, frame) || frame.get() != OrderWire.HELLO || frame.getInt() != OrderWire.MAGIC) {
+            channel.close();
+            throw new IOException("Peer on " + address + " is not a SwiftCart upstream process");
+        }
+        byte version = frame.get();
+        byte upstreamSplit = frame.get();
+        if (version != OrderWire.VERSION || upstreamSplit != split) {
+            channel.close();
+            throw new IOException("Upstream process speaks version " + version + " split at " +
+                                  RemoteHandOff.splitName(upstreamSplit) + "; this process expects version " +
+                                  OrderWire.VERSION + " split at " + RemoteHandOff.splitName(split));
+        }
+        OrderWire.begin(frame, OrderWire.WELCOME).putInt(arrivals.getCapacity()).putLong(clock.currentTimeMillis());
+        OrderWire.write(channel, OrderWire.finish(frame));
+
+        this.socket = channel;
+        Thread reader = new Thread(this::readOrders, name + " receiver");
+        Thread baysWriter = new Thread(this::writeBays, name + " bays");
+        reader.setDaemon(true);
+        baysWriter.setDaemon(true);
+        reader.start();
+        baysWriter.start();
+    }
+
+    @Override
+    public Order poll(long timeoutMillis) throws InterruptedException {
+        Order order = arrivals.poll(timeoutMillis);
+        if (order != null) taken(order, clock.currentTimeMillis());
+        return order;
+    }
+
+    @Override
+    public int drainTo(Collection<? super Order> sink, int maxItems, long timeoutMillis) throws InterruptedException {
+        List<Order> drained = new ArrayList<>(maxItems);
+        int count = arrivals.drainTo(drained, maxItems, timeoutMillis);
+        long now = clock.currentTimeMillis();
+        for (Order order : drained) {
+            taken(order, now);
+        }
+        sink.addAll(drained);
+        return count;
+    }
+
+    @Override
+    public Order take() throws InterruptedException {
+        Order order = arrivals.take();
+        if (order != null) taken(order, clock.currentTimeMillis());
+        return order;
+    }
+
+    @Override
+    public boolean isDrained() { return arrivals.isDrained(); }
+
+    @Override
+    public int size() { return arrivals.size(); }
+
+    @Override
+    public int getCapacity() { return arrivals.getCapacity(); }
+
+    @Override
+    public String getName() { return name; }
+
+    @Override
+    public long getHandOffs() { return handOffs.sum(); }
+
+    @Override
+    public double getAverageLatencyMillis() {
+        long count = handOffs.sum();
+        return count == 0 ? 0.0 : (double) totalLatency.sum() / count;
+    }
+
+    @Override
+    public long getMaxLatencyMillis() { return maxLatency.get(); }
+
+    // Tells the upstream process to hold (or resume) its packing; registered on the bay gate, so it
+    // runs under the gate's lock and only records the state for the bays writer
+    public void sendBays(boolean full) {
+        baysLock.lock();
+        try {
+            baysFull = full;
+            baysChanged.signal();
+        } finally {
+            baysLock.unlock();
+        }
+    }
+
+    // Sends the bay state whenever it differs from what upstream last heard. States it missed in
+    // between came in pause/resume pairs, so the upstream gate still sees them alternate
+    private void writeBays() {
+        baysLock.lock();
+        try {
+            while (!ended) {
+                if (baysFull == baysSent) {
+                    baysChanged.await();
+                    continue;
+                }
+                boolean full = baysFull;
+                baysSent = full;
+                baysLock.unlock();
+                try {
+                    ByteBuffer frame = OrderWire.begin(ByteBuffer.allocate(8), OrderWire.BAYS);
+                    frame.put((byte) (full ? 1 : 0));
+                    send(OrderWire.finish(frame));
+                } finally {
+                    baysLock.lock();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            baysLock.unlock();
+        }
+    }
+
+    private void taken(Order order, long now) {
+        long latency = now - order.getCreationTime() - order.getStageEnteredOffset();
+        handOffs.increment();
+        totalLatency.add(latency);
+        maxLatency.accumulateAndGet(latency, Math::max);
+        if (owed.incrementAndGet() >= creditBatch) returnCredits();
+    }
+
+    private void returnCredits() {
+        int credits = owed.getAndSet(0);
+        if (credits == 0) return;
+        ByteBuffer frame = OrderWire.begin(ByteBuffer.allocate(12), OrderWire.CREDIT);
+        frame.putInt(credits);
+        send(OrderWire.finish(frame));
+        creditFrames.increment();
+    }
+
+    private void send(ByteBuffer frame) {
+        if (ended) return; // The upstream process has finished and may already be gone
+        writeLock.lock();
+        try {
+            OrderWire.write(socket, frame);
+        } catch (IOException e) {
+            if (!ended) System.err.println("Remote hand-off " + name + " cannot reach upstream: " + e.getMessage());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void readOrders() {
+        ByteBuffer frame = ByteBuffer.allocateDirect(OrderWire.ORDERS_HEADER_BYTES +
+                                                     Short.MAX_VALUE * OrderWire.ORDER_BYTES);
+        List<Order> batch = new ArrayList<>();
+        boolean endSeen = false;
+        try {
+            while (OrderWire.read(socket, frame)) {
+                frames.increment();
+                bytes.add(frame.limit());
+                byte type = frame.get();
+                if (type == OrderWire.ORDERS) {
+                    int count = frame.getShort();
+                    long start = System.nanoTime();
+                    for (int i = 0; i < count; i++) {
+                        batch.add(OrderWire.getOrder(frame));
+                    }
+                    decodeNanos.add(System.nanoTime() - start);
+                    received.add(count);
+                    arrivals.putAll(batch); // Never waits: upstream holds a credit for every order
+                    batch.clear();
+                } else if (type == OrderWire.END) {
+                    long processed = frame.getLong();
+                    long packed = frame.getLong();
+                    long[] rejections = new long[frame.get()];
+                    for (int i = 0; i < rejections.length; i++) {
+                        rejections[i] = frame.getLong();
+                    }
+                    statistics.addUpstreamTotals(processed, packed, rejections);
+                    endSeen = true;
+                    break;
+                }
+            }
+            if (!endSeen) {
+                System.err.println("Remote hand-off " + name + " lost: upstream process closed the connection");
+            }
+        } catch (IOException e) {
+            System.err.println("Remote hand-off " + name + " lost: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            ended = true;
+            baysLock.lock();
+            try {
+                baysChanged.signal(); // The bays writer stops too
+            } finally {
+                baysLock.unlock();
+            }
+            arrivals.producerFinished(); // Whatever arrived is worked off and the day ends
+            writeLock.lock();
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Closing anyway
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    public long getReceived() { return received.sum(); }
+    public long getFrames() { return frames.sum(); }
+    public long getBytes() { return bytes.sum(); }
+    public long getCreditFrames() { return creditFrames.sum(); }
+
+    public double getDecodeNanosPerOrder() {
+        long orders = received.sum();
+        return orders == 0 ? 0.0 : (double) decodeNanos.sum() / orders;
+    }
+}
@@ -0,0 +1,353 @@
+package Main;
+
+
+// RemoteOrderSender.java
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ * Upstream end of a hand-off whose consumers run in another process. put() spends one credit
+ * and encodes the order into the open ORDERS frame; a writer thread sends the frame once it
+ * holds a full batch or its first order has waited the linger time, while producers fill the
+ * other buffer. Credits start at the downstream hand-off capacity and come back in CREDIT
+ * frames as downstream stages take orders, so a producer waits here exactly when it would
+ * have waited on a full local channel. Once every producer has finished, the writer sends the
+ * last batch and an END frame carrying this process's order, box and rejection counts.
+ *
+ * If the connection is lost, put() drops orders instead of blocking so the day can finish.
+ */
+public class RemoteOrderSender implements StageSink<Order> {
+    private final String name;
+    private final int batchSize;
+    private final long lingerMillis;
+    private final SimulationClock clock;
+    private final Statistics statistics;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ClockCondition room;      // Credit available and the open frame not full
+    private final ClockCondition frameReady;
+    private ByteBuffer open;                // ORDERS frame producers are filling
+    private ByteBuffer sending;             // Frame the writer owns while it is on the wire
+    private int openOrders;
+    private long openSince;
+    private int openProducers;
+    private int credits;
+    private int capacity;
+    private boolean ending = false;         // END is being written; the peer may close any moment
+    private boolean finished = false;
+    private boolean failed = false;
+    private SocketChannel socket;
+    private long clockOffset;               // Downstream clock minus ours
+    private BackpressureGate bays;          // Mirror of the downstream bays, or null
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder frames = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder encodeNanos = new LongAdder();
+    private final LongAdder creditFrames = new LongAdder();
+    private final LongAdder creditStalls = new LongAdder();
+
+    public RemoteOrderSender(String name, int producers, int batchSize, long lingerMillis, SimulationClock clock,
+                             Statistics statistics) {
+        this.name = name;
+        this.openProducers = producers;
+        this.batchSize = batchSize;
+        this.lingerMillis = lingerMillis;
+        this.clock = clock;
+        this.statistics = statistics;
+        this.room = clock.newCondition(lock);
+        this.frameReady = clock.newCondition(lock);
+        int frameBytes = OrderWire.ORDERS_HEADER_BYTES + batchSize * OrderWire.ORDER_BYTES;
+        this.open = ByteBuffer.allocateDirect(frameBytes);
+        this.sending = ByteBuffer.allocateDirect(frameBytes);
+        OrderWire.begin(open, OrderWire.ORDERS).putShort((short) 0);
+    }
+
+    // Connects to the downstream process, retrying while it starts up, and exchanges clocks and credits;
+    // bays, if given, is paused and resumed as the downstream loading bays fill and free up
+    public void connect(SocketAddress address, int split, long waitMillis, BackpressureGate bays) throws IOException {
+        SocketChannel channel = null;
+        long giveUp = System.currentTimeMillis() + waitMillis;
+        while (channel == null) {
+            try {
+                channel = OrderWire.connect(address);
+            } catch (IOException e) {
+                if (System.currentTimeMillis() >= giveUp) throw e;
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while connecting to " + address);
+                }
+            }
+        }
+
+        // Offset as seen halfway through the exchange, so the round trip cancels out
+        ByteBuffer frame = ByteBuffer.allocate(64);
+        long before = clock.currentTimeMillis();
+        OrderWire.begin(frame, OrderWire.HELLO).putInt(OrderWire.MAGIC).put(OrderWire.VERSION).put((byte) split)
+                .putLong(before);
+        OrderWire.write(channel, OrderWire.finish(frame));
+        if (!OrderWire.read(channel, frame) || frame.get() != OrderWire.WELCOME) {
+            channel.close();
+            throw new IOException("Downstream process at " + address + " refused the hand-off");
+        }
+        int initialCredits = frame.getInt();
+        long downstreamClock = frame.getLong();
+        long after = clock.currentTimeMillis();
+
+        lock.lock();
+        try {
+            this.socket = channel;
+            this.clockOffset = downstreamClock - (before + after) / 2;
+            this.credits = initialCredits;
+            this.capacity = initialCredits;
+            this.bays = bays;
+        } finally {
+            lock.unlock();
+        }
+        Thread writer = new Thread(this::writeFrames, name + " sender");
+        Thread reader = new Thread(this::readCredits, name + " credits");
+        writer.setDaemon(true);
+        reader.setDaemon(true);
+        writer.start();
+        reader.start();
+    }
+
+    @Override
+    public void put(Order order) throws InterruptedException {
+        lock.lock();
+        try {
+            if (!failed && (credits == 0 || openOrders == batchSize)) {
+                // Downstream has no room (or the writer is behind): wait as on a full local channel
+                if (credits == 0) creditStalls.increment();
+                statistics.recordBackpressurePause(name);
+                while (!failed && (credits == 0 || openOrders == batchSize)) {
+                    room.await();
+                }
+                statistics.recordBackpressureResume(name);
+            }
+            if (failed) {
+                dropped.increment();
+                return;
+            }
+            credits--;
+            long start = System.nanoTime();
+            OrderWire.putOrder(open, order, clockOffset);
+            encodeNanos.add(System.nanoTime() - start);
+            if (openOrders++ == 0) openSince = clock.currentTimeMillis();
+            if (openOrders == 1 || openOrders == batchSize) frameReady.signal(); // Start the linger wait, or send
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void producerFinished() {
+        lock.lock();
+        try {
+            if (openProducers > 0 && --openProducers == 0) {
+                frameReady.signal(); // The writer sends what is left, then END
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // True once every producer has finished and the END frame is on the wire (or the connection is gone)
+    public boolean isDrained() {
+        lock.lock();
+        try {
+            return finished || failed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isComplete() {
+        lock.lock();
+        try {
+            return finished;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Orders sent or waiting to be sent that downstream stages have not yet taken
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return capacity - credits;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int getCapacity() { return capacity; }
+
+    @Override
+    public String getName() { return name; }
+
+    // Hand-offs complete in the downstream process, which reports their latency
+    @Override
+    public long getHandOffs() { return 0; }
+
+    @Override
+    public double getAverageLatencyMillis() { return 0.0; }
+
+    @Override
+    public long getMaxLatencyMillis() { return 0; }
+
+    private void writeFrames() {
+        lock.lock();
+        try {
+            while (!failed) {
+                if (openOrders == 0 && openProducers > 0) {
+                    frameReady.await();
+                    continue;
+                }
+                if (openOrders > 0 && openOrders < batchSize && openProducers > 0) {
+                    long wait = openSince + lingerMillis - clock.currentTimeMillis();
+                    if (wait > 0) {
+                        frameReady.await(wait);
+                        continue;
+                    }
+                }
+                if (openOrders > 0) {
+                    ByteBuffer frame = swap();
+                    lock.unlock();
+                    try {
+                        send(frame);
+                    } finally {
+                        lock.lock();
+                    }
+                    continue;
+                }
+
+                // Every producer has finished and the last batch is out
+                ending = true;
+                ByteBuffer end = OrderWire.begin(ByteBuffer.allocate(64), OrderWire.END);
+                end.putLong(statistics.getOrdersProcessed()).putLong(statistics.getBoxesPacked());
+                end.put((byte) RejectionReason.values().length);
+                for (RejectionReason reason : RejectionReason.values()) {
+                    end.putLong(statistics.getRejections(reason));
+                }
+                lock.unlock();
+                try {
+                    send(OrderWire.finish(end));
+                } finally {
+                    lock.lock();
+                }
+                finished = true;
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            fail("send failed: " + e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Hands the open frame to the writer and gives producers the other buffer; called with the lock held
+    private ByteBuffer swap() {
+        ByteBuffer frame = open;
+        frame.putShort(OrderWire.HEADER_BYTES, (short) openOrders);
+        OrderWire.finish(frame);
+        sent.add(openOrders);
+        open = sending;
+        sending = frame;
+        OrderWire.begin(open, OrderWire.ORDERS).putShort((short) 0);
+        openOrders = 0;
+        room.signalAll();
+        return frame;
+    }
+
+    private void send(ByteBuffer frame) throws IOException {
+        int length = frame.remaining();
+        OrderWire.write(socket, frame);
+        frames.increment();
+        bytes.add(length);
+    }
+
+    private void readCredits() {
+        ByteBuffer frame = ByteBuffer.allocate(64);
+        try {
+            while (OrderWire.read(socket, frame)) {
+                byte type = frame.get();
+                if (type == OrderWire.CREDIT) {
+                    int returned = frame.getInt();
+                    lock.lock();
+                    try {
+                        credits += returned;
+                        creditFrames.increment();
+                        room.signalAll();
+                    } finally {
+                        lock.unlock();
+                    }
+                } else if (type == OrderWire.BAYS && bays != null) {
+                    if (frame.get() == 1) {
+                        bays.increment();
+                    } else {
+                        bays.decrement();
+                    }
+                }
+            }
+            if (!isEnding()) fail("downstream process closed the connection");
+        } catch (IOException e) {
+            if (!isEnding()) fail("receive failed: " + e.getMessage());
+        } finally {
+            if (bays != null && bays.isPaused()) bays.decrement(); // Never leave packing held by a lost peer
+        }
+    }
+
+    private boolean isEnding() {
+        lock.lock();
+        try {
+            return ending || finished;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void fail(String reason) {
+        lock.lock();
+        try {
+            if (failed || finished) return;
+            failed = true;
+            room.signalAll();
+            frameReady.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        System.err.println("Remote hand-off " + name + " lost, dropping further orders: " + reason);
+    }
+
+    public void close() {
+        try {
+            if (socket != null) socket.close();
+        } catch (IOException e) {
+            // Closing anyway
+        }
+    }
+
+    public long getSent() { return sent.sum(); }
+    public long getDropped() { return dropped.sum(); }
+    public long getFrames() { return frames.sum(); }
+    public long getBytes() { return bytes.sum(); }
+    public long getCreditFrames() { return creditFrames.sum(); }
+    public long getCreditStalls() { return creditStalls.sum(); }
+    public long getClockOffset() { return clockOffset; }
+
+    public double getEncodeNanosPerOrder() {
+        long orders = sent.sum();
+        return orders == 0 ? 0.0 : (double) encodeNanos.sum() / orders;
+    }
+}
@@ -0,0 +1,52 @@
+package Main;
+
+
+// ReportColumn.java
+/*
+ * Columns of an OrderReportStore day file, in file order. Each column holds one fixed-width
+ * value per row; times are simulated milliseconds since the start of the day, or
+ * OrderReportStore.NOT_REACHED.
+ */
+public enum ReportColumn {
+    ORDER_ID(4),   // 0 marks an unused row; the tracking id is derived from it
+    ZONE(2),
+    STATUS(1),     // OrderReportStore.IN_FLIGHT, DELIVERED or REJECTED
+    REASON(1),     // RejectionReason ordinal when rejected
+    CONTAINER(4),  // 0 until the order's container ships
+    BAY(4),        // 0 until loaded
+    TRUCK(4),      // 0 until departed
+    CREATED(4),
+    INTAKE(4),     // Stage completion times, one per Statistics.LATENCY_STAGES entry
+    PICKED(4),
+    PACKED(4),
+    LABELLED(4),
+    SORTED(4),
+    SHIPPED(4),
+    LOADED(4),
+    DEPARTED(4),
+    REJECTED_AT(4);
+
+    // Completion-time column of each Statistics.LATENCY_STAGES entry
+    static final ReportColumn[] STAGE_TIMES = { INTAKE, PICKED, PACKED, LABELLED, SORTED, SHIPPED, LOADED, DEPARTED };
+
+    private final int width;
+
+    ReportColumn(int width) {
+        this.width = width;
+    }
+
+    public int getWidth() { return width; }
+
+    public boolean isTime() {
+        return ordinal() >= CREATED.ordinal();
+    }
+
+    // Bytes one row takes across every column
+    static int rowBytes() {
+        int bytes = 0;
+        for (ReportColumn column : values()) {
+            bytes += column.width;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,253 @@
+package Main;
+
+
+// ReportQuery.java
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/*
+ * Queries OrderReportStore day files by scanning their mapped columns in place: rows are read
+ * straight from the page cache and only the aggregates live on the heap, so a query over many
+ * days costs no more memory than one over a single day.
+ *
+ * Usage: ReportQuery COMMAND PATH... [--from=COLUMN] [--to=COLUMN] [--trucks=A-B] [--zones=A-B] [--hours=A-B]
+ *   latency      p50/p95/p99/max from one stage time to another over delivered orders
+ *                (default created -> departed, i.e. intake to departure)
+ *   rejections   rejections by stage for each hour of the day
+ *   summary      orders, deliveries and rejections per day file
+ * A PATH may be a day file or a directory of them. Hours are simulated hours since the day
+ * started; --hours filters on the --from time (latency) or the rejection time.
+ */
+public class ReportQuery {
+    private static final String USAGE = "Usage: ReportQuery latency|rejections|summary PATH... "
+            + "[--from=COLUMN] [--to=COLUMN] [--trucks=A-B] [--zones=A-B] [--hours=A-B]";
+    private static final long HOUR_MILLIS = 3_600_000L;
+    private static final String[] REJECTION_STAGES = {
+        Statistics.STAGE_INTAKE, Statistics.STAGE_PICKING, Statistics.STAGE_PACKING, Statistics.STAGE_LABELLING
+    };
+
+    private ReportColumn from = ReportColumn.CREATED;
+    private ReportColumn to = ReportColumn.DEPARTED;
+    private int[] trucks;  // Inclusive bounds, null = any
+    private int[] zones;
+    private int[] hours;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+        ReportQuery query = new ReportQuery();
+        List<Path> files = new ArrayList<>();
+        try {
+            for (int i = 1; i < args.length; i++) {
+                if (args[i].startsWith("--")) {
+                    query.set(args[i]);
+                } else {
+                    files.addAll(dayFiles(Paths.get(args[i])));
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        List<DayFile> days = new ArrayList<>();
+        for (Path file : files) {
+            days.add(DayFile.map(file));
+        }
+        switch (args[0]) {
+            case "latency": query.latency(days); break;
+            case "rejections": query.rejections(days); break;
+            case "summary": query.summary(days); break;
+            default:
+                System.err.println(USAGE);
+                System.exit(2);
+        }
+    }
+
+    private void set(String arg) {
+        int eq = arg.indexOf('=');
+        if (eq < 0) throw new IllegalArgumentException("Unrecognised argument: " + arg);
+        String name = arg.substring(2, eq);
+        String value = arg.substring(eq + 1);
+        switch (name) {
+            case "from": from = timeColumn(value); break;
+            case "to": to = timeColumn(value); break;
+            case "trucks": trucks = range(name, value); break;
+            case "zones": zones = range(name, value); break;
+            case "hours": hours = range(name, value); break;
+            default: throw new IllegalArgumentException("Unknown option: --" + name);
+        }
+    }
+
+    private static ReportColumn timeColumn(String name) {
+        try {
+            ReportColumn column = ReportColumn.valueOf(name.toUpperCase(Locale.ROOT));
+            if (column.isTime()) return column;
+        } catch (IllegalArgumentException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException("Not a time column: " + name);
+    }
+
+    // "3-7" or "5", inclusive
+    private static int[] range(String name, String value) {
+        try {
+            int dash = value.indexOf('-');
+            if (dash < 0) {
+                int only = Integer.parseInt(value.trim());
+                return new int[] { only, only };
+            }
+            return new int[] { Integer.parseInt(value.substring(0, dash).trim()),
+                               Integer.parseInt(value.substring(dash + 1).trim()) };
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for --" + name + ": " + value);
+        }
+    }
+
+    private static boolean within(int[] bounds, long value) {
+        return bounds == null || (value >= bounds[0] && value <= bounds[1]);
+    }
+
+    private static List<Path> dayFiles(Path path) {
+        if (!Files.isDirectory(path)) return List.of(path);
+        try (Stream<Path> entries = Files.list(path)) {
+            return entries.filter(file -> file.getFileName().toString().endsWith(OrderReportStore.FILE_SUFFIX))
+                          .sorted().collect(java.util.stream.Collectors.toList());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot list " + path + ": " + e.getMessage());
+        }
+    }
+
+    private void latency(List<DayFile> days) {
+        LatencyHistogram latency = new LatencyHistogram(1);
+        for (DayFile day : days) {
+            for (int row = 0; row < day.rows; row++) {
+                if (day.status(row) != OrderReportStore.DELIVERED) continue;
+                int start = day.getInt(from, row);
+                int end = day.getInt(to, row);
+                if (start == OrderReportStore.NOT_REACHED || end == OrderReportStore.NOT_REACHED) continue;
+                if (!within(trucks, day.getInt(ReportColumn.TRUCK, row)) || !within(zones, day.zone(row))
+                        || !within(hours, Math.floorDiv(start, HOUR_MILLIS))) {
+                    continue;
+                }
+                latency.record(end - start);
+            }
+        }
+        LatencySnapshot snapshot = latency.snapshot();
+        System.out.printf(Locale.ROOT, "%s -> %s over %d orders in %d day files%n", name(from), name(to),
+                          snapshot.getCount(), days.size());
+        System.out.printf(Locale.ROOT, "  p50: %dms | p95: %dms | p99: %dms | max: %dms | mean: %dms%n",
+                          snapshot.percentile(50), snapshot.percentile(95), snapshot.percentile(99),
+                          snapshot.getMax(), snapshot.getMean());
+    }
+
+    private void rejections(List<DayFile> days) {
+        Map<Long, long[]> byHour = new TreeMap<>();
+        for (DayFile day : days) {
+            for (int row = 0; row < day.rows; row++) {
+                if (day.status(row) != OrderReportStore.REJECTED || !within(zones, day.zone(row))) continue;
+                long hour = Math.floorDiv(day.getInt(ReportColumn.REJECTED_AT, row), HOUR_MILLIS);
+                if (!within(hours, hour)) continue;
+                String stage = RejectionReason.fromCode(day.reason(row)).getStage();
+                long[] counts = byHour.computeIfAbsent(hour, key -> new long[REJECTION_STAGES.length]);
+                for (int i = 0; i < REJECTION_STAGES.length; i++) {
+                    if (REJECTION_STAGES[i].equals(stage)) counts[i]++;
+                }
+            }
+        }
+        System.out.printf("%-6s", "hour");
+        for (String stage : REJECTION_STAGES) {
+            System.out.printf(" %10s", stage);
+        }
+        System.out.println();
+        byHour.forEach((hour, counts) -> {
+            System.out.printf("%-6d", hour);
+            for (long count : counts) {
+                System.out.printf(" %10d", count);
+            }
+            System.out.println();
+        });
+    }
+
+    private void summary(List<DayFile> days) {
+        for (DayFile day : days) {
+            int orders = 0, delivered = 0, rejected = 0;
+            BitSet trucksSeen = new BitSet();
+            for (int row = 0; row < day.rows; row++) {
+                if (day.getInt(ReportColumn.ORDER_ID, row) == 0) continue;
+                orders++;
+                byte status = day.status(row);
+                if (status == OrderReportStore.DELIVERED) {
+                    delivered++;
+                    trucksSeen.set(day.getInt(ReportColumn.TRUCK, row));
+                } else if (status == OrderReportStore.REJECTED) {
+                    rejected++;
+                }
+            }
+            System.out.printf("%s: %d orders | delivered: %d on %d trucks | rejected: %d | in flight: %d%n",
+                              day.path.getFileName(), orders, delivered, trucksSeen.cardinality(), rejected,
+                              orders - delivered - rejected);
+        }
+    }
+
+    private static String name(ReportColumn column) {
+        return column.name().toLowerCase(Locale.ROOT);
+    }
+
+    // One read-only mapped day file; reads go straight to the mapped columns
+    private static final class DayFile {
+        final Path path;
+        final MappedByteBuffer columns;
+        final int rows;
+        final int[] offsets = new int[ReportColumn.values().length];
+
+        private DayFile(Path path, MappedByteBuffer columns, int rows) {
+            this.path = path;
+            this.columns = columns;
+            this.rows = rows;
+            for (ReportColumn column : ReportColumn.values()) {
+                offsets[column.ordinal()] = (int) OrderReportStore.columnOffset(column, rows);
+            }
+        }
+
+        static DayFile map(Path path) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                MappedByteBuffer columns = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                return new DayFile(path, columns, OrderReportStore.readHeader(columns, path));
+            }
+        }
+
+        int getInt(ReportColumn column, int row) {
+            return columns.getInt(offsets[column.ordinal()] + row * 4);
+        }
+
+        int zone(int row) {
+            return columns.getShort(offsets[ReportColumn.ZONE.ordinal()] + row * 2);
+        }
+
+        byte status(int row) {
+            return columns.get(offsets[ReportColumn.STATUS.ordinal()] + row);
+        }
+
+        byte reason(int row) {
+            return columns.get(offsets[ReportColumn.REASON.ordinal()] + row);
+        }
+    }
+}
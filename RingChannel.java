@@ -0,0 +1,266 @@
+package Main;
+
+
+// RingChannel.java
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ * Bounded stage hand-off over a preallocated ring, in the style of the LMAX Disruptor.
+ * Producers claim a position on the tail cursor and consumers on the head cursor; each slot
+ * carries a sequence number saying whether it is ready to be written or read, so neither
+ * side takes a lock or allocates while the ring is neither full nor empty. A ring written by
+ * a single thread advances the tail without a CAS.
+ *
+ * When a side has to wait it follows the WaitStrategy. BLOCKING registers as a waiter and
+ * parks on a ClockCondition; the other side only takes the lock to signal when somebody is
+ * registered. It is the only strategy a VirtualClock can see, so use it there.
+ */
+public class RingChannel<T> implements StageChannel<T> {
+    private final String name;
+    private final int capacity;
+    private final boolean powerOfTwo;
+    private final Object[] slots;
+    private final long[] enqueuedAt;
+    private final AtomicLongArray sequences; // Slot i is writable at position p when its sequence is p, readable at p + 1
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+    private final boolean singleProducer;
+    private final AtomicInteger openProducers;
+    private final WaitStrategy waitStrategy;
+    private final SimulationClock clock;
+    private final Statistics statistics;
+
+    // Only used by the BLOCKING strategy
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ClockCondition notEmpty;
+    private final ClockCondition notFull;
+    private final AtomicInteger waitingConsumers = new AtomicInteger();
+    private final AtomicInteger waitingProducers = new AtomicInteger();
+
+    private final LongAdder handOffs = new LongAdder();
+    private final LongAdder totalLatency = new LongAdder();
+    private final AtomicLong maxLatency = new AtomicLong();
+
+    // singleWriter: only ever one thread calls put, however many producers finish the channel
+    public RingChannel(String name, int capacity, int producers, boolean singleWriter, WaitStrategy waitStrategy, 
+                       SimulationClock clock, Statistics statistics) {
+        if (capacity <= 0) throw new IllegalArgumentException("Channel capacity must be positive: " + capacity);
+        this.name = name;
+        this.capacity = capacity;
+        this.powerOfTwo = Integer.bitCount(capacity) == 1;
+        this.slots = new Object[capacity];
+        this.enqueuedAt = new long[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        this.singleProducer = singleWriter;
+        this.openProducers = new AtomicInteger(producers);
+        this.waitStrategy = waitStrategy;
+        this.clock = clock;
+        this.statistics = statistics;
+        this.notEmpty = clock.newCondition(lock);
+        this.notFull = clock.newCondition(lock);
+    }
+
+    @Override
+    public void put(T item) throws InterruptedException {
+        if (tryPut(item)) return;
+
+        // Downstream is saturated: the producer pauses until a slot frees up
+        statistics.recordBackpressurePause(name);
+        if (waitStrategy == WaitStrategy.BLOCKING) {
+            lock.lock();
+            waitingProducers.incrementAndGet();
+            try {
+                while (!tryPut(item)) {
+                    notFull.await();
+                }
+            } finally {
+                waitingProducers.decrementAndGet();
+                lock.unlock();
+            }
+        } else {
+            while (!tryPut(item)) {
+                waitStrategy.idle();
+            }
+        }
+        statistics.recordBackpressureResume(name);
+    }
+
+    @Override
+    public T poll(long timeoutMillis) throws InterruptedException {
+        return await(clock.currentTimeMillis() + timeoutMillis, true);
+    }
+
+    @Override
+    public T take() throws InterruptedException {
+        return await(0, false);
+    }
+
+    @Override
+    public int drainTo(Collection<? super T> sink, int maxItems, long timeoutMillis) throws InterruptedException {
+        T item = poll(timeoutMillis);
+        if (item == null) return 0;
+        sink.add(item);
+        int drained = 1;
+        while (drained < maxItems && (item = tryTake()) != null) {
+            sink.add(item);
+            drained++;
+        }
+        return drained;
+    }
+
+    @Override
+    public void producerFinished() {
+        if (openProducers.decrementAndGet() == 0) {
+            lock.lock();
+            try {
+                notEmpty.signalAll(); // Wake consumers so they observe end of stream
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public boolean isDrained() {
+        // Every producer has published before finishing, so a claimed-but-unwritten slot cannot remain
+        return openProducers.get() <= 0 && head.get() >= tail.get();
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    @Override
+    public int getCapacity() { return capacity; }
+
+    @Override
+    public String getName() { return name; }
+
+    @Override
+    public long getHandOffs() { return handOffs.sum(); }
+
+    @Override
+    public double getAverageLatencyMillis() {
+        long count = handOffs.sum();
+        return count == 0 ? 0.0 : (double) totalLatency.sum() / count;
+    }
+
+    @Override
+    public long getMaxLatencyMillis() { return maxLatency.get(); }
+
+    public WaitStrategy getWaitStrategy() { return waitStrategy; }
+
+    private T await(long deadline, boolean timed) throws InterruptedException {
+        T item = tryTake();
+        if (item != null) return item;
+
+        if (waitStrategy == WaitStrategy.BLOCKING) {
+            lock.lock();
+            waitingConsumers.incrementAndGet(); // Registered before re-checking, so a publish cannot be missed
+            try {
+                while ((item = tryTake()) == null) {
+                    if (isDrained()) return null;
+                    if (!timed) {
+                        notEmpty.await();
+                    } else {
+                        long remaining = deadline - clock.currentTimeMillis();
+                        if (remaining <= 0) return null;
+                        notEmpty.await(remaining);
+                    }
+                }
+                return item;
+            } finally {
+                waitingConsumers.decrementAndGet();
+                lock.unlock();
+            }
+        }
+
+        while ((item = tryTake()) == null) {
+            if (isDrained()) return null;
+            if (timed && clock.currentTimeMillis() >= deadline) return null;
+            waitStrategy.idle();
+        }
+        return item;
+    }
+
+    private boolean tryPut(T item) {
+        long position = tail.get();
+        int index;
+        while (true) {
+            index = index(position);
+            long gap = sequences.get(index) - position;
+            if (gap == 0) {
+                if (singleProducer) {
+                    tail.lazySet(position + 1);
+                    break;
+                }
+                if (tail.compareAndSet(position, position + 1)) break;
+                position = tail.get();
+            } else if (gap < 0) {
+                return false; // Slot still holds an unread item: full
+            } else {
+                position = tail.get(); // Another producer claimed it first
+            }
+        }
+        slots[index] = item;
+        enqueuedAt[index] = clock.currentTimeMillis();
+        sequences.set(index, position + 1); // Publishes the slot to consumers
+
+        if (waitingConsumers.get() > 0) {
+            signal(notEmpty);
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T tryTake() {
+        long position = head.get();
+        int index;
+        while (true) {
+            index = index(position);
+            long gap = sequences.get(index) - (position + 1);
+            if (gap == 0) {
+                if (head.compareAndSet(position, position + 1)) break;
+                position = head.get();
+            } else if (gap < 0) {
+                return null; // Not yet published: empty
+            } else {
+                position = head.get(); // Another consumer took it first
+            }
+        }
+        T item = (T) slots[index];
+        long latency = clock.currentTimeMillis() - enqueuedAt[index];
+        slots[index] = null;
+        sequences.set(index, position + capacity); // Hands the slot back to producers
+
+        if (waitingProducers.get() > 0) {
+            signal(notFull);
+        }
+        handOffs.increment();
+        totalLatency.add(latency);
+        if (latency > maxLatency.get()) maxLatency.accumulateAndGet(latency, Math::max);
+        return item;
+    }
+
+    private void signal(ClockCondition condition) {
+        lock.lock();
+        try {
+            condition.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int index(long position) {
+        return powerOfTwo ? (int) position & (capacity - 1) : (int) (position % capacity);
+    }
+}
@@ -0,0 +1,153 @@
+package Main;
+
+
+// ShardRouter.java
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntSupplier;
+
+/*
+ * Moves work between the facilities of a sharded run (numbered from 1). An arrival that would
+ * block a facility's full intake hand-off is sent to the open facility with the emptiest
+ * intake, if that one is less than half full; the receiving intake verifies it as one of its
+ * own orders, at its own clock's time. A facility takes routed arrivals only while its own
+ * intake is still running. A facility with more trucks in line than bays sends the last one
+ * to a facility that is down to its last truck with containers still to ship.
+ *
+ * Each facility keeps its own clock, so under the virtual clock their simulated times drift
+ * apart; routed work simply starts at the receiver's current time.
+ */
+public class ShardRouter {
+    private final SwiftCartSimulation[] facilities;
+    private final Inbox[] inboxes;
+    private final boolean routing;
+    private final AtomicIntegerArray ordersOut;
+    private final AtomicIntegerArray ordersIn;
+    private final AtomicIntegerArray trucksOut;
+    private final AtomicIntegerArray trucksIn;
+
+    public ShardRouter(int shards, boolean routing) {
+        this.facilities = new SwiftCartSimulation[shards];
+        this.inboxes = new Inbox[shards];
+        for (int i = 0; i < shards; i++) {
+            inboxes[i] = new Inbox();
+        }
+        this.routing = routing;
+        this.ordersOut = new AtomicIntegerArray(shards);
+        this.ordersIn = new AtomicIntegerArray(shards);
+        this.trucksOut = new AtomicIntegerArray(shards);
+        this.trucksIn = new AtomicIntegerArray(shards);
+    }
+
+    // A single facility: nothing to route to
+    public static ShardRouter disabled() {
+        return new ShardRouter(0, false);
+    }
+
+    // Every facility is attached before any of them starts
+    public void attach(int shard, SwiftCartSimulation facility) {
+        facilities[shard - 1] = facility;
+    }
+
+    public int getShards() { return facilities.length; }
+
+    // Hands an arrival on from a facility whose intake is full; returns the receiving facility, or 0
+    public int routeOverflow(int from, int zone) {
+        if (!routing) return 0;
+        int target = 0;
+        int lowest = Integer.MAX_VALUE;
+        for (int shard = 1; shard <= facilities.length; shard++) {
+            if (shard == from) continue;
+            SwiftCartSimulation facility = facilities[shard - 1];
+            int depth = facility.getIntakeDepth() + inboxes[shard - 1].size();
+            if (depth < facility.getIntakeCapacity() / 2 && depth < lowest) {
+                lowest = depth;
+                target = shard;
+            }
+        }
+        if (target == 0 || !inboxes[target - 1].offer(zone, from)) return 0;
+        ordersOut.incrementAndGet(from - 1);
+        ordersIn.incrementAndGet(target - 1);
+        return target;
+    }
+
+    // Next arrival routed to this facility as {zone, from}, or null
+    public int[] pollRouted(int shard) {
+        return facilities.length == 0 ? null : inboxes[shard - 1].poll();
+    }
+
+    // The facility's intake has finished; arrivals already routed to it are still polled
+    public void closeIntake(int shard) {
+        if (facilities.length > 0) inboxes[shard - 1].close();
+    }
+
+    // A facility with containers waiting and no truck in line, or 0
+    public int truckTarget(int from) {
+        if (!routing) return 0;
+        for (int shard = 1; shard <= facilities.length; shard++) {
+            if (shard != from && facilities[shard - 1].needsTruck()) return shard;
+        }
+        return 0;
+    }
+
+    // Moves a truck released from one facility's line to another, which starts it at once; the release
+    // only happens once the receiver has agreed. Returns the released truck's id, or 0
+    public int transferTruck(int from, int to, IntSupplier release) {
+        int truckId = facilities[to - 1].acceptTruck(from, release);
+        if (truckId == 0) return 0;
+        trucksOut.incrementAndGet(from - 1);
+        trucksIn.incrementAndGet(to - 1);
+        return truckId;
+    }
+
+    public int getOrdersRoutedOut(int shard) { return ordersOut.get(shard - 1); }
+    public int getOrdersRoutedIn(int shard) { return ordersIn.get(shard - 1); }
+    public int getTrucksLent(int shard) { return trucksOut.get(shard - 1); }
+    public int getTrucksBorrowed(int shard) { return trucksIn.get(shard - 1); }
+
+    // Arrivals routed to one facility; closed once its intake finishes so none is left behind
+    private static final class Inbox {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ArrayDeque<int[]> arrivals = new ArrayDeque<>();
+        private boolean open = true;
+
+        boolean offer(int zone, int from) {
+            lock.lock();
+            try {
+                if (!open) return false;
+                arrivals.add(new int[] { zone, from });
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int[] poll() {
+            lock.lock();
+            try {
+                return arrivals.poll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int size() {
+            lock.lock();
+            try {
+                return arrivals.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void close() {
+            lock.lock();
+            try {
+                open = false;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
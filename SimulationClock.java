@@ -0,0 +1,34 @@
+package Main;
+
+
+// SimulationClock.java
+import java.util.concurrent.locks.Lock;
+
+public interface SimulationClock {
+    // Current simulation time in milliseconds
+    long currentTimeMillis();
+
+    // Models work or idle time for the calling thread
+    void sleep(long millis) throws InterruptedException;
+
+    // Condition bound to the given lock whose waits are visible to the clock
+    ClockCondition newCondition(Lock lock);
+
+    // Called by the submitting thread before a participant task is started
+    void register();
+
+    // Called by a participant when it is finished with the clock
+    void deregister();
+
+    // Wraps a task so that it is registered now and deregistered when it ends
+    default Runnable participant(Runnable task) {
+        register();
+        return () -> {
+            try {
+                task.run();
+            } finally {
+                deregister();
+            }
+        };
+    }
+}
@@ -0,0 +1,607 @@
+package Main;
+
+
+// SimulationConfig.java
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+public class SimulationConfig {
+    public static final String USAGE = String.join(System.lineSeparator(),
+        "Usage: SwiftCartSimulation [options]",
+        "  --orders=N                   orders to simulate (600)",
+        "  --pickers=N                  picker workers at start (4)",
+        "  --min-pickers=N, --max-pickers=N",
+        "                               adaptive picker pool bounds; equal = fixed pool (both --pickers),",
+        "                               at most --picking-slots",
+        "  --picking-slots=N            orders picked at a time, shared by all pickers (4)",
+        "  --picker-latency-target=MS   pick p95 above which the pool grows (5000)",
+        "  --intake-batch=N             verified orders published to picking per hand-off (1)",
+        "  --pick-wave=N                queued orders a picker claims and picks per wave (1)",
+        "  --loaders=N                  autonomous loaders (3)",
+        "  --standby-loaders=N          hot standby loaders, parked until needed (0)",
+        "  --min-loaders=N              call in standby loaders when fewer are operational (--loaders)",
+        "  --loader-failure-rate=P      breakdown chance per container move for a freshly serviced loader;",
+        "                               rises with wear and varies per loader (0.05)",
+        "  --loader-service-at=P        predicted breakdown chance that sends a loader for preventive",
+        "                               service, 0 = off (0)",
+        "  --loader-dispatch=MODE       shared (default): loaders poll the sorter's hand-off; stealing:",
+        "                               each loader claims into its own deque and idle loaders steal",
+        "  --loader-claim=N             containers a stealing loader claims from the hand-off at once (2)",
+        "  --bays=N                     loading bays (2)",
+        "  --bay-selection=POLICY       bay a loader is given: first-free (default), least-loaded,",
+        "                               round-robin or truck-affinity",
+        "  --trucks=N                   trucks (10)",
+        "  --timeout-minutes=N          simulated time limit (5)",
+        "  --intake-interval=MS         time between arriving orders (500)",
+        "  --pick-time=MIN-MAX          picking duration in ms (1000-2000)",
+        "  --pack-time=MIN-MAX          packing duration in ms (800-1500)",
+        "  --label-time=MIN-MAX         labelling duration in ms (600-1200)",
+        "  --load-time=MIN-MAX          loader move duration in ms (1000-2000)",
+        "  --maintenance-time=MIN-MAX   loader repair duration in ms (2000-5000)",
+        "  --truck-arrival=MIN-MAX      gap between truck arrivals in ms (1000-3000)",
+        "  --dispatch=POLICY            when trucks leave: full-load (default), max-dwell or zone-complete",
+        "  --truck-max-dwell=MS         longest a loaded container waits on its truck, for max-dwell",
+        "                               and zone-complete (300000)",
+        "  --truck-min-fill=N           zone-complete: containers on board before quiet zones end a load (12)",
+        "  --packing-lanes=N            parallel packing lanes, 1 order each (1)",
+        "  --labelling-lanes=N          parallel labelling lanes, 1 box each (1)",
+        "  --lane-order=MODE            any (default) or fifo: lanes hand on orders in arrival order",
+        "  --zones=N                    regional delivery zones; containers hold one zone (4)",
+        "  --zone-flush-timeout=MS      ship a zone part-full once its oldest box waited this long,",
+        "                               0 = only when full (180000)",
+        "  --intake-capacity=N, --picking-capacity=N, --packing-capacity=N,",
+        "  --labelling-capacity=N, --container-capacity=N, --bay-capacity=N",
+        "                               hand-off and bay capacities",
+        "  --channel=TYPE               stage hand-offs: queue (default) or ring (preallocated ring buffers)",
+        "  --wait-strategy=NAME         ring waits: blocking (default), park, yield or spin;",
+        "                               the virtual clock always uses blocking",
+        "  --time-scale=X               0 = virtual clock, 1 = real time (default), X > 1 = compressed",
+        "  --virtual-clock              same as --time-scale=0",
+        "  --executor=MODE              platform (default) or virtual threads for every task (Java 21+)",
+        "  --headless                   no console logging; print one JSON result line",
+        "  --log=TARGET                 console (default), off, text:PATH or binary:PATH",
+        "  --log-level=LEVEL            debug (default), info, warn or off",
+        "  --journal=PATH               write-ahead journal of every order transition (off)",
+        "  --journal-sync=MS            group-commit interval; 0 = each transition waits for its fsync (10)",
+        "  --recover                    replay --journal, resume the day where it stopped and keep appending",
+        "  --report-store=DIR           keep per-order detail in a memory-mapped day file in DIR (off);",
+        "                               query it with ReportQuery",
+        "  --metrics-port=N             serve Prometheus metrics on localhost:N/metrics (off)",
+        "  --shards=N                   run N independent facilities, each with these options, own clock",
+        "                               and threads; statistics are merged at the end (1)",
+        "  --shard-routing=on|off       send overflow arrivals and spare trucks to another facility (on)",
+        "  --process=ROLE               run part of one facility: upstream (stages up to --split) or",
+        "                               downstream (the rest, with bays and trucks); start both (off)",
+        "  --split=HAND-OFF             picking->packing (default), packing->labelling or labelling->sorting",
+        "  --remote=ADDRESS             HOST:PORT or unix:PATH the downstream process listens on",
+        "                               (localhost:7400)",
+        "  --remote-batch=N             orders sent per frame at most (16)",
+        "  --remote-linger=MS           longest an order waits for its frame to fill (50)",
+        "  --help                       print this message");
+
+    // Pipeline shape
+    private int totalOrders = 600;
+    private int pickers = 4;
+    private int minPickers = 0;  // 0 = same as pickers
+    private int maxPickers = 0;  // 0 = same as pickers
+    private int pickingSlots = 4;
+    private long pickerLatencyTarget = 5000;
+    private int intakeBatch = 1;
+    private int pickWave = 1;
+    private int loaders = 3;
+    private int loadingBays = 2;
+    private int standbyLoaders = 0;
+    private int minLoaders = 0;  // 0 = same as loaders
+    private double loaderFailureRate = 0.05;
+    private double loaderServiceAt = 0;
+    private boolean loaderStealing = false;
+    private int loaderClaim = 2;
+    private BaySelection baySelection = BaySelection.FIRST_FREE;
+    private int trucks = 10;
+    private int timeoutMinutes = 5;
+    private int zones = 4;
+    private int packingLanes = 1;
+    private int labellingLanes = 1;
+    private boolean fifoLanes = false; // Multi-lane stations keep input order on output
+
+    // Stage durations
+    private DurationRange intakeInterval = new DurationRange(500, 500);
+    private DurationRange pickTime = new DurationRange(1000, 2000);
+    private DurationRange packTime = new DurationRange(800, 1500);
+    private DurationRange labelTime = new DurationRange(600, 1200);
+    private DurationRange loadTime = new DurationRange(1000, 2000);
+    private DurationRange maintenanceTime = new DurationRange(2000, 5000);
+    private DurationRange truckArrivalGap = new DurationRange(1000, 3000);
+    private long zoneFlushTimeout = 180_000;
+
+    // Truck dispatch
+    private DispatchPolicy dispatchPolicy = DispatchPolicy.FULL_LOAD;
+    private long truckMaxDwell = 300_000;
+    private int truckMinFill = 12;
+
+    // Hand-off capacities between stages (orders, except the container queue)
+    private int intakeQueueCapacity = 50;
+    private int pickingQueueCapacity = 20;
+    private int packingQueueCapacity = 10;
+    private int labellingQueueCapacity = 10;
+    private int containerQueueCapacity = 2;
+
+    // Containers each loading bay can hold; packing pauses once every bay is full
+    private int bayCapacity = 5;
+
+    // Stage hand-off transport
+    private boolean ringChannels = false;
+    private WaitStrategy waitStrategy = WaitStrategy.BLOCKING;
+
+    // Execution mode
+    private double timeScale = 1.0;
+    private boolean headless = false;
+    private ExecutorMode executorMode = ExecutorMode.PLATFORM;
+
+    // Event log destination and threshold
+    private String logTarget = "console";
+    private EventLevel logLevel = EventLevel.DEBUG;
+
+    // Write-ahead journal; null disables it
+    private String journalPath = null;
+    private long journalSyncMillis = 10;
+    private boolean recover = false;
+
+    // Directory of per-order report files; null disables it
+    private String reportStoreDirectory = null;
+
+    // Metrics endpoint port; 0 disables it
+    private int metricsPort = 0;
+
+    // Independent facilities run side by side
+    private int shards = 1;
+    private boolean shardRouting = true;
+
+    // One facility split across two processes at an order hand-off
+    private RemoteHandOff.Role processRole = RemoteHandOff.Role.SINGLE;
+    private int split = 1;
+    private String remoteAddress = "localhost:7400";
+    private int remoteBatch = 16;
+    private long remoteLinger = 50;
+
+    public static SimulationConfig fromArgs(String[] args) {
+        SimulationConfig config = new SimulationConfig();
+        for (String arg : args) {
+            if (arg.equals("--virtual-clock")) {
+                config.timeScale = 0;
+                continue;
+            }
+            if (arg.equals("--headless")) {
+                config.headless = true;
+                continue;
+            }
+            if (arg.equals("--recover")) {
+                config.recover = true;
+                continue;
+            }
+
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Unrecognised argument: " + arg);
+            }
+            String name = arg.substring(2, eq);
+            String value = arg.substring(eq + 1);
+            try {
+                config.set(name, value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid value for --" + name + ": " + value);
+            }
+        }
+        if (config.getMinPickers() > config.pickers || config.pickers > config.getMaxPickers()) {
+            throw new IllegalArgumentException("--pickers must lie between --min-pickers and --max-pickers");
+        }
+        // A picker only works while it holds a slot, so workers beyond the slots would never pick
+        if (config.getMaxPickers() > config.pickingSlots) {
+            throw new IllegalArgumentException("--max-pickers (or --pickers) is " + config.getMaxPickers() 
+                                               + " but only " + config.pickingSlots + " picking slots exist; "
+                                               + "raise --picking-slots or lower the picker count");
+        }
+        if (config.recover && config.journalPath == null) {
+            throw new IllegalArgumentException("--recover needs --journal=PATH");
+        }
+        if (config.shards > 1 && (config.journalPath != null || config.reportStoreDirectory != null 
+                                  || config.metricsPort != 0)) {
+            throw new IllegalArgumentException("--journal, --report-store and --metrics-port cover one facility "
+                                               + "and cannot be used with --shards");
+        }
+        if (config.processRole != RemoteHandOff.Role.SINGLE) {
+            if (config.timeScale == 0) {
+                throw new IllegalArgumentException("--process needs a real-time clock: processes cannot share "
+                                                   + "a virtual clock, use --time-scale=X instead");
+            }
+            if (config.shards > 1 || config.journalPath != null || config.reportStoreDirectory != null) {
+                throw new IllegalArgumentException("--process cannot be used with --shards, --journal or "
+                                                   + "--report-store");
+            }
+            OrderWire.parseAddress(config.remoteAddress);
+        }
+        return config;
+    }
+
+    private void set(String name, String value) {
+        switch (name) {
+            case "orders": totalOrders = positive(name, value); break;
+            case "pickers": pickers = positive(name, value); break;
+            case "min-pickers": minPickers = positive(name, value); break;
+            case "max-pickers": maxPickers = positive(name, value); break;
+            case "picking-slots": pickingSlots = positive(name, value); break;
+            case "picker-latency-target": pickerLatencyTarget = positive(name, value); break;
+            case "intake-batch": intakeBatch = positive(name, value); break;
+            case "pick-wave": pickWave = positive(name, value); break;
+            case "loaders": loaders = positive(name, value); break;
+            case "bays": loadingBays = positive(name, value); break;
+            case "standby-loaders":
+                standbyLoaders = Integer.parseInt(value.trim());
+                if (standbyLoaders < 0) throw new IllegalArgumentException("--standby-loaders must not be negative");
+                break;
+            case "min-loaders": minLoaders = positive(name, value); break;
+            case "loader-failure-rate": loaderFailureRate = probability(name, value); break;
+            case "loader-service-at": loaderServiceAt = probability(name, value); break;
+            case "loader-dispatch":
+                if (!value.equals("shared") && !value.equals("stealing")) {
+                    throw new IllegalArgumentException("--loader-dispatch must be shared or stealing");
+                }
+                loaderStealing = value.equals("stealing");
+                break;
+            case "loader-claim": loaderClaim = positive(name, value); break;
+            case "bay-selection": baySelection = BaySelection.parse(value); break;
+            case "trucks": trucks = positive(name, value); break;
+            case "timeout-minutes": timeoutMinutes = positive(name, value); break;
+            case "zones":
+                zones = positive(name, value);
+                if (zones > Order.MAX_ZONE) {
+                    throw new IllegalArgumentException("--zones must be at most " + Order.MAX_ZONE);
+                }
+                break;
+            case "packing-lanes": packingLanes = positive(name, value); break;
+            case "labelling-lanes": labellingLanes = positive(name, value); break;
+            case "lane-order":
+                if (!value.equals("any") && !value.equals("fifo")) {
+                    throw new IllegalArgumentException("--lane-order must be any or fifo");
+                }
+                fifoLanes = value.equals("fifo");
+                break;
+            case "zone-flush-timeout":
+                zoneFlushTimeout = Long.parseLong(value.trim());
+                if (zoneFlushTimeout < 0) throw new IllegalArgumentException("--zone-flush-timeout must not be negative");
+                break;
+            case "intake-interval": intakeInterval = DurationRange.parse(value); break;
+            case "pick-time": pickTime = DurationRange.parse(value); break;
+            case "pack-time": packTime = DurationRange.parse(value); break;
+            case "label-time": labelTime = DurationRange.parse(value); break;
+            case "load-time": loadTime = DurationRange.parse(value); break;
+            case "maintenance-time": maintenanceTime = DurationRange.parse(value); break;
+            case "truck-arrival": truckArrivalGap = DurationRange.parse(value); break;
+            case "dispatch": dispatchPolicy = DispatchPolicy.parse(value); break;
+            case "truck-max-dwell": truckMaxDwell = positive(name, value); break;
+            case "truck-min-fill": truckMinFill = positive(name, value); break;
+            case "intake-capacity": intakeQueueCapacity = positive(name, value); break;
+            case "picking-capacity": pickingQueueCapacity = positive(name, value); break;
+            case "packing-capacity": packingQueueCapacity = positive(name, value); break;
+            case "labelling-capacity": labellingQueueCapacity = positive(name, value); break;
+            case "container-capacity": containerQueueCapacity = positive(name, value); break;
+            case "bay-capacity": bayCapacity = positive(name, value); break;
+            case "log":
+                if (!value.equals("console") && !value.equals("off")
+                        && !value.startsWith("text:") && !value.startsWith("binary:")) {
+                    throw new IllegalArgumentException("--log must be console, off, text:PATH or binary:PATH");
+                }
+                logTarget = value;
+                break;
+            case "log-level":
+                try {
+                    logLevel = EventLevel.valueOf(value.toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("--log-level must be debug, info, warn or off");
+                }
+                break;
+            case "metrics-port":
+                metricsPort = Integer.parseInt(value.trim());
+                if (metricsPort < 0 || metricsPort > 65535) {
+                    throw new IllegalArgumentException("--metrics-port must be between 0 and 65535: " + value);
+                }
+                break;
+            case "journal":
+                if (value.isEmpty()) throw new IllegalArgumentException("--journal needs a path");
+                journalPath = value;
+                break;
+            case "report-store":
+                if (value.isEmpty()) throw new IllegalArgumentException("--report-store needs a directory");
+                reportStoreDirectory = value;
+                break;
+            case "shards": shards = positive(name, value); break;
+            case "shard-routing":
+                if (!value.equals("on") && !value.equals("off")) {
+                    throw new IllegalArgumentException("--shard-routing must be on or off");
+                }
+                shardRouting = value.equals("on");
+                break;
+            case "process":
+                if (!value.equals("upstream") && !value.equals("downstream")) {
+                    throw new IllegalArgumentException("--process must be upstream or downstream");
+                }
+                processRole = RemoteHandOff.Role.valueOf(value.toUpperCase(Locale.ROOT));
+                break;
+            case "split": split = RemoteHandOff.parseSplit(value); break;
+            case "remote":
+                if (value.isEmpty()) throw new IllegalArgumentException("--remote needs an address");
+                remoteAddress = value;
+                break;
+            case "remote-batch":
+                remoteBatch = positive(name, value);
+                if (remoteBatch > Short.MAX_VALUE) {
+                    throw new IllegalArgumentException("--remote-batch must be at most " + Short.MAX_VALUE);
+                }
+                break;
+            case "remote-linger":
+                remoteLinger = Long.parseLong(value.trim());
+                if (remoteLinger < 0) throw new IllegalArgumentException("--remote-linger must not be negative");
+                break;
+            case "journal-sync":
+                journalSyncMillis = Long.parseLong(value.trim());
+                if (journalSyncMillis < 0) throw new IllegalArgumentException("--journal-sync must not be negative");
+                break;
+            case "channel":
+                if (!value.equals("queue") && !value.equals("ring")) {
+                    throw new IllegalArgumentException("--channel must be queue or ring");
+                }
+                ringChannels = value.equals("ring");
+                break;
+            case "wait-strategy":
+                switch (value) {
+                    case "blocking": waitStrategy = WaitStrategy.BLOCKING; break;
+                    case "park": waitStrategy = WaitStrategy.PARK; break;
+                    case "yield": waitStrategy = WaitStrategy.YIELD; break;
+                    case "spin": waitStrategy = WaitStrategy.BUSY_SPIN; break;
+                    default: throw new IllegalArgumentException("--wait-strategy must be blocking, park, yield or spin");
+                }
+                break;
+            case "executor":
+                try {
+                    executorMode = ExecutorMode.valueOf(value.toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("--executor must be platform or virtual");
+                }
+                break;
+            case "time-scale":
+                timeScale = Double.parseDouble(value);
+                if (timeScale < 0) throw new IllegalArgumentException("--time-scale must not be negative");
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown option: --" + name);
+        }
+    }
+
+    private static int positive(String name, String value) {
+        int parsed = Integer.parseInt(value.trim());
+        if (parsed <= 0) throw new IllegalArgumentException("--" + name + " must be positive: " + value);
+        return parsed;
+    }
+
+    private static double probability(String name, String value) {
+        double parsed = Double.parseDouble(value.trim());
+        if (parsed < 0 || parsed > 1) {
+            throw new IllegalArgumentException("--" + name + " must be between 0 and 1: " + value);
+        }
+        return parsed;
+    }
+
+    public SimulationClock createClock() {
+        return timeScale == 0 ? new VirtualClock() : new RealTimeClock(timeScale);
+    }
+
+    // Polling waits are invisible to the virtual clock and would stall it, so it always blocks
+    public WaitStrategy getEffectiveWaitStrategy(SimulationClock clock) {
+        return clock instanceof VirtualClock ? WaitStrategy.BLOCKING : waitStrategy;
+    }
+
+    // singleWriter: one thread does every put, which lets a ring skip the CAS on its tail
+    public <T> StageChannel<T> createChannel(String name, int capacity, int producers, boolean singleWriter, 
+                                             SimulationClock clock, Statistics statistics) {
+        if (ringChannels) {
+            return new RingChannel<>(name, capacity, producers, singleWriter, getEffectiveWaitStrategy(clock), 
+                                     clock, statistics);
+        }
+        return new QueueChannel<>(name, capacity, producers, clock, statistics);
+    }
+
+    // Headless runs have no console, so a console log is switched off there
+    public EventLog createEventLog(SimulationClock clock, PrintStream console) throws IOException {
+        EventSink sink;
+        if (logTarget.equals("off") || (logTarget.equals("console") && headless)) {
+            return EventLog.disabled();
+        } else if (logTarget.equals("console")) {
+            sink = TextEventSink.console(console);
+        } else if (logTarget.startsWith("text:")) {
+            sink = TextEventSink.file(Paths.get(logTarget.substring(5)));
+        } else {
+            sink = new BinaryEventSink(Paths.get(logTarget.substring(7)));
+        }
+        return new EventLog(sink, logLevel, clock);
+    }
+
+    // One facility's event log in a sharded run: a log file gets the facility number before its extension
+    public EventLog createEventLog(SimulationClock clock, PrintStream console, int shard) throws IOException {
+        int colon = logTarget.indexOf(':');
+        if (colon < 0) return createEventLog(clock, console);
+        String path = logTarget.substring(colon + 1);
+        int dot = path.lastIndexOf('.');
+        int slash = Math.max(path.lastIndexOf('/'), path.lastIndexOf('\\'));
+        String suffix = "-facility" + shard;
+        path = dot > slash ? path.substring(0, dot) + suffix + path.substring(dot) : path + suffix;
+        Path file = Paths.get(path);
+        EventSink sink = logTarget.startsWith("text:") ? TextEventSink.file(file) : new BinaryEventSink(file);
+        return new EventLog(sink, logLevel, clock);
+    }
+
+    // The journal to resume from with --recover, otherwise null
+    public JournalReplay readJournal() throws IOException {
+        return recover ? JournalReplay.read(Paths.get(journalPath)) : null;
+    }
+
+    // Starts a new journal, or carries on after the replayed one
+    public OrderJournal createJournal(SimulationClock clock, JournalReplay replay) throws IOException {
+        if (journalPath == null) {
+            return OrderJournal.disabled();
+        } else if (replay != null) {
+            return OrderJournal.resume(Paths.get(journalPath), replay, journalSyncMillis, clock);
+        }
+        return OrderJournal.create(Paths.get(journalPath), journalSyncMillis, clock);
+    }
+
+    public RemoteHandOff createRemoteHandOff() {
+        if (processRole == RemoteHandOff.Role.SINGLE) return RemoteHandOff.disabled();
+        return new RemoteHandOff(processRole, split, OrderWire.parseAddress(remoteAddress), remoteBatch, remoteLinger);
+    }
+
+    public LoaderFleet createLoaderFleet(SimulationClock clock) {
+        return new LoaderFleet(loaders, standbyLoaders, getMinLoaders(), loaderFailureRate, loaderServiceAt, clock);
+    }
+
+    public LoaderWorkQueues createLoaderWorkQueues(StageSource<Container> containerQueue, int loaderCount) {
+        return new LoaderWorkQueues(containerQueue, loaderCount, loaderStealing, loaderClaim);
+    }
+
+    public TruckDispatcher createTruckDispatcher() {
+        return new TruckDispatcher(dispatchPolicy, Truck.MAX_CAPACITY, truckMaxDwell, truckMinFill, zones);
+    }
+
+    public OrderReportStore createReportStore(SimulationClock clock) throws IOException {
+        if (reportStoreDirectory == null) return OrderReportStore.disabled();
+        return OrderReportStore.create(Paths.get(reportStoreDirectory), totalOrders, clock);
+    }
+
+    public int getTotalOrders() { return totalOrders; }
+    public int getPickers() { return pickers; }
+    public int getMinPickers() { return minPickers == 0 ? pickers : minPickers; }
+    public int getMaxPickers() { return maxPickers == 0 ? pickers : maxPickers; }
+    public int getPickingSlots() { return pickingSlots; }
+    public long getPickerLatencyTarget() { return pickerLatencyTarget; }
+    public int getIntakeBatch() { return intakeBatch; }
+    public int getPickWave() { return pickWave; }
+    public int getLoaders() { return loaders; }
+    public int getLoadingBays() { return loadingBays; }
+    public int getStandbyLoaders() { return standbyLoaders; }
+    public int getMinLoaders() { return minLoaders == 0 ? loaders : minLoaders; }
+    public double getLoaderFailureRate() { return loaderFailureRate; }
+    public double getLoaderServiceAt() { return loaderServiceAt; }
+    public boolean isLoaderStealing() { return loaderStealing; }
+    public int getLoaderClaim() { return loaderClaim; }
+    public BaySelection getBaySelection() { return baySelection; }
+    public int getTrucks() { return trucks; }
+    public int getTimeoutMinutes() { return timeoutMinutes; }
+    public int getZones() { return zones; }
+    public int getPackingLanes() { return packingLanes; }
+    public int getLabellingLanes() { return labellingLanes; }
+    public boolean isFifoLanes() { return fifoLanes; }
+
+    public DurationRange getIntakeInterval() { return intakeInterval; }
+    public DurationRange getPickTime() { return pickTime; }
+    public DurationRange getPackTime() { return packTime; }
+    public DurationRange getLabelTime() { return labelTime; }
+    public DurationRange getLoadTime() { return loadTime; }
+    public DurationRange getMaintenanceTime() { return maintenanceTime; }
+    public DurationRange getTruckArrivalGap() { return truckArrivalGap; }
+    public long getZoneFlushTimeout() { return zoneFlushTimeout; }
+    public DispatchPolicy getDispatchPolicy() { return dispatchPolicy; }
+    public long getTruckMaxDwell() { return truckMaxDwell; }
+    public int getTruckMinFill() { return truckMinFill; }
+
+    public int getIntakeQueueCapacity() { return intakeQueueCapacity; }
+    public int getPickingQueueCapacity() { return pickingQueueCapacity; }
+    public int getPackingQueueCapacity() { return packingQueueCapacity; }
+    public int getLabellingQueueCapacity() { return labellingQueueCapacity; }
+    public int getContainerQueueCapacity() { return containerQueueCapacity; }
+    public int getBayCapacity() { return bayCapacity; }
+
+    public double getTimeScale() { return timeScale; }
+    public boolean isHeadless() { return headless; }
+    public ExecutorMode getExecutorMode() { return executorMode; }
+    public boolean isRingChannels() { return ringChannels; }
+    public WaitStrategy getWaitStrategy() { return waitStrategy; }
+    public String getLogTarget() { return logTarget; }
+    public EventLevel getLogLevel() { return logLevel; }
+    public String getJournalPath() { return journalPath; }
+    public long getJournalSyncMillis() { return journalSyncMillis; }
+    public boolean isRecover() { return recover; }
+    public String getReportStoreDirectory() { return reportStoreDirectory; }
+    public int getMetricsPort() { return metricsPort; }
+    public int getShards() { return shards; }
+    public boolean isShardRouting() { return shardRouting; }
+    public RemoteHandOff.Role getProcessRole() { return processRole; }
+    public int getSplit() { return split; }
+    public String getRemoteAddress() { return remoteAddress; }
+    public int getRemoteBatch() { return remoteBatch; }
+    public long getRemoteLinger() { return remoteLinger; }
+
+    public void setTotalOrders(int totalOrders) { this.totalOrders = totalOrders; }
+    public void setPickers(int pickers) { this.pickers = pickers; }
+    public void setMinPickers(int minPickers) { this.minPickers = minPickers; }
+    public void setMaxPickers(int maxPickers) { this.maxPickers = maxPickers; }
+    public void setPickingSlots(int pickingSlots) { this.pickingSlots = pickingSlots; }
+    public void setPickerLatencyTarget(long target) { this.pickerLatencyTarget = target; }
+    public void setIntakeBatch(int intakeBatch) { this.intakeBatch = intakeBatch; }
+    public void setPickWave(int pickWave) { this.pickWave = pickWave; }
+    public void setLoaders(int loaders) { this.loaders = loaders; }
+    public void setLoadingBays(int loadingBays) { this.loadingBays = loadingBays; }
+    public void setStandbyLoaders(int standbyLoaders) { this.standbyLoaders = standbyLoaders; }
+    public void setMinLoaders(int minLoaders) { this.minLoaders = minLoaders; }
+    public void setLoaderFailureRate(double rate) { this.loaderFailureRate = rate; }
+    public void setLoaderServiceAt(double threshold) { this.loaderServiceAt = threshold; }
+    public void setLoaderStealing(boolean loaderStealing) { this.loaderStealing = loaderStealing; }
+    public void setLoaderClaim(int loaderClaim) { this.loaderClaim = loaderClaim; }
+    public void setBaySelection(BaySelection baySelection) { this.baySelection = baySelection; }
+    public void setTrucks(int trucks) { this.trucks = trucks; }
+    public void setTimeoutMinutes(int timeoutMinutes) { this.timeoutMinutes = timeoutMinutes; }
+    public void setZones(int zones) { this.zones = zones; }
+    public void setPackingLanes(int packingLanes) { this.packingLanes = packingLanes; }
+    public void setLabellingLanes(int labellingLanes) { this.labellingLanes = labellingLanes; }
+    public void setFifoLanes(boolean fifoLanes) { this.fifoLanes = fifoLanes; }
+
+    public void setIntakeInterval(DurationRange intakeInterval) { this.intakeInterval = intakeInterval; }
+    public void setPickTime(DurationRange pickTime) { this.pickTime = pickTime; }
+    public void setPackTime(DurationRange packTime) { this.packTime = packTime; }
+    public void setLabelTime(DurationRange labelTime) { this.labelTime = labelTime; }
+    public void setLoadTime(DurationRange loadTime) { this.loadTime = loadTime; }
+    public void setMaintenanceTime(DurationRange maintenanceTime) { this.maintenanceTime = maintenanceTime; }
+    public void setTruckArrivalGap(DurationRange truckArrivalGap) { this.truckArrivalGap = truckArrivalGap; }
+    public void setZoneFlushTimeout(long zoneFlushTimeout) { this.zoneFlushTimeout = zoneFlushTimeout; }
+    public void setDispatchPolicy(DispatchPolicy dispatchPolicy) { this.dispatchPolicy = dispatchPolicy; }
+    public void setTruckMaxDwell(long truckMaxDwell) { this.truckMaxDwell = truckMaxDwell; }
+    public void setTruckMinFill(int truckMinFill) { this.truckMinFill = truckMinFill; }
+
+    public void setIntakeQueueCapacity(int capacity) { this.intakeQueueCapacity = capacity; }
+    public void setPickingQueueCapacity(int capacity) { this.pickingQueueCapacity = capacity; }
+    public void setPackingQueueCapacity(int capacity) { this.packingQueueCapacity = capacity; }
+    public void setLabellingQueueCapacity(int capacity) { this.labellingQueueCapacity = capacity; }
+    public void setContainerQueueCapacity(int capacity) { this.containerQueueCapacity = capacity; }
+    public void setBayCapacity(int capacity) { this.bayCapacity = capacity; }
+
+    public void setTimeScale(double timeScale) { this.timeScale = timeScale; }
+    public void setHeadless(boolean headless) { this.headless = headless; }
+    public void setExecutorMode(ExecutorMode executorMode) { this.executorMode = executorMode; }
+    public void setRingChannels(boolean ringChannels) { this.ringChannels = ringChannels; }
+    public void setWaitStrategy(WaitStrategy waitStrategy) { this.waitStrategy = waitStrategy; }
+    public void setLogTarget(String logTarget) { this.logTarget = logTarget; }
+    public void setLogLevel(EventLevel logLevel) { this.logLevel = logLevel; }
+    public void setJournalPath(String journalPath) { this.journalPath = journalPath; }
+    public void setJournalSyncMillis(long syncMillis) { this.journalSyncMillis = syncMillis; }
+    public void setRecover(boolean recover) { this.recover = recover; }
+    public void setReportStoreDirectory(String directory) { this.reportStoreDirectory = directory; }
+    public void setMetricsPort(int metricsPort) { this.metricsPort = metricsPort; }
+    public void setShards(int shards) { this.shards = shards; }
+    public void setShardRouting(boolean shardRouting) { this.shardRouting = shardRouting; }
+    public void setProcessRole(RemoteHandOff.Role processRole) { this.processRole = processRole; }
+    public void setSplit(int split) { this.split = split; }
+    public void setRemoteAddress(String remoteAddress) { this.remoteAddress = remoteAddress; }
+    public void setRemoteBatch(int remoteBatch) { this.remoteBatch = remoteBatch; }
+    public void setRemoteLinger(long remoteLinger) { this.remoteLinger = remoteLinger; }
+}
@@ -6,118 +6,241 @@ package Main;
 
 
 // SortingArea.java
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Comparator;
+import java.util.PriorityQueue;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
+/*
+ * Sorts labelled boxes by regional zone. Every zone has its own batch and container, so each
+ * container that leaves holds a single zone. A zone whose oldest box has waited longer than
+ * the flush timeout is shipped part-full, so slow zones do not hold boxes back indefinitely.
+ */
 public class SortingArea implements Runnable {
-    private final BlockingQueue<Order> incomingOrders;
-    private final BlockingQueue<Container> outgoingContainers;
+    private final StageSource<Order> incomingOrders;
+    private final StageSink<Container> outgoingContainers;
     private final Statistics statistics;
-    private final OrderIntakeSystem orderIntake;
-    private final CopyOnWriteArrayList<Order> currentBatch;
+    private final SimulationClock clock;
+    private final AtomicInteger containersInSystem;
+    private final EventLog eventLog;
+    private final OrderJournal journal;
+    private final long zoneFlushTimeout; // 0 disables flush-on-timeout
+    private final ZoneAccumulator[] zones;
+    // Oldest first, stale marks skipped; a zone reopened on overflow can be older than marks already queued
+    private final PriorityQueue<OpenMark> openZones = new PriorityQueue<>(Comparator.comparingLong(mark -> mark.openedAt));
     private final AtomicInteger batchCounter = new AtomicInteger(1);
+    private final ReentrantLock sortLock = new ReentrantLock(); // Guards the zones; a lock, not a monitor, as put() blocks
     private static final int BATCH_SIZE = 6;
-    private static final int CONTAINER_CAPACITY = 30;
-    
-    public SortingArea(BlockingQueue<Order> incomingOrders, BlockingQueue<Container> outgoingContainers, 
-                      Statistics statistics, OrderIntakeSystem orderIntake) {
+
+    public SortingArea(StageSource<Order> incomingOrders, StageSink<Container> outgoingContainers,
+                      Statistics statistics, AtomicInteger containersInSystem, int zoneCount,
+                      long zoneFlushTimeout, SimulationClock clock, EventLog eventLog, OrderJournal journal) {
         this.incomingOrders = incomingOrders;
         this.outgoingContainers = outgoingContainers;
         this.statistics = statistics;
-        this.orderIntake = orderIntake;
-        this.currentBatch = new CopyOnWriteArrayList<>();
+        this.clock = clock;
+        this.containersInSystem = containersInSystem;
+        this.eventLog = eventLog;
+        this.journal = journal;
+        this.zoneFlushTimeout = zoneFlushTimeout;
+        this.zones = new ZoneAccumulator[zoneCount];
+        for (int i = 0; i < zoneCount; i++) {
+            zones[i] = new ZoneAccumulator(i);
+        }
     }
-    
+
     @Override
     public void run() {
-        Container currentContainer = new Container();
-        
         try {
-            while (orderIntake.isRunning() || !incomingOrders.isEmpty()) {
-                Order order = incomingOrders.poll();
+            while (true) {
+                // Wait for the next box, but no longer than the next zone deadline
+                long untilDeadline = flushExpiredZones(clock.currentTimeMillis());
+                Order order = untilDeadline < 0 ? incomingOrders.take() : incomingOrders.poll(untilDeadline);
                 if (order == null) {
-                    Thread.sleep(100);
+                    if (incomingOrders.isDrained()) break; // null from take/poll on a drained channel: end of stream
                     continue;
                 }
-                
+
                 if (order.isRejected()) continue;
-                
-                synchronized (this) {
-                    currentBatch.add(order);
-                    int batchNum = batchCounter.get();
-                    
-                    System.out.println("Sorter: Added Order #" + order.getOrderId() + 
-                                     " to Batch #" + batchNum + " (" + currentBatch.size() + "/" + BATCH_SIZE + 
-                                     ") (Thread: " + Thread.currentThread().getName() + ")");
-                    
-                    // When batch is full, add to container
-                    if (currentBatch.size() >= BATCH_SIZE) {
-                        System.out.println("Sorter: Batch #" + batchNum + " completed, loading into container (Thread: " + 
-                                         Thread.currentThread().getName() + ")");
-                        
-                        // Add batch to container
-                        for (Order batchOrder : currentBatch) {
-                            if (!currentContainer.addOrder(batchOrder)) {
-                                // Container is full, ship it and create new one
-                                outgoingContainers.offer(currentContainer);
-                                statistics.incrementContainersShipped();
-                                System.out.println("Sorter: Container #" + currentContainer.getContainerId() + 
-                                                 " full and ready for shipping (Thread: " + 
-                                                 Thread.currentThread().getName() + ")");
-                                
-                                currentContainer = new Container();
-                                currentContainer.addOrder(batchOrder);
-                            }
-                        }
-                        
-                        currentBatch.clear();
-                        batchCounter.incrementAndGet();
-                        
-                        // If container is full after adding batch, ship it
-                        if (currentContainer.isFull()) {
-                            outgoingContainers.offer(currentContainer);
-                            statistics.incrementContainersShipped();
-                            System.out.println("Sorter: Container #" + currentContainer.getContainerId() + 
-                                             " full and ready for shipping (Thread: " + 
-                                             Thread.currentThread().getName() + ")");
-                            currentContainer = new Container();
-                        }
-                    }
+
+                sortOrder(order);
+            }
+
+            flushFinalBatch();
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("SortingArea interrupted: " + e.getMessage());
+        } finally {
+            outgoingContainers.producerFinished();
+        }
+        eventLog.log(EventType.SORTER_STOPPED);
+    }
+
+    // Adds one labelled order to its zone's batch, moving full batches into the zone's container
+    void sortOrder(Order order) throws InterruptedException {
+        sortLock.lock();
+        try {
+            ZoneAccumulator zone = zones[order.getZone()];
+            long now = clock.currentTimeMillis();
+            if (zone.isEmpty()) {
+                open(zone, now);
+            }
+            if (zone.batch.isEmpty()) {
+                zone.batchNumber = batchCounter.getAndIncrement();
+                zone.batchStartedAt = now;
+            }
+            zone.batch.add(order);
+
+            eventLog.log(EventType.SORTED_TO_BATCH, order.getOrderId(), zone.zoneId, zone.batchNumber,
+                         zone.batch.size());
+
+            // When batch is full, add to container
+            if (zone.batch.size() >= BATCH_SIZE) {
+                eventLog.log(EventType.BATCH_COMPLETED, zone.batchNumber, zone.zoneId);
+                moveBatchToContainer(zone);
+
+                // If container is full after adding batch, ship it
+                if (zone.container.isFull()) {
+                    int containerId = zone.container.getContainerId();
+                    shipZoneContainer(zone);
+                    eventLog.log(EventType.CONTAINER_READY, containerId, zone.zoneId);
                 }
             }
-            
-            // Handle remaining orders in final batch
-            synchronized (this) {
-                if (!currentBatch.isEmpty()) {
-                    System.out.println("Sorter: Processing final batch with " + currentBatch.size() + 
-                                     " orders (Thread: " + Thread.currentThread().getName() + ")");
-                    
-                    for (Order order : currentBatch) {
-                        if (!currentContainer.addOrder(order)) {
-                            outgoingContainers.offer(currentContainer);
-                            statistics.incrementContainersShipped();
-                            currentContainer = new Container();
-                            currentContainer.addOrder(order);
-                        }
-                    }
+        } finally {
+            sortLock.unlock();
+        }
+    }
+
+    // Ships every zone whose oldest box has waited past the timeout; returns ms until the next deadline, or -1
+    long flushExpiredZones(long now) throws InterruptedException {
+        sortLock.lock();
+        try {
+            while (!openZones.isEmpty()) {
+                OpenMark mark = openZones.peek();
+                ZoneAccumulator zone = zones[mark.zoneId];
+                if (zone.generation != mark.generation) {
+                    openZones.poll(); // Zone shipped or reopened since this mark
+                    continue;
+                }
+                long deadline = zone.openedAt + zoneFlushTimeout;
+                if (deadline > now) {
+                    return deadline - now;
+                }
+                openZones.poll();
+
+                moveBatchToContainer(zone);
+                int containerId = zone.container.getContainerId();
+                int orderCount = zone.container.getOrderCount();
+                shipZoneContainer(zone);
+                statistics.incrementZoneFlushes();
+                eventLog.log(EventType.ZONE_FLUSHED, zone.zoneId, (int) (now - mark.openedAt), containerId, orderCount);
+            }
+            return -1;
+        } finally {
+            sortLock.unlock();
+        }
+    }
+
+    // Ships whatever is left once the stream has ended
+    void flushFinalBatch() throws InterruptedException {
+        sortLock.lock();
+        try {
+            for (ZoneAccumulator zone : zones) {
+                if (!zone.batch.isEmpty()) {
+                    eventLog.log(EventType.FINAL_BATCH, zone.batch.size(), zone.zoneId);
+                    moveBatchToContainer(zone);
                 }
-                
+
                 // Ship final container if it has orders
-                if (currentContainer.getOrderCount() > 0) {
-                    outgoingContainers.offer(currentContainer);
-                    statistics.incrementContainersShipped();
-                    System.out.println("Sorter: Final Container #" + currentContainer.getContainerId() + 
-                                     " shipped with " + currentContainer.getOrderCount() + " orders (Thread: " + 
-                                     Thread.currentThread().getName() + ")");
+                if (zone.container.getOrderCount() > 0) {
+                    int containerId = zone.container.getContainerId();
+                    int orderCount = zone.container.getOrderCount();
+                    shipZoneContainer(zone);
+                    eventLog.log(EventType.FINAL_CONTAINER, containerId, orderCount, zone.zoneId);
                 }
             }
-            
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            System.err.println("SortingArea interrupted: " + e.getMessage());
+        } finally {
+            sortLock.unlock();
+        }
+    }
+
+    private void moveBatchToContainer(ZoneAccumulator zone) throws InterruptedException {
+        for (int i = 0; i < zone.batch.size(); i++) {
+            Order batchOrder = zone.batch.get(i);
+            statistics.completeStage(Statistics.STAGE_SORTING, batchOrder, clock.currentTimeMillis());
+            if (!zone.container.addOrder(batchOrder)) {
+                // Container is full, ship it and carry on in a new one
+                int containerId = zone.container.getContainerId();
+                shipZoneContainer(zone);
+                eventLog.log(EventType.CONTAINER_READY, containerId, zone.zoneId);
+                open(zone, zone.batchStartedAt); // The rest of the batch has waited since its first box
+                zone.container.addOrder(batchOrder);
+            }
+            journal.record(JournalRecordType.SORTED, batchOrder.getOrderId(), zone.zoneId, 
+                           zone.container.getContainerId());
+        }
+        zone.batch.clear();
+    }
+
+    // Hands the zone's container to the loaders and starts an empty one; the zone stays open if boxes remain
+    private void shipZoneContainer(ZoneAccumulator zone) throws InterruptedException {
+        shipContainer(zone.container);
+        zone.container = new Container(zone.zoneId);
+        if (zone.batch.isEmpty()) {
+            zone.generation++; // Invalidates the zone's pending deadline
+        }
+    }
+
+    // since: when the oldest box the zone now holds arrived
+    private void open(ZoneAccumulator zone, long since) {
+        zone.generation++;
+        zone.openedAt = since;
+        if (zoneFlushTimeout > 0) {
+            openZones.add(new OpenMark(zone.zoneId, zone.generation, zone.openedAt));
+        }
+    }
+
+    private void shipContainer(Container container) throws InterruptedException {
+        long now = clock.currentTimeMillis();
+        for (int i = 0; i < container.getOrderCount(); i++) {
+            statistics.completeStage(Statistics.STAGE_CONTAINER, container.getOrder(i), now, 
+                                     container.getContainerId());
+        }
+        containersInSystem.incrementAndGet(); // Counted before hand-off so trucks never see it missing
+        outgoingContainers.put(container);
+        statistics.incrementContainersShipped();
+    }
+
+    // One zone's open batch and container
+    private static final class ZoneAccumulator {
+        final int zoneId;
+        final OrderBuffer batch = new OrderBuffer(BATCH_SIZE); // Reused for every batch of the zone
+        Container container;
+        int batchNumber;
+        long batchStartedAt; // When the open batch's first box arrived
+        long openedAt;      // When the zone's oldest unshipped box arrived
+        int generation;     // Bumped whenever the zone opens or empties
+
+        ZoneAccumulator(int zoneId) {
+            this.zoneId = zoneId;
+            this.container = new Container(zoneId);
+        }
+
+        boolean isEmpty() {
+            return batch.isEmpty() && container.getOrderCount() == 0;
+        }
+    }
+
+    private static final class OpenMark {
+        final int zoneId;
+        final int generation;
+        final long openedAt;
+
+        OpenMark(int zoneId, int generation, long openedAt) {
+            this.zoneId = zoneId;
+            this.generation = generation;
+            this.openedAt = openedAt;
         }
-        System.out.println("SortingArea: Shutting down (Thread: " + Thread.currentThread().getName() + ")");
     }
 }
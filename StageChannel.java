@@ -0,0 +1,9 @@
+package Main;
+
+
+// StageChannel.java
+
+// A hand-off between two stages in this process, used from both ends; a hand-off split across
+// processes has only one end here, a StageSink upstream or a StageSource downstream
+public interface StageChannel<T> extends StageSink<T>, StageSource<T> {
+}
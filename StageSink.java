@@ -0,0 +1,21 @@
+package Main;
+
+
+// StageSink.java
+import java.util.List;
+
+// Producer end of a stage hand-off: what a stage needs to pass its output on
+public interface StageSink<T> extends HandOffMetrics {
+    // Hands an item to the next stage, waiting while the channel is at capacity
+    void put(T item) throws InterruptedException;
+
+    // Hands over a whole batch, waiting for room as needed; implementations may do it in one hand-shake
+    default void putAll(List<? extends T> batch) throws InterruptedException {
+        for (T item : batch) {
+            put(item);
+        }
+    }
+
+    // Completion token: each registered producer calls this exactly once when it is done
+    void producerFinished();
+}
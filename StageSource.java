@@ -0,0 +1,30 @@
+package Main;
+
+
+// StageSource.java
+import java.util.Collection;
+
+// Consumer end of a stage hand-off: what a stage needs to take its input
+public interface StageSource<T> extends HandOffMetrics {
+    // Waits up to timeoutMillis; returns null on timeout or end of stream
+    T poll(long timeoutMillis) throws InterruptedException;
+
+    // Waits up to timeoutMillis for an item, then moves up to maxItems into sink; 0 on timeout or end of stream
+    default int drainTo(Collection<? super T> sink, int maxItems, long timeoutMillis) throws InterruptedException {
+        T item = poll(timeoutMillis);
+        if (item == null) return 0;
+        sink.add(item);
+        int drained = 1;
+        while (drained < maxItems && (item = poll(0)) != null) {
+            sink.add(item);
+            drained++;
+        }
+        return drained;
+    }
+
+    // Waits for the next item; returns null once every producer has finished and the channel is empty
+    T take() throws InterruptedException;
+
+    // True once all producers have finished and every item has been taken
+    boolean isDrained();
+}
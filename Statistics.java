@@ -3,91 +3,461 @@ package Main;
 
 
 // Statistics.java
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 public class Statistics {
-    private final AtomicInteger ordersProcessed = new AtomicInteger(0);
-    private final AtomicInteger ordersRejected = new AtomicInteger(0);
-    private final AtomicInteger boxesPacked = new AtomicInteger(0);
-    private final AtomicInteger containersShipped = new AtomicInteger(0);
-    private final AtomicInteger trucksDispatched = new AtomicInteger(0);
+    // Stage names used for busy-time accounting
+    public static final String STAGE_PICKING = "picking";
+    public static final String STAGE_PACKING = "packing";
+    public static final String STAGE_LABELLING = "labelling";
+    public static final String STAGE_LOADING = "loading";
+    
+    // Further hops an order passes through, used for per-stage latency
+    public static final String STAGE_INTAKE = "intake";
+    public static final String STAGE_SORTING = "sorting";     // Labelled until placed in a container
+    public static final String STAGE_CONTAINER = "container"; // In an open container until it ships
+    public static final String STAGE_TRUCK = "truck";         // In a loading bay until the truck departs
+    
+    // Pipeline order: intake -> pick -> pack -> label -> sort -> container -> bay (loading) -> truck
+    public static final String[] LATENCY_STAGES = {
+        STAGE_INTAKE, STAGE_PICKING, STAGE_PACKING, STAGE_LABELLING,
+        STAGE_SORTING, STAGE_CONTAINER, STAGE_LOADING, STAGE_TRUCK
+    };
     
-    private final AtomicLong totalLoadingTime = new AtomicLong(0);
-    private final AtomicLong totalWaitTime = new AtomicLong(0);
-    private final AtomicLong minLoadingTime = new AtomicLong(Long.MAX_VALUE);
-    private final AtomicLong maxLoadingTime = new AtomicLong(0);
-    private final AtomicLong minWaitTime = new AtomicLong(Long.MAX_VALUE);
-    private final AtomicLong maxWaitTime = new AtomicLong(0);
+    // Striped counters: every stage thread updates these, so each thread gets its own cell
+    private final LongAdder ordersProcessed = new LongAdder();
+    private final LongAdder ordersRejected = new LongAdder();
+    private final LongAdder boxesPacked = new LongAdder();
+    private final LongAdder containersShipped = new LongAdder();
+    private final LongAdder zoneFlushes = new LongAdder(); // Containers shipped part-full by the zone timeout
+    private final LongAdder trucksDispatched = new LongAdder();
+    private final LongAdder pickerScaleUps = new LongAdder();
+    private final LongAdder pickerScaleDowns = new LongAdder();
+    private final AtomicInteger peakPickers = new AtomicInteger();
     
-    private final ConcurrentHashMap<String, AtomicInteger> rejectionReasons = new ConcurrentHashMap<>();
+    private final LongAdder truckContainers = new LongAdder();
+    private final LongAdder[] truckDepartures = new LongAdder[DepartureReason.values().length]; // By ordinal
+    private final LatencyHistogram loadingTime = new LatencyHistogram();
+    private final LatencyHistogram waitTime = new LatencyHistogram();
+    private final LongAdder totalBayBusyTime = new LongAdder();
+    private final LongAdder totalBayTime = new LongAdder();
+    
+    private final ConcurrentHashMap<String, LongAdder> stageBusyTime = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, ConcurrentSkipListMap<Integer, LaneCounters>> laneWork = 
+            new ConcurrentHashMap<>(); // Stage -> lane id -> counters, for multi-lane stations
+    private final LatencyHistogram orderLatency = new LatencyHistogram(); // Creation to truck departure
+    private final Map<String, LatencyHistogram> stageLatency;
+    
+    private final LongAdder[] rejectionReasons = new LongAdder[RejectionReason.values().length]; // By ordinal
+    private final ConcurrentHashMap<String, LongAdder> backpressurePauses = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongAdder> backpressureResumes = new ConcurrentHashMap<>();
+    private final Map<String, Integer> stageIndex = new HashMap<>(); // Position in LATENCY_STAGES
+    private volatile OrderReportStore reportStore = OrderReportStore.disabled(); // Per-order detail, if kept
+    
+    public Statistics() {
+        Map<String, LatencyHistogram> histograms = new LinkedHashMap<>();
+        for (String stage : LATENCY_STAGES) {
+            histograms.put(stage, new LatencyHistogram());
+        }
+        this.stageLatency = Collections.unmodifiableMap(histograms);
+        for (int i = 0; i < LATENCY_STAGES.length; i++) {
+            stageIndex.put(LATENCY_STAGES[i], i);
+        }
+        for (int i = 0; i < rejectionReasons.length; i++) {
+            rejectionReasons[i] = new LongAdder();
+        }
+        for (int i = 0; i < truckDepartures.length; i++) {
+            truckDepartures[i] = new LongAdder();
+        }
+    }
     
     // Increment methods
-    public void incrementOrdersProcessed() { ordersProcessed.incrementAndGet(); }
-    public void incrementOrdersRejected() { ordersRejected.incrementAndGet(); }
-    public void incrementBoxesPacked() { boxesPacked.incrementAndGet(); }
-    public void incrementContainersShipped() { containersShipped.incrementAndGet(); }
-    public void incrementTrucksDispatched() { trucksDispatched.incrementAndGet(); }
-    
-    public void addRejection(String reason) {
-        rejectionReasons.computeIfAbsent(reason, k -> new AtomicInteger(0)).incrementAndGet();
+    public void incrementOrdersProcessed() { ordersProcessed.increment(); }
+    public void incrementOrdersRejected() { ordersRejected.increment(); }
+    public void incrementBoxesPacked() { boxesPacked.increment(); }
+    public void incrementContainersShipped() { containersShipped.increment(); }
+    public void incrementTrucksDispatched() { trucksDispatched.increment(); }
+    public void incrementZoneFlushes() { zoneFlushes.increment(); }
+    
+    public void addRejection(RejectionReason reason) {
+        rejectionReasons[reason.ordinal()].increment();
         incrementOrdersRejected();
     }
     
+    // Totals the upstream process of a split facility counted, sent with the end of its hand-off
+    public void addUpstreamTotals(long processed, long packed, long[] rejections) {
+        ordersProcessed.add(processed);
+        boxesPacked.add(packed);
+        for (int i = 0; i < rejections.length; i++) {
+            rejectionReasons[i].add(rejections[i]);
+            ordersRejected.add(rejections[i]);
+        }
+    }
+    
+    public void addRejection(RejectionReason reason, Order order, long now) {
+        addRejection(reason);
+        reportStore.recordRejection(order, reason, now);
+    }
+    
+    // Set before the stages start; every later completion is written to the store
+    public void setReportStore(OrderReportStore reportStore) {
+        this.reportStore = reportStore;
+    }
+    
+    public void recordPickerScale(boolean up) {
+        (up ? pickerScaleUps : pickerScaleDowns).increment();
+    }
+    
+    public void recordActivePickers(int pickers) {
+        peakPickers.accumulateAndGet(pickers, Math::max);
+    }
+    
+    public void recordBackpressurePause(String point) {
+        backpressurePauses.computeIfAbsent(point, k -> new LongAdder()).increment();
+    }
+    
+    public void recordBackpressureResume(String point) {
+        backpressureResumes.computeIfAbsent(point, k -> new LongAdder()).increment();
+    }
+    
+    public void recordTruckDeparture(int containers, DepartureReason reason) {
+        truckContainers.add(containers);
+        truckDepartures[reason.ordinal()].increment();
+    }
+    
     public void recordLoadingTime(long time) {
-        totalLoadingTime.addAndGet(time);
-        updateMinMax(time, minLoadingTime, maxLoadingTime);
+        loadingTime.record(time);
     }
     
     public void recordWaitTime(long time) {
-        totalWaitTime.addAndGet(time);
-        updateMinMax(time, minWaitTime, maxWaitTime);
+        waitTime.record(time);
+    }
+    
+    public void recordBayBusyTime(long time) {
+        totalBayBusyTime.add(time);
+    }
+    
+    // Total bay time available over the run (number of bays x elapsed time)
+    public void recordBayTime(long time) {
+        totalBayTime.add(time);
+    }
+    
+    public void recordStageBusyTime(String stage, long time) {
+        stageBusyTime.computeIfAbsent(stage, k -> new LongAdder()).add(time);
+    }
+    
+    // One order handled by a lane of a multi-lane station, accepted or rejected
+    public void recordLaneWork(String stage, int lane, long time) {
+        LaneCounters counters = laneWork.computeIfAbsent(stage, k -> new ConcurrentSkipListMap<>())
+                                        .computeIfAbsent(lane, k -> new LaneCounters());
+        counters.orders.increment();
+        counters.busyTime.add(time);
+    }
+    
+    public void recordOrderLatency(long time) {
+        orderLatency.record(time);
+    }
+    
+    // The order leaves a stage: records its stage latency and, with a report store, its completion time
+    public void completeStage(String stage, Order order, long now) {
+        completeStage(stage, order, now, 0);
+    }
+    
+    // location: the container, bay or truck for the container, loading and truck stages
+    public void completeStage(String stage, Order order, long now, int location) {
+        recordStageLatency(stage, order.completeStage(now));
+        if (reportStore.isEnabled()) {
+            reportStore.recordStage(order, stageIndex.get(stage), now, location);
+        }
     }
     
-    private void updateMinMax(long time, AtomicLong min, AtomicLong max) {
-        min.updateAndGet(current -> Math.min(current, time));
-        max.updateAndGet(current -> Math.max(current, time));
+    // Time one order spent in a stage, from leaving the previous stage to leaving this one
+    public void recordStageLatency(String stage, long time) {
+        LatencyHistogram histogram = stageLatency.get(stage);
+        if (histogram == null) {
+            throw new IllegalArgumentException("Unknown latency stage: " + stage);
+        }
+        histogram.record(time);
+    }
+    
+    // Adds another facility's totals to these. Every counter is an atomic add, so facilities can be
+    // merged into one Statistics from several threads without a lock; peaks are summed
+    public void add(Statistics other) {
+        ordersProcessed.add(other.ordersProcessed.sum());
+        ordersRejected.add(other.ordersRejected.sum());
+        boxesPacked.add(other.boxesPacked.sum());
+        containersShipped.add(other.containersShipped.sum());
+        zoneFlushes.add(other.zoneFlushes.sum());
+        trucksDispatched.add(other.trucksDispatched.sum());
+        pickerScaleUps.add(other.pickerScaleUps.sum());
+        pickerScaleDowns.add(other.pickerScaleDowns.sum());
+        peakPickers.addAndGet(other.peakPickers.get());
+        truckContainers.add(other.truckContainers.sum());
+        totalBayBusyTime.add(other.totalBayBusyTime.sum());
+        totalBayTime.add(other.totalBayTime.sum());
+        loadingTime.add(other.loadingTime.snapshot());
+        waitTime.add(other.waitTime.snapshot());
+        orderLatency.add(other.orderLatency.snapshot());
+        other.stageLatency.forEach((stage, histogram) -> stageLatency.get(stage).add(histogram.snapshot()));
+        for (int i = 0; i < rejectionReasons.length; i++) {
+            rejectionReasons[i].add(other.rejectionReasons[i].sum());
+        }
+        for (int i = 0; i < truckDepartures.length; i++) {
+            truckDepartures[i].add(other.truckDepartures[i].sum());
+        }
+        addAll(stageBusyTime, other.stageBusyTime);
+        addAll(backpressurePauses, other.backpressurePauses);
+        addAll(backpressureResumes, other.backpressureResumes);
+        other.laneWork.forEach((stage, lanes) -> lanes.forEach((lane, counters) -> {
+            LaneCounters merged = laneWork.computeIfAbsent(stage, k -> new ConcurrentSkipListMap<>())
+                                          .computeIfAbsent(lane, k -> new LaneCounters());
+            merged.orders.add(counters.orders.sum());
+            merged.busyTime.add(counters.busyTime.sum());
+        }));
+    }
+    
+    private static void addAll(ConcurrentHashMap<String, LongAdder> into, Map<String, LongAdder> from) {
+        from.forEach((key, count) -> into.computeIfAbsent(key, k -> new LongAdder()).add(count.sum()));
     }
     
     // Getter methods
-    public int getOrdersProcessed() { return ordersProcessed.get(); }
-    public int getOrdersRejected() { return ordersRejected.get(); }
-    public int getBoxesPacked() { return boxesPacked.get(); }
-    public int getContainersShipped() { return containersShipped.get(); }
-    public int getTrucksDispatched() { return trucksDispatched.get(); }
+    public int getOrdersProcessed() { return ordersProcessed.intValue(); }
+    public int getOrdersRejected() { return ordersRejected.intValue(); }
+    public int getBoxesPacked() { return boxesPacked.intValue(); }
+    public int getContainersShipped() { return containersShipped.intValue(); }
+    public int getTrucksDispatched() { return trucksDispatched.intValue(); }
+    public int getZoneFlushes() { return zoneFlushes.intValue(); }
+    public int getPickerScaleUps() { return pickerScaleUps.intValue(); }
+    public int getPickerScaleDowns() { return pickerScaleDowns.intValue(); }
+    public int getPeakPickers() { return peakPickers.get(); }
+    public int getRejections(RejectionReason reason) { return rejectionReasons[reason.ordinal()].intValue(); }
+    public int getOrdersDelivered() { return (int) orderLatency.snapshot().getCount(); }
+    public long getOrderLatencyPercentile(double percentile) { return orderLatency.snapshot().percentile(percentile); }
+    public LatencySnapshot getOrderLatency() { return orderLatency.snapshot(); }
+    public LatencySnapshot getStageLatency(String stage) { return stageLatency.get(stage).snapshot(); }
+    
+    // Cumulative per-stage latency, in pipeline order
+    public Map<String, LatencySnapshot> snapshotStageLatency() {
+        Map<String, LatencySnapshot> snapshots = new LinkedHashMap<>();
+        stageLatency.forEach((stage, histogram) -> snapshots.put(stage, histogram.snapshot()));
+        return snapshots;
+    }
+    
+    // Per-stage latency since the previous call; recording carries on and the totals are kept
+    public Map<String, LatencySnapshot> intervalStageLatency() {
+        Map<String, LatencySnapshot> snapshots = new LinkedHashMap<>();
+        stageLatency.forEach((stage, histogram) -> snapshots.put(stage, histogram.intervalSnapshot()));
+        return snapshots;
+    }
+    
+    public long getStageBusyTime(String stage) {
+        LongAdder busy = stageBusyTime.get(stage);
+        return busy == null ? 0 : busy.sum();
+    }
+    
+    public long getLaneOrders(String stage, int lane) {
+        LaneCounters counters = laneCounters(stage, lane);
+        return counters == null ? 0 : counters.orders.sum();
+    }
+    
+    public long getLaneBusyTime(String stage, int lane) {
+        LaneCounters counters = laneCounters(stage, lane);
+        return counters == null ? 0 : counters.busyTime.sum();
+    }
+    
+    private LaneCounters laneCounters(String stage, int lane) {
+        Map<Integer, LaneCounters> lanes = laneWork.get(stage);
+        return lanes == null ? null : lanes.get(lane);
+    }
+    
+    // Mean truck arrival to departure
+    public long getAverageLoadingTime() {
+        return loadingTime.snapshot().getMean();
+    }
+    
+    // Over the trucks dispatched in this run (a recovered day also counts trucks that left before the crash)
+    public double getAverageTruckLoad() {
+        long trucks = 0;
+        for (LongAdder departures : truckDepartures) {
+            trucks += departures.sum();
+        }
+        return trucks == 0 ? 0.0 : (double) truckContainers.sum() / trucks;
+    }
+    
+    public long getTruckDepartures(DepartureReason reason) {
+        return truckDepartures[reason.ordinal()].sum();
+    }
+    
+    public double getBayUtilization() {
+        long bayTime = totalBayTime.sum();
+        return bayTime == 0 ? 0.0 : (double) totalBayBusyTime.sum() / bayTime;
+    }
+    
+    // Counters and histograms for the metrics endpoint
+    public void writeMetrics(PrometheusWriter metrics) {
+        metrics.counter("swiftcart_orders_processed_total", "Orders verified and accepted at intake")
+               .sample("swiftcart_orders_processed_total", ordersProcessed.sum());
+        metrics.counter("swiftcart_orders_rejected_total", "Orders rejected at any stage");
+        for (RejectionReason reason : RejectionReason.values()) {
+            metrics.sample("swiftcart_orders_rejected_total", rejectionReasons[reason.ordinal()].sum(), 
+                           "reason", reason.name().toLowerCase(Locale.ROOT));
+        }
+        metrics.counter("swiftcart_boxes_packed_total", "Orders packed into shipping boxes")
+               .sample("swiftcart_boxes_packed_total", boxesPacked.sum());
+        metrics.counter("swiftcart_containers_shipped_total", "Containers handed to the loaders")
+               .sample("swiftcart_containers_shipped_total", containersShipped.sum());
+        metrics.counter("swiftcart_zone_flushes_total", "Containers shipped part-full by the zone flush timeout")
+               .sample("swiftcart_zone_flushes_total", zoneFlushes.sum());
+        metrics.counter("swiftcart_trucks_dispatched_total", "Trucks that have departed")
+               .sample("swiftcart_trucks_dispatched_total", trucksDispatched.sum());
+        
+        metrics.counter("swiftcart_picker_scale_events_total", "Times the adaptive picker pool grew or shrank")
+               .sample("swiftcart_picker_scale_events_total", pickerScaleUps.sum(), "direction", "up")
+               .sample("swiftcart_picker_scale_events_total", pickerScaleDowns.sum(), "direction", "down");
+        
+        metrics.counter("swiftcart_stage_busy_milliseconds_total", "Simulated time spent working, per stage");
+        for (String stage : new String[] { STAGE_PICKING, STAGE_PACKING, STAGE_LABELLING, STAGE_LOADING }) {
+            metrics.sample("swiftcart_stage_busy_milliseconds_total", getStageBusyTime(stage), "stage", stage);
+        }
+        metrics.counter("swiftcart_lane_orders_total", "Orders handled per lane of a multi-lane station");
+        laneWork.forEach((stage, lanes) -> lanes.forEach((lane, counters) -> 
+            metrics.sample("swiftcart_lane_orders_total", counters.orders.sum(), 
+                           "stage", stage, "lane", Integer.toString(lane))));
+        metrics.counter("swiftcart_lane_busy_milliseconds_total", "Simulated time spent working per station lane");
+        laneWork.forEach((stage, lanes) -> lanes.forEach((lane, counters) -> 
+            metrics.sample("swiftcart_lane_busy_milliseconds_total", counters.busyTime.sum(), 
+                           "stage", stage, "lane", Integer.toString(lane))));
+        metrics.counter("swiftcart_bay_busy_milliseconds_total", "Simulated time loaders spent in a bay")
+               .sample("swiftcart_bay_busy_milliseconds_total", totalBayBusyTime.sum());
+        
+        metrics.counter("swiftcart_backpressure_pauses_total", "Times a producer was held by backpressure");
+        backpressurePauses.forEach((point, count) -> 
+            metrics.sample("swiftcart_backpressure_pauses_total", count.sum(), "point", point));
+        
+        metrics.summary("swiftcart_order_latency_milliseconds", "Order creation to truck departure")
+               .summarySamples("swiftcart_order_latency_milliseconds", orderLatency.snapshot());
+        metrics.summary("swiftcart_stage_latency_milliseconds", "Time an order spent in each stage");
+        stageLatency.forEach((stage, histogram) -> 
+            metrics.summarySamples("swiftcart_stage_latency_milliseconds", histogram.snapshot(), "stage", stage));
+        metrics.summary("swiftcart_truck_loading_milliseconds", "Truck arrival to departure")
+               .summarySamples("swiftcart_truck_loading_milliseconds", loadingTime.snapshot());
+        metrics.summary("swiftcart_truck_wait_milliseconds", "Time trucks spent waiting for containers")
+               .summarySamples("swiftcart_truck_wait_milliseconds", waitTime.snapshot());
+    }
     
     public void printFinalReport() {
+        printFinalReport(() -> { });
+    }
+    
+    // sections: the caller's own report sections, printed after these and before the closing status line
+    public void printFinalReport(Runnable sections) {
         System.out.println("\n" + "=".repeat(80));
         System.out.println("SWIFTCART E-COMMERCE CENTRE - FINAL STATISTICS REPORT");
         System.out.println("=".repeat(80));
         
         System.out.println("PROCESSING SUMMARY:");
-        System.out.println("  Total Orders Received: " + (ordersProcessed.get() + ordersRejected.get()));
-        System.out.println("  Orders Successfully Processed: " + ordersProcessed.get());
-        System.out.println("  Orders Rejected: " + ordersRejected.get());
-        System.out.println("  Boxes Packed: " + boxesPacked.get());
-        System.out.println("  Containers Shipped: " + containersShipped.get());
-        System.out.println("  Trucks Dispatched: " + trucksDispatched.get());
+        System.out.println("  Total Orders Received: " + (ordersProcessed.sum() + ordersRejected.sum()));
+        System.out.println("  Orders Successfully Processed: " + ordersProcessed.sum());
+        System.out.println("  Orders Rejected: " + ordersRejected.sum());
+        System.out.println("  Boxes Packed: " + boxesPacked.sum());
+        System.out.println("  Containers Shipped: " + containersShipped.sum() + 
+                         " (" + zoneFlushes.sum() + " part-full on zone timeout)");
+        System.out.println("  Trucks Dispatched: " + trucksDispatched.sum());
         
-        if (trucksDispatched.get() > 0) {
+        if (trucksDispatched.sum() > 0) {
             System.out.println("\nTRUCK PERFORMANCE METRICS:");
-            long avgLoadingTime = totalLoadingTime.get() / trucksDispatched.get();
-            long avgWaitTime = totalWaitTime.get() / trucksDispatched.get();
+            LatencySnapshot loading = loadingTime.snapshot();
+            LatencySnapshot waiting = waitTime.snapshot();
+            
+            System.out.println("  Loading Time - Min: " + loading.getMin() + "ms, Max: " + 
+                             loading.getMax() + "ms, Avg: " + loading.getMean() + "ms, p95: " + 
+                             loading.percentile(95) + "ms");
+            System.out.println("  Wait Time - Min: " + waiting.getMin() + "ms, Max: " + 
+                             waiting.getMax() + "ms, Avg: " + waiting.getMean() + "ms, p95: " + 
+                             waiting.percentile(95) + "ms");
+            System.out.printf(Locale.ROOT, "  Average Load: %.1f of %d containers | Departures - full: %d, dwell: %d, " + 
+                            "zones complete: %d, no more containers: %d%n", getAverageTruckLoad(), 
+                            Truck.MAX_CAPACITY, getTruckDepartures(DepartureReason.FULL), 
+                            getTruckDepartures(DepartureReason.DWELL), 
+                            getTruckDepartures(DepartureReason.ZONES), 
+                            getTruckDepartures(DepartureReason.DRAINED));
+        }
+        
+        if (totalBayTime.sum() > 0) {
+            System.out.printf(Locale.ROOT, "  Bay Utilization: %.1f%% (%dms busy of %dms)%n", 
+                            100.0 * totalBayBusyTime.sum() / totalBayTime.sum(), 
+                            totalBayBusyTime.sum(), totalBayTime.sum());
+        }
+        
+        LatencySnapshot delivered = orderLatency.snapshot();
+        if (delivered.getCount() > 0) {
+            System.out.println("\nORDER LATENCY (creation to truck departure):");
+            System.out.println("  Orders Delivered: " + delivered.getCount());
+            System.out.println("  p50: " + delivered.percentile(50) + "ms, p95: " + 
+                             delivered.percentile(95) + "ms, p99: " + delivered.percentile(99) + 
+                             "ms, max: " + delivered.getMax() + "ms");
             
-            System.out.println("  Loading Time - Min: " + minLoadingTime.get() + "ms, Max: " + 
-                             maxLoadingTime.get() + "ms, Avg: " + avgLoadingTime + "ms");
-            System.out.println("  Wait Time - Min: " + minWaitTime.get() + "ms, Max: " + 
-                             maxWaitTime.get() + "ms, Avg: " + avgWaitTime + "ms");
+            System.out.println("\nSTAGE LATENCY (per order, leaving previous stage to leaving this one):");
+            stageLatency.forEach((stage, histogram) -> {
+                LatencySnapshot latency = histogram.snapshot();
+                System.out.printf(Locale.ROOT, "  %-10s count: %6d | p50: %8dms | p95: %8dms | p99: %8dms | max: %8dms%n", 
+                                stage, latency.getCount(), latency.percentile(50), latency.percentile(95), 
+                                latency.percentile(99), latency.getMax());
+            });
+        }
+        
+        if (pickerScaleUps.sum() + pickerScaleDowns.sum() > 0) {
+            System.out.println("\nPICKER POOL:");
+            System.out.println("  Scale-ups: " + pickerScaleUps.sum() + ", Scale-downs: " + pickerScaleDowns.sum() + 
+                             ", Peak Workers: " + peakPickers.get());
+        }
+        
+        if (!laneWork.isEmpty()) {
+            System.out.println("\nSTATION LANES:");
+            for (String stage : new String[] { STAGE_PACKING, STAGE_LABELLING }) {
+                Map<Integer, LaneCounters> lanes = laneWork.get(stage);
+                if (lanes == null) continue;
+                lanes.forEach((lane, counters) -> 
+                    System.out.printf(Locale.ROOT, "  %-10s lane %2d | orders: %6d | busy: %9dms%n", 
+                                    stage, lane, counters.orders.sum(), counters.busyTime.sum()));
+            }
         }
         
-        if (!rejectionReasons.isEmpty()) {
+        if (ordersRejected.sum() > 0) {
             System.out.println("\nREJECTION BREAKDOWN:");
-            rejectionReasons.forEach((reason, count) -> 
-                System.out.println("  " + reason + ": " + count.get()));
+            for (RejectionReason reason : RejectionReason.values()) {
+                long count = rejectionReasons[reason.ordinal()].sum();
+                if (count > 0) {
+                    System.out.println("  " + reason.getDescription() + ": " + count);
+                }
+            }
+        }
+        
+        if (!backpressurePauses.isEmpty()) {
+            System.out.println("\nBACKPRESSURE EVENTS:");
+            backpressurePauses.forEach((point, count) -> {
+                LongAdder resumes = backpressureResumes.get(point);
+                System.out.println("  " + point + ": paused " + count.sum() + ", resumed " + 
+                                 (resumes == null ? 0 : resumes.sum()));
+            });
         }
         
+        sections.run();
+        
         System.out.println("\nSYSTEM STATUS: All operations completed successfully");
         System.out.println("=".repeat(80));
     }
+    
+    private static final class LaneCounters {
+        final LongAdder orders = new LongAdder();
+        final LongAdder busyTime = new LongAdder();
+    }
 }
@@ -2,115 +2,653 @@
 package Main;
 
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.UnresolvedAddressException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntSupplier;
 
 public class SwiftCartSimulation {
-    // Configuration constants
-    private static final int TOTAL_ORDERS = 600;
-    private static final int NUM_LOADERS = 3;
-    private static final int NUM_LOADING_BAYS = 2;
-    private static final int NUM_TRUCKS = 10;
-    private static final int SIMULATION_TIMEOUT_MINUTES = 5;
+    // Configuration (defaults match the 600-order day; see SimulationConfig.USAGE)
+    private final SimulationConfig config;
 
     // Shared resources
-    private final BlockingQueue<Order> orderIntakeQueue = new LinkedBlockingQueue<>();
-    private final BlockingQueue<Order> pickingQueue = new LinkedBlockingQueue<>();
-    private final BlockingQueue<Order> packingQueue = new LinkedBlockingQueue<>();
-    private final BlockingQueue<Order> labellingQueue = new LinkedBlockingQueue<>();
-    private final BlockingQueue<Container> containerQueue = new LinkedBlockingQueue<>();
+    private final StageChannel<Order> orderIntakeQueue;
+    private final StageChannel<Order> pickingQueue;
+    private final StageChannel<Order> packingQueue;
+    private final StageChannel<Order> labellingQueue;
+    private final StageChannel<Container> containerQueue;
     
     // System components
     private final Statistics statistics = new Statistics();
-    private final LoadingBay[] loadingBays = new LoadingBay[NUM_LOADING_BAYS];
+    private final LoadingBay[] loadingBays;
     private final AtomicInteger activeTrucks = new AtomicInteger(0);
     private final AtomicInteger containersCreated = new AtomicInteger(0);
+    private final BackpressureGate bayOccupancy;
+    private final BayScheduler bayScheduler;
+    private final TruckDispatcher truckDispatcher;
+    private final LoaderFleet loaderFleet;
+    private final LoaderWorkQueues loaderWork;
+    private final SimulationClock clock;
+    private final EventLog eventLog;
+    private final OrderJournal journal;
+    private final JournalReplay replay; // Null unless resuming a journal
+    private final ClockSemaphore pickingSlots;
+    private final PickerPool pickerPool;
+    private final ExecutorMode executorMode;
+    private final List<AutonomousLoader> loaders = new CopyOnWriteArrayList<>();
+    private final ShardRouter router;
+    private final int shard;                          // Facility number in a sharded run, else 1
+    private final RemoteHandOff remote;               // The other process of a split facility, if any
+    private final ReentrantLock truckLock = new ReentrantLock(); // Borrowed trucks only start while running
+    private ExecutorService truckExecutor;
+    private int borrowedTrucks;
     private volatile boolean simulationRunning = true;
+    private long simulatedMillis;
+    private long wallClockMillis;
+    private int peakThreads; // Platform threads only; virtual threads are not counted
+
+    public SwiftCartSimulation() throws IOException {
+        this(new RealTimeClock(), new SimulationConfig());
+    }
+
+    public SwiftCartSimulation(SimulationClock clock, SimulationConfig config) throws IOException {
+        this(clock, config, config.readJournal());
+    }
+
+    private SwiftCartSimulation(SimulationClock clock, SimulationConfig config, JournalReplay replay) 
+            throws IOException {
+        this(clock, config, config.createEventLog(clock, System.out), config.createJournal(clock, replay), replay);
+    }
+
+    public SwiftCartSimulation(SimulationClock clock, SimulationConfig config, EventLog eventLog) {
+        this(clock, config, eventLog, OrderJournal.disabled(), null);
+    }
+
+    public SwiftCartSimulation(SimulationClock clock, SimulationConfig config, EventLog eventLog, 
+                               OrderJournal journal, JournalReplay replay) {
+        this(clock, config, eventLog, journal, replay, ShardRouter.disabled(), 1);
+    }
+
+    // One facility of a sharded run; the router moves overflow orders and spare trucks between them
+    public SwiftCartSimulation(SimulationClock clock, SimulationConfig config, EventLog eventLog, 
+                               OrderJournal journal, JournalReplay replay, ShardRouter router, int shard) {
+        this.config = config;
+        this.router = router;
+        this.shard = shard;
+        this.clock = clock;
+        this.eventLog = eventLog;
+        this.journal = journal;
+        this.replay = replay;
+        this.remote = config.createRemoteHandOff();
+        if (config.getExecutorMode().isAvailable()) {
+            this.executorMode = config.getExecutorMode();
+        } else {
+            System.err.println("Virtual threads are not available on Java " + Runtime.version().feature() + 
+                             ", using platform threads");
+            this.executorMode = ExecutorMode.PLATFORM;
+        }
+        if (config.isRingChannels() && config.getEffectiveWaitStrategy(clock) != config.getWaitStrategy()) {
+            System.err.println("The virtual clock cannot see polling waits, using the blocking wait strategy");
+        }
+        int feeder = replay == null ? 0 : 1; // A resumed day refills every channel from the journal
+        this.orderIntakeQueue = config.createChannel("intake->picking", config.getIntakeQueueCapacity(), 
+                                                     1 + feeder, feeder == 0, clock, statistics);
+        this.pickingQueue = orderChannel("picking->packing", config.getPickingQueueCapacity(), 
+                                         1 + feeder); // The picker pool is one producer
+        this.packingQueue = orderChannel("packing->labelling", config.getPackingQueueCapacity(), 
+                                         config.getPackingLanes() + feeder);
+        this.labellingQueue = orderChannel("labelling->sorting", config.getLabellingQueueCapacity(), 
+                                           config.getLabellingLanes() + feeder);
+        this.containerQueue = config.createChannel("sorting->loaders", config.getContainerQueueCapacity(), 
+                                                   1 + feeder, feeder == 0, clock, statistics);
+
+        // Packing pauses once every bay is full and resumes as soon as a truck frees a slot; an upstream
+        // process has no bays and pauses on its first level, which the downstream process raises and lowers
+        int totalBaySlots = remote.isUpstream() ? 1 : config.getLoadingBays() * config.getBayCapacity();
+        this.bayOccupancy = new BackpressureGate("packing (loading bays full)", totalBaySlots, 
+                                                 totalBaySlots, clock, statistics, eventLog);
 
-    public SwiftCartSimulation() {
         // Initialize loading bays
-        for (int i = 0; i < NUM_LOADING_BAYS; i++) {
-            loadingBays[i] = new LoadingBay(i + 1);
+        this.loadingBays = new LoadingBay[config.getLoadingBays()];
+        for (int i = 0; i < loadingBays.length; i++) {
+            loadingBays[i] = new LoadingBay(i + 1, config.getBayCapacity(), bayOccupancy);
         }
+        this.truckDispatcher = config.createTruckDispatcher();
+        this.loaderFleet = config.createLoaderFleet(clock);
+        this.loaderWork = config.createLoaderWorkQueues(containerQueue, loaderFleet.getLoaders());
+        this.bayScheduler = new BayScheduler(loadingBays, loaderFleet.getLoaders(), statistics, truckDispatcher, 
+                                             config.getBaySelection(), clock);
+
+        // Picker workers share the facility's picking slots; the pool resizes itself when min < max
+        this.pickingSlots = new ClockSemaphore(config.getPickingSlots(), clock);
+        this.pickerPool = new PickerPool(orderIntakeQueue, sink(pickingQueue), pickingSlots, statistics, 
+                                         config.getPickTime(), config.getPickWave(), config.getPickers(), 
+                                         config.getMinPickers(), config.getMaxPickers(), 
+                                         config.getPickerLatencyTarget(), clock, eventLog, journal);
+    }
+
+    // The split hand-off of a two-process facility also opens this process's end of the socket; the
+    // local channel then serves only the stages on the other side of the split, which never start here
+    private StageChannel<Order> orderChannel(String name, int capacity, int producers) {
+        if (remote.carries(name)) remote.open(name, capacity, producers, clock, statistics);
+        return config.createChannel(name, capacity, producers, false, clock, statistics);
+    }
+
+    // Where a stage puts its output: the socket if this hand-off leaves an upstream process
+    private StageSink<Order> sink(StageChannel<Order> channel) {
+        return remote.carries(channel.getName()) && remote.isUpstream() ? remote.getSink() : channel;
+    }
+
+    // Where a stage takes its input: the socket if this hand-off arrives in a downstream process
+    private StageSource<Order> source(StageChannel<Order> channel) {
+        return remote.carries(channel.getName()) && remote.isDownstream() ? remote.getSource() : channel;
+    }
+
+    // Each hand-off as this process sees it, for the report and the metrics endpoint
+    private HandOffMetrics[] handOffs() {
+        HandOffMetrics[] handOffs = { orderIntakeQueue, pickingQueue, packingQueue, labellingQueue, containerQueue };
+        for (int i = 0; i < handOffs.length; i++) {
+            if (!remote.carries(handOffs[i].getName())) continue;
+            handOffs[i] = remote.isUpstream() ? remote.getSink() : remote.getSource();
+        }
+        return handOffs;
+    }
+
+    // Joins the other process of a split facility; call before startSimulation
+    public void connectRemote() throws IOException {
+        remote.connect(bayOccupancy);
     }
 
     public void startSimulation() {
         System.out.println("=".repeat(80));
         System.out.println("SWIFTCART E-COMMERCE CENTRE SIMULATION STARTING");
-        System.out.println("Target: " + TOTAL_ORDERS + " orders | Loaders: " + NUM_LOADERS + 
-                         " | Loading Bays: " + NUM_LOADING_BAYS + " | Trucks: " + NUM_TRUCKS);
+        System.out.println("Target: " + config.getTotalOrders() + " orders | Loaders: " + config.getLoaders() + 
+                         " | Loading Bays: " + config.getLoadingBays() + " | Trucks: " + config.getTrucks());
         System.out.println("=".repeat(80));
 
-        ExecutorService executor = Executors.newCachedThreadPool();
+        ExecutorService executor = executorMode.newExecutor();
+        ExecutorService pickerThreads = executorMode.newExecutor(); // Picker pool keeps growing while draining
+        MetricsServer metricsServer = startMetricsServer();
+        OrderReportStore reportStore = openReportStore();
+        statistics.setReportStore(reportStore);
+        long startTime = System.currentTimeMillis();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        long simulationStart = clock.currentTimeMillis();
+        clock.register();
 
         try {
-            // Start Order Intake System
-            OrderIntakeSystem orderIntake = new OrderIntakeSystem(orderIntakeQueue, statistics, TOTAL_ORDERS);
-            executor.execute(orderIntake);
+            // Put the journal's in-flight orders back before intake takes any new order ids
+            int newOrders = config.getTotalOrders();
+            if (replay != null) {
+                RecoveryFeeder recovery = new RecoveryFeeder(orderIntakeQueue, pickingQueue, packingQueue, 
+                        labellingQueue, containerQueue, replay, journal, statistics, containersCreated, clock, eventLog);
+                System.out.println("Recovered " + replay.getOrders().size() + " orders from " + replay.getRecords() + 
+                                 " journal records (" + replay.getDiscardedBytes() + " torn bytes dropped): " + 
+                                 recovery.getInFlightOrders() + " back in the pipeline, " + 
+                                 recovery.getRequeuedContainers() + " containers requeued, " + 
+                                 replay.getDepartedTrucks().size() + " trucks already departed");
+                newOrders = Math.max(0, newOrders - replay.getOrders().size());
+                executor.execute(clock.participant(recovery));
+            }
 
-            // Start Picking Stations (4 concurrent pickers)
-            for (int i = 1; i <= 4; i++) {
-                executor.execute(new PickingStation(orderIntakeQueue, pickingQueue, statistics, orderIntake));
+            // Start Order Intake System (a split facility starts only the stages on its side of the split)
+            if (remote.runs(Statistics.STAGE_INTAKE)) {
+                OrderIntakeSystem orderIntake = new OrderIntakeSystem(orderIntakeQueue, statistics, newOrders, 
+                                                                      config.getZones(), config.getIntakeBatch(), 
+                                                                      config.getIntakeInterval(), router, shard, 
+                                                                      clock, eventLog, journal);
+                executor.execute(clock.participant(orderIntake));
             }
 
-            // Start Packing Station
-            executor.execute(new PackingStation(pickingQueue, packingQueue, statistics, orderIntake));
+            // Start picker workers (4 by default, sharing 4 picking slots)
+            if (remote.runs(Statistics.STAGE_PICKING)) pickerPool.start(pickerThreads);
 
-            // Start Labelling Station
-            executor.execute(new LabellingStation(packingQueue, labellingQueue, statistics, orderIntake));
+            // Start Packing Station lanes (1 by default), sharing the picked-order queue
+            LaneSequencer packingSequencer = new LaneSequencer(config.isFifoLanes(), clock);
+            for (int i = 1; remote.runs(Statistics.STAGE_PACKING) && i <= config.getPackingLanes(); i++) {
+                executor.execute(clock.participant(
+                        new PackingStation(i, source(pickingQueue), sink(packingQueue), packingSequencer, 
+                                           statistics, bayOccupancy, config.getPackTime(), clock, eventLog, journal)));
+            }
+
+            // Start Labelling Station lanes (1 by default), sharing the packed-box queue
+            LaneSequencer labellingSequencer = new LaneSequencer(config.isFifoLanes(), clock);
+            for (int i = 1; remote.runs(Statistics.STAGE_LABELLING) && i <= config.getLabellingLanes(); i++) {
+                executor.execute(clock.participant(
+                        new LabellingStation(i, source(packingQueue), sink(labellingQueue), labellingSequencer, 
+                                             statistics, config.getLabelTime(), clock, eventLog, journal)));
+            }
 
             // Start Sorting Area
-            SortingArea sorter = new SortingArea(labellingQueue, containerQueue, statistics, orderIntake);
-            executor.execute(sorter);
+            SortingArea sorter = new SortingArea(source(labellingQueue), containerQueue, statistics, 
+                                                 containersCreated, config.getZones(), config.getZoneFlushTimeout(), 
+                                                 clock, eventLog, journal);
+            if (remote.runs(Statistics.STAGE_SORTING)) executor.execute(clock.participant(sorter));
 
-            // Start Autonomous Loaders
-            for (int i = 1; i <= NUM_LOADERS; i++) {
-                executor.execute(new AutonomousLoader(i, containerQueue, loadingBays, statistics, orderIntake, sorter));
+            // Start Autonomous Loaders; standby loaders follow the primary ones and start parked
+            boolean loading = remote.runs(Statistics.STAGE_LOADING);
+            for (int i = 1; loading && i <= loaderFleet.getLoaders(); i++) {
+                AutonomousLoader loader = new AutonomousLoader(i, loaderWork, bayScheduler, loaderFleet, 
+                        statistics, config.getLoadTime(), config.getMaintenanceTime(), clock, eventLog, 
+                        journal);
+                loaders.add(loader);
+                executor.execute(clock.participant(loader));
             }
 
-            // Start Trucks with staggered arrival
-            for (int i = 1; i <= NUM_TRUCKS; i++) {
+            // Start Trucks with staggered arrival (a resumed day skips those that already left)
+            setTruckExecutor(executor);
+            for (int i = 1; loading && i <= config.getTrucks(); i++) {
+                if (replay != null && replay.getDepartedTrucks().contains(i)) continue;
                 activeTrucks.incrementAndGet();
-                executor.execute(new Truck(i, loadingBays, statistics, activeTrucks, containersCreated));
-                Thread.sleep(ThreadLocalRandom.current().nextInt(1000, 3000));
+                executor.execute(clock.participant(
+                        new Truck(i, bayScheduler, truckDispatcher, statistics, activeTrucks, containersCreated, 
+                                  clock, eventLog, journal)));
+                clock.sleep(config.getTruckArrivalGap().sample());
             }
 
             // Start system monitor
-            executor.execute(this::monitorSystem);
+            if (loading) executor.execute(clock.participant(this::monitorSystem));
 
-            // Run simulation for specified duration
-            Thread.sleep(SIMULATION_TIMEOUT_MINUTES * 60 * 1000);
-            simulationRunning = false;
+            // Run until every truck has departed or the time limit is reached; in a sharded run a
+            // truck the line cannot use goes each second to a facility that has none
+            long deadline = simulationStart + config.getTimeoutMinutes() * 60_000L;
+            while (isDayRunning() && clock.currentTimeMillis() < deadline) {
+                lendSpareTruck();
+                clock.sleep(Math.min(1000, deadline - clock.currentTimeMillis()));
+            }
+            truckLock.lock();
+            try {
+                simulationRunning = false;
+            } finally {
+                truckLock.unlock();
+            }
 
-            // Wait for completion
+            // Wait for completion (stop counting as a clock participant so virtual time keeps moving)
+            clock.deregister();
             executor.shutdown();
             if (!executor.awaitTermination(2, TimeUnit.MINUTES)) {
                 System.err.println("Warning: Some threads did not terminate gracefully");
                 executor.shutdownNow();
             }
+            pickerThreads.shutdown(); // Downstream stages have finished, so every picker has too
+            if (!pickerThreads.awaitTermination(10, TimeUnit.SECONDS)) {
+                pickerThreads.shutdownNow();
+            }
+
+            // Force the journal's tail, and drain the event log so the report is not interleaved with stage events
+            closeJournal();
+            closeEventLog();
+            closeReportStore(reportStore);
+            remote.close();
 
             // Print final statistics
-            statistics.printFinalReport();
+            simulatedMillis = clock.currentTimeMillis() - simulationStart;
+            wallClockMillis = System.currentTimeMillis() - startTime;
+            peakThreads = threads.getPeakThreadCount();
+            if (loading) statistics.recordBayTime(loadingBays.length * simulatedMillis);
+            statistics.printFinalReport(() -> {
+                printHandOffLatency();
+                if (loading) {
+                    printLoaderFleetReport();
+                    printBayReport();
+                }
+                if (journal.isEnabled()) printJournalReport();
+                if (remote.isEnabled()) remote.printReport();
+                System.out.println("\nSimulated time: " + simulatedMillis + "ms | Wall-clock time: " + 
+                                 wallClockMillis + "ms | Executor: " + executorMode.name().toLowerCase(Locale.ROOT) + 
+                                 " (peak " + peakThreads + " platform threads)");
+            });
 
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             System.err.println("Simulation interrupted: " + e.getMessage());
+        } finally {
+            if (metricsServer != null) metricsServer.close();
+        }
+    }
+
+    // An upstream process has no trucks: its day is over once its last order is on the wire
+    private boolean isDayRunning() {
+        return remote.isUpstream() ? !remote.isFinished() : activeTrucks.get() > 0;
+    }
+
+    private void setTruckExecutor(ExecutorService executor) {
+        truckLock.lock();
+        try {
+            truckExecutor = executor;
+        } finally {
+            truckLock.unlock();
+        }
+    }
+
+    // Starts a truck released by another facility; refused, and nothing released, once this facility
+    // has stopped waiting for trucks. Returns the released truck's id at the lender, or 0
+    int acceptTruck(int fromShard, IntSupplier releaseTruck) {
+        truckLock.lock();
+        try {
+            if (!simulationRunning || truckExecutor == null) return 0;
+            int lentId = releaseTruck.getAsInt();
+            if (lentId == 0) return 0;
+            int truckId = config.getTrucks() + ++borrowedTrucks;
+            activeTrucks.incrementAndGet();
+            eventLog.log(EventType.TRUCK_BORROWED, truckId, fromShard);
+            truckExecutor.execute(clock.participant(
+                    new Truck(truckId, bayScheduler, truckDispatcher, statistics, activeTrucks, containersCreated, 
+                              clock, eventLog, journal)));
+            return lentId;
+        } finally {
+            truckLock.unlock();
+        }
+    }
+
+    private void lendSpareTruck() {
+        int target = router.truckTarget(shard);
+        if (target == 0) return;
+        int truckId = router.transferTruck(shard, target, bayScheduler::releaseSpareTruck);
+        if (truckId != 0) eventLog.log(EventType.TRUCK_LENT, truckId, target);
+    }
+
+    // Down to its last truck with containers still to ship; the day ends once the last truck leaves
+    boolean needsTruck() {
+        return simulationRunning && activeTrucks.get() <= 1 && containersCreated.get() > 0;
+    }
+
+    int getIntakeDepth() { return orderIntakeQueue.size(); }
+    int getIntakeCapacity() { return orderIntakeQueue.getCapacity(); }
+
+    private OrderReportStore openReportStore() {
+        try {
+            return config.createReportStore(clock);
+        } catch (IOException e) {
+            System.err.println("Report store disabled, cannot create a day file in " + 
+                             config.getReportStoreDirectory() + ": " + e.getMessage());
+            return OrderReportStore.disabled();
+        }
+    }
+
+    private void closeReportStore(OrderReportStore reportStore) {
+        if (!reportStore.isEnabled()) return;
+        reportStore.close();
+        System.out.println("Order detail: " + reportStore.getPath() + " (" + reportStore.getRows() + " rows)");
+        if (reportStore.getOutOfRange() > 0) {
+            System.err.println("Report store had no row for " + reportStore.getOutOfRange() + " order updates");
+        }
+    }
+
+    private MetricsServer startMetricsServer() {
+        if (config.getMetricsPort() == 0) return null;
+        try {
+            MetricsServer server = new MetricsServer(
+                    new InetSocketAddress(InetAddress.getLoopbackAddress(), config.getMetricsPort()), this::writeMetrics);
+            System.out.println("Metrics: http://localhost:" + server.getPort() + "/metrics");
+            return server;
+        } catch (IOException e) {
+            System.err.println("Metrics endpoint disabled, cannot bind port " + config.getMetricsPort() + 
+                             ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Live pipeline state for a scrape; reads only, safe while the simulation runs
+    public void writeMetrics(PrometheusWriter metrics) {
+        HandOffMetrics[] channels = handOffs();
+        metrics.gauge("swiftcart_queue_depth", "Items waiting in a stage hand-off");
+        for (HandOffMetrics channel : channels) {
+            metrics.sample("swiftcart_queue_depth", channel.size(), "channel", channel.getName());
+        }
+        metrics.gauge("swiftcart_queue_capacity", "Capacity of a stage hand-off");
+        for (HandOffMetrics channel : channels) {
+            metrics.sample("swiftcart_queue_capacity", channel.getCapacity(), "channel", channel.getName());
+        }
+        metrics.counter("swiftcart_queue_handoffs_total", "Items taken from a stage hand-off");
+        for (HandOffMetrics channel : channels) {
+            metrics.sample("swiftcart_queue_handoffs_total", channel.getHandOffs(), "channel", channel.getName());
+        }
+
+        metrics.gauge("swiftcart_picking_slots_available", "Free picking slots shared by the picker workers")
+               .sample("swiftcart_picking_slots_available", pickingSlots.availablePermits());
+        metrics.gauge("swiftcart_pickers_active", "Picker workers currently running")
+               .sample("swiftcart_pickers_active", pickerPool.getActivePickers());
+        metrics.gauge("swiftcart_pickers_target", "Picker workers the adaptive pool is aiming for")
+               .sample("swiftcart_pickers_target", pickerPool.getTargetPickers());
+
+        metrics.gauge("swiftcart_loader_operational", "1 while a loader is working, 0 during maintenance");
+        for (AutonomousLoader loader : loaders) {
+            metrics.sample("swiftcart_loader_operational", loader.isOperational() ? 1 : 0, 
+                           "loader", Integer.toString(loader.getLoaderId()));
+        }
+        metrics.gauge("swiftcart_loaders_operational", "Loaders working, not broken down, in service or on standby")
+               .sample("swiftcart_loaders_operational", loaderFleet.getOperational());
+        metrics.counter("swiftcart_loader_containers_loaded_total", "Containers moved into a bay per loader");
+        for (AutonomousLoader loader : loaders) {
+            metrics.sample("swiftcart_loader_containers_loaded_total", loader.getContainersLoaded(), 
+                           "loader", Integer.toString(loader.getLoaderId()));
+        }
+
+        metrics.gauge("swiftcart_bay_containers", "Containers waiting in a loading bay");
+        for (LoadingBay bay : loadingBays) {
+            metrics.sample("swiftcart_bay_containers", bay.getContainerCount(), "bay", Integer.toString(bay.getBayId()));
+        }
+        metrics.gauge("swiftcart_bay_capacity", "Containers a loading bay can hold");
+        for (LoadingBay bay : loadingBays) {
+            metrics.sample("swiftcart_bay_capacity", bay.getCapacity(), "bay", Integer.toString(bay.getBayId()));
+        }
+        metrics.gauge("swiftcart_packing_paused", "1 while packing is held because the bays are full")
+               .sample("swiftcart_packing_paused", bayOccupancy.isPaused() ? 1 : 0);
+
+        metrics.gauge("swiftcart_trucks_active", "Trucks that have not yet departed")
+               .sample("swiftcart_trucks_active", activeTrucks.get());
+        metrics.gauge("swiftcart_trucks_waiting", "Trucks queued at the loading bays")
+               .sample("swiftcart_trucks_waiting", bayScheduler.getWaitingTrucks());
+        metrics.gauge("swiftcart_containers_in_system", "Containers shipped by the sorter and not yet on a truck")
+               .sample("swiftcart_containers_in_system", containersCreated.get());
+        metrics.gauge("swiftcart_simulated_time_milliseconds", "Simulation clock reading")
+               .sample("swiftcart_simulated_time_milliseconds", clock.currentTimeMillis());
+
+        statistics.writeMetrics(metrics);
+    }
+
+    public Statistics getStatistics() { return statistics; }
+    public long getWallClockMillis() { return wallClockMillis; }
+    public int getPeakThreads() { return peakThreads; }
+    public long getSimulatedMillis() { return simulatedMillis; }
+    public int getShard() { return shard; }
+
+    // One machine-readable line for capacity-planning runs (--headless)
+    public String toResultJson() {
+        double simulatedSeconds = Math.max(simulatedMillis, 1) / 1000.0;
+        double wallSeconds = Math.max(wallClockMillis, 1) / 1000.0;
+        int delivered = statistics.getOrdersDelivered();
+        boolean completed = remote.isUpstream() ? remote.isComplete() 
+                : delivered + statistics.getOrdersRejected() >= config.getTotalOrders();
+        return String.format(Locale.ROOT,
+                "{\"orders\":%d,\"pickers\":%d,\"peakPickers\":%d,\"intakeBatch\":%d,\"pickWave\":%d,\"packingLanes\":%d,\"labellingLanes\":%d,\"loaders\":%d,\"bays\":%d,\"trucks\":%d,\"timeScale\":%s," +
+                "\"executor\":\"%s\",\"channel\":\"%s\",\"dispatch\":\"%s\",\"peakThreads\":%d," +
+                "\"completed\":%b,\"ordersDelivered\":%d,\"ordersRejected\":%d," +
+                "\"simulatedMillis\":%d,\"wallClockMillis\":%d," +
+                "\"ordersPerSimulatedSecond\":%.3f,\"ordersPerWallSecond\":%.1f," +
+                "\"latencyMillis\":{\"p50\":%d,\"p95\":%d,\"p99\":%d}," +
+                "\"truckLoad\":%.2f,\"truckLoadingMillis\":%d," +
+                "\"departures\":{\"full\":%d,\"dwell\":%d,\"zones\":%d,\"drained\":%d}," +
+                "\"utilization\":{\"picking\":%.4f,\"packing\":%.4f,\"labelling\":%.4f," +
+                "\"loading\":%.4f,\"bays\":%.4f}",
+                config.getTotalOrders(), config.getPickers(), statistics.getPeakPickers(), config.getIntakeBatch(), 
+                config.getPickWave(), config.getPackingLanes(), 
+                config.getLabellingLanes(), config.getLoaders(), config.getLoadingBays(),
+                config.getTrucks(), config.getTimeScale(),
+                executorMode.name().toLowerCase(Locale.ROOT), channelDescription(), 
+                truckDispatcher.getPolicy().label(), peakThreads,
+                completed, delivered, statistics.getOrdersRejected(),
+                simulatedMillis, wallClockMillis,
+                delivered / simulatedSeconds, delivered / wallSeconds,
+                statistics.getOrderLatencyPercentile(50), statistics.getOrderLatencyPercentile(95),
+                statistics.getOrderLatencyPercentile(99),
+                statistics.getAverageTruckLoad(), statistics.getAverageLoadingTime(),
+                statistics.getTruckDepartures(DepartureReason.FULL), statistics.getTruckDepartures(DepartureReason.DWELL),
+                statistics.getTruckDepartures(DepartureReason.ZONES), 
+                statistics.getTruckDepartures(DepartureReason.DRAINED),
+                utilization(Statistics.STAGE_PICKING, config.getPickingSlots()),
+                utilization(Statistics.STAGE_PACKING, config.getPackingLanes()),
+                utilization(Statistics.STAGE_LABELLING, config.getLabellingLanes()),
+                utilization(Statistics.STAGE_LOADING, config.getLoaders()),
+                statistics.getBayUtilization()) + loaderFleetJson() + bayJson() + journalJson() + remote.toJson() + "}";
+    }
+
+    private String loaderFleetJson() {
+        int breakdowns = 0, services = 0;
+        long upTime = 0, repairTime = 0;
+        for (int id = 1; id <= loaderFleet.getLoaders(); id++) {
+            LoaderFleet.LoaderHealth health = loaderFleet.getHealth(id);
+            breakdowns += health.getBreakdowns();
+            services += health.getServices();
+            upTime += health.getUpTime();
+            repairTime += health.getRepairTime();
+        }
+        LatencySnapshot toBay = statistics.getStageLatency(Statistics.STAGE_LOADING);
+        return String.format(Locale.ROOT, 
+                ",\"loaderFleet\":{\"standby\":%d,\"breakdowns\":%d,\"services\":%d,\"standbyCalls\":%d," + 
+                "\"handedOn\":%d,\"mtbfMillis\":%d,\"mttrMillis\":%d,\"containerToBayMillis\":{\"p50\":%d,\"p95\":%d,\"p99\":%d}}", 
+                config.getStandbyLoaders(), breakdowns, services, loaderFleet.getStandbyCalls(), 
+                loaderFleet.getRerouted(), upTime / Math.max(1, breakdowns), 
+                breakdowns == 0 ? 0 : repairTime / breakdowns, 
+                toBay.percentile(50), toBay.percentile(95), toBay.percentile(99));
+    }
+
+    private String bayJson() {
+        StringBuilder received = new StringBuilder();
+        for (LoadingBay bay : loadingBays) {
+            if (received.length() > 0) received.append(',');
+            received.append(bay.getContainersReceived());
+        }
+        return String.format(Locale.ROOT, 
+                ",\"loaderDispatch\":{\"mode\":\"%s\",\"claims\":%d,\"steals\":%d}," + 
+                "\"bayBalance\":{\"selection\":\"%s\",\"received\":[%s],\"maxOverMean\":%.3f,\"dockShare\":%.3f}", 
+                loaderWork.isStealing() ? "stealing" : "shared", loaderWork.getClaims(), loaderWork.getSteals(), 
+                bayScheduler.getSelection().label(), received, bayScheduler.getBayBalance(), 
+                bayScheduler.getDockShare());
+    }
+
+    // Appended to the result object only when journaling, so other runs keep their shape
+    private String journalJson() {
+        if (!journal.isEnabled()) return "";
+        return String.format(Locale.ROOT, 
+                ",\"journal\":{\"syncMillis\":%d,\"records\":%d,\"recordsPerSecond\":%.1f,\"commits\":%d," + 
+                "\"avgBatch\":%.2f,\"fsyncMillis\":%.1f,\"fsyncWaitMillis\":%.1f}", 
+                journal.getSyncMillis(), journal.getRecords(), journal.getRecordsPerSecond(), journal.getForces(), 
+                journal.getAverageBatch(), journal.getForceMillis(), journal.getDurableWaitMillis());
+    }
+
+    private String channelDescription() {
+        if (!config.isRingChannels()) return "queue";
+        return "ring/" + config.getEffectiveWaitStrategy(clock).name().toLowerCase(Locale.ROOT);
+    }
+
+    private double utilization(String stage, int workers) {
+        return simulatedMillis == 0 ? 0.0 : (double) statistics.getStageBusyTime(stage) / (workers * simulatedMillis);
+    }
+
+    private void closeEventLog() {
+        try {
+            eventLog.close();
+        } catch (IOException e) {
+            System.err.println("Event log failed: " + e.getMessage());
+        }
+        if (eventLog.getDropped() > 0) {
+            System.err.println("Event log dropped " + eventLog.getDropped() + " events");
+        }
+    }
+
+    private void closeJournal() {
+        try {
+            journal.close();
+        } catch (IOException e) {
+            System.err.println("Order journal failed: " + e.getMessage());
+        }
+        if (journal.getDropped() > 0) {
+            System.err.println("Order journal dropped " + journal.getDropped() + " records");
+        }
+    }
+
+    private void printJournalReport() {
+        System.out.println("\nORDER JOURNAL:");
+        System.out.printf(Locale.ROOT, "  Records: %d (%d KB) | Throughput: %.0f records/s%n", journal.getRecords(), 
+                journal.getRecords() * OrderJournal.RECORD_BYTES / 1024, journal.getRecordsPerSecond());
+        System.out.printf(Locale.ROOT, "  Group commits: %d every %dms | avg batch: %.1f | max batch: %d records%n", 
+                journal.getForces(), journal.getSyncMillis(), journal.getAverageBatch(), journal.getMaxBatch());
+        System.out.printf(Locale.ROOT, "  fsync time: %.1fms total, %.3fms avg | stages waiting on fsync: %.1fms%n", 
+                journal.getForceMillis(), journal.getForces() == 0 ? 0.0 : journal.getForceMillis() / journal.getForces(), 
+                journal.getDurableWaitMillis());
+    }
+
+    private void printLoaderFleetReport() {
+        System.out.println("\nLOADER FLEET:");
+        for (int id = 1; id <= loaderFleet.getLoaders(); id++) {
+            LoaderFleet.LoaderHealth health = loaderFleet.getHealth(id);
+            System.out.printf(Locale.ROOT, "  Loader-%-2d%s moves: %4d | breakdowns: %3d | services: %3d | " + 
+                    "MTBF: %8dms | MTTR: %6dms | next-move failure: %.1f%%%n", id, 
+                    loaderFleet.isStandby(id) ? "*" : " ", health.getMoves(), health.getBreakdowns(), 
+                    health.getServices(), health.getMtbf(), health.getMttr(), 100 * health.getPredictedFailure());
+        }
+        LatencySnapshot toBay = statistics.getStageLatency(Statistics.STAGE_LOADING);
+        System.out.println("  (* standby) Standby call-ins: " + loaderFleet.getStandbyCalls() + 
+                         " | Containers handed on after a breakdown: " + loaderFleet.getRerouted());
+        System.out.println("  Container to bay: p50: " + toBay.percentile(50) + "ms, p95: " + toBay.percentile(95) + 
+                         "ms, p99: " + toBay.percentile(99) + "ms, max: " + toBay.getMax() + "ms");
+    }
+
+    private void printBayReport() {
+        System.out.println("\nLOADING BAYS (" + bayScheduler.getSelection().label() + "):");
+        for (LoadingBay bay : loadingBays) {
+            System.out.println("  Bay-" + bay.getBayId() + " containers received: " + bay.getContainersReceived());
+        }
+        System.out.printf(Locale.ROOT, "  Balance (busiest / mean): %.2f | Collected at the truck's own dock: %.0f%%%n", 
+                bayScheduler.getBayBalance(), 100 * bayScheduler.getDockShare());
+        if (loaderWork.isStealing()) {
+            System.out.println("  Loader claims from the sorter: " + loaderWork.getClaims() + 
+                             " | Containers stolen from a peer: " + loaderWork.getSteals());
+        }
+    }
+
+    private void printHandOffLatency() {
+        System.out.println("\nHAND-OFF LATENCY:");
+        for (HandOffMetrics channel : handOffs()) {
+            System.out.printf(Locale.ROOT, "  %-20s hand-offs: %5d | avg: %8.1fms | max: %6dms%n", channel.getName(),
+                    channel.getHandOffs(), channel.getAverageLatencyMillis(), channel.getMaxLatencyMillis());
         }
     }
 
     private void monitorSystem() {
         while (simulationRunning || activeTrucks.get() > 0) {
             try {
-                // Print system status every 5 seconds
-                System.out.println("\nSystem Status:");
-                System.out.println("  Active Trucks: " + activeTrucks.get());
-                System.out.println("  Containers in System: " + containersCreated.get());
-                System.out.println("  Loading Bay Status:");
+                // Log system status every 5 seconds
+                eventLog.log(EventType.SYSTEM_STATUS, activeTrucks.get(), bayScheduler.getWaitingTrucks(), 
+                             containersCreated.get());
                 for (LoadingBay bay : loadingBays) {
-                    System.out.println("    " + bay);
+                    eventLog.log(EventType.BAY_STATUS, bay.getBayId(), bay.getContainerCount(), bay.getCapacity());
+                }
+                Map<String, LatencySnapshot> interval = statistics.intervalStageLatency();
+                for (int i = 0; i < Statistics.LATENCY_STAGES.length; i++) {
+                    LatencySnapshot latency = interval.get(Statistics.LATENCY_STAGES[i]);
+                    if (latency.getCount() > 0) {
+                        eventLog.log(EventType.STAGE_STATUS, i, (int) latency.percentile(99), 
+                                     (int) latency.getCount());
+                    }
                 }
                 
-                Thread.sleep(5000);
+                clock.sleep(5000);
                 
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
@@ -119,7 +657,80 @@ public class SwiftCartSimulation {
         }
     }
 
+    // Facilities report concurrently, so their own output is dropped and the merged report printed instead
+    private static void runShards(SimulationConfig config, PrintStream console) {
+        FacilityShards shards;
+        try {
+            shards = new FacilityShards(config, console);
+        } catch (IOException e) {
+            System.err.println("Cannot open event log: " + e.getMessage());
+            System.exit(2);
+            return;
+        }
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            shards.run();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Sharded run interrupted: " + e.getMessage());
+        }
+        System.setOut(console);
+        if (config.isHeadless()) {
+            console.println(shards.toResultJson());
+        } else {
+            shards.printReport();
+        }
+    }
+
     public static void main(String[] args) {
-        new SwiftCartSimulation().startSimulation();
+        if (Arrays.asList(args).contains("--help")) {
+            System.out.println(SimulationConfig.USAGE);
+            return;
+        }
+
+        SimulationConfig config;
+        try {
+            config = SimulationConfig.fromArgs(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(SimulationConfig.USAGE);
+            System.exit(2);
+            return;
+        }
+
+        // Headless runs silence stage logging and print only the JSON result
+        PrintStream console = System.out;
+        if (config.isHeadless()) {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        }
+
+        if (config.getShards() > 1) {
+            runShards(config, console);
+            return;
+        }
+
+        SimulationClock clock = config.createClock();
+        SwiftCartSimulation simulation;
+        try {
+            JournalReplay replay = config.readJournal();
+            simulation = new SwiftCartSimulation(clock, config, config.createEventLog(clock, console), 
+                                                 config.createJournal(clock, replay), replay);
+        } catch (IOException e) {
+            System.err.println("Cannot open event log or journal: " + e.getMessage());
+            System.exit(2);
+            return;
+        }
+        try {
+            simulation.connectRemote();
+        } catch (IOException | UnresolvedAddressException e) {
+            System.err.println("Cannot reach the other process of the split facility: " + e.getMessage());
+            System.exit(2);
+            return;
+        }
+        simulation.startSimulation();
+
+        if (config.isHeadless()) {
+            console.println(simulation.toResultJson());
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,71 @@
+package Main;
+
+
+// TextEventSink.java
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * Human-readable renderer. Console output keeps the familiar
+ * "message (Thread: name)" lines; file output prefixes each line with its timestamp and level.
+ */
+public class TextEventSink implements EventSink {
+    private final Writer out;
+    private final boolean ownsOutput;
+    private final boolean timestamps;
+    private final Map<Integer, String> threadNames = new HashMap<>();
+    private final StringBuilder line = new StringBuilder(160);
+
+    public TextEventSink(Writer out, boolean ownsOutput, boolean timestamps) {
+        this.out = out;
+        this.ownsOutput = ownsOutput;
+        this.timestamps = timestamps;
+    }
+
+    public static TextEventSink console(PrintStream console) {
+        return new TextEventSink(new BufferedWriter(new OutputStreamWriter(console, StandardCharsets.UTF_8)),
+                                 false, false);
+    }
+
+    public static TextEventSink file(Path path) throws IOException {
+        return new TextEventSink(Files.newBufferedWriter(path, StandardCharsets.UTF_8), true, true);
+    }
+
+    @Override
+    public void threadStarted(int threadId, String threadName) {
+        threadNames.put(threadId, threadName);
+    }
+
+    @Override
+    public void write(long timestamp, EventType type, int threadId, int a, int b, int c, int d) throws IOException {
+        line.setLength(0);
+        if (timestamps) {
+            line.append(timestamp).append(' ').append(type.getLevel()).append(' ');
+        }
+        type.render(line, a, b, c, d);
+        line.append(" (Thread: ").append(threadNames.get(threadId)).append(')').append(System.lineSeparator());
+        out.append(line);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (ownsOutput) {
+            out.close();
+        } else {
+            out.flush();
+        }
+    }
+}
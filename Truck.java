@@ -12,82 +12,84 @@ import java.util.List;
 
 public class Truck implements Runnable {
     private final int truckId;
-    private final LoadingBay[] loadingBays;
+    private final BayScheduler bayScheduler;
+    private final TruckDispatcher dispatcher;
     private final Statistics statistics;
     private final List<Container> loadedContainers;
-    private static final int MAX_CAPACITY = 18;
+    static final int MAX_CAPACITY = 18;
     private final AtomicInteger activeTrucks;
     private final AtomicInteger containersInSystem;
+    private final SimulationClock clock;
+    private final EventLog eventLog;
+    private final OrderJournal journal;
     private long arrivalTime;
     private long departureTime;
     private long waitTime = 0;
     
-    public Truck(int truckId, LoadingBay[] loadingBays, Statistics statistics, 
-                AtomicInteger activeTrucks, AtomicInteger containersInSystem) {
+    public Truck(int truckId, BayScheduler bayScheduler, TruckDispatcher dispatcher, Statistics statistics, 
+                AtomicInteger activeTrucks, AtomicInteger containersInSystem, SimulationClock clock, 
+                EventLog eventLog, OrderJournal journal) {
         this.truckId = truckId;
-        this.loadingBays = loadingBays;
+        this.bayScheduler = bayScheduler;
+        this.dispatcher = dispatcher;
         this.statistics = statistics;
         this.loadedContainers = new ArrayList<>();
         this.activeTrucks = activeTrucks;
         this.containersInSystem = containersInSystem;
-        this.arrivalTime = System.currentTimeMillis();
+        this.clock = clock;
+        this.eventLog = eventLog;
+        this.journal = journal;
+        this.arrivalTime = clock.currentTimeMillis();
     }
     
     @Override
     public void run() {
         try {
-            System.out.println("Truck-" + truckId + ": Arrived at loading facility (Thread: " + 
-                             Thread.currentThread().getName() + ")");
+            eventLog.log(EventType.TRUCK_ARRIVED, truckId);
             
-            while (loadedContainers.size() < MAX_CAPACITY) {
-                boolean loadedFromBay = false;
-                long waitStart = System.currentTimeMillis();
-                
-                // Try to load from any available bay
-                for (LoadingBay bay : loadingBays) {
-                    if (bay.tryLock()) {
-                        try {
-                            Container container = bay.removeContainer();
-                            if (container != null) {
-                                loadedContainers.add(container);
-                                containersInSystem.decrementAndGet();
-                                loadedFromBay = true;
-                                System.out.println("Truck-" + truckId + ": Loaded Container #" + 
-                                                 container.getContainerId() + " from Bay-" + bay.getBayId() + 
-                                                 " (" + loadedContainers.size() + "/" + MAX_CAPACITY + 
-                                                 ") (Thread: " + Thread.currentThread().getName() + ")");
-                                break;
-                            }
-                        } finally {
-                            bay.unlock();
-                        }
-                    }
-                }
-                
-                if (!loadedFromBay) {
-                    // Check if we should terminate
-                    if (shouldTerminate()) {
-                        System.out.println("Truck-" + truckId + ": No more containers available, departing with " + 
-                                         loadedContainers.size() + " containers (Thread: " + 
-                                         Thread.currentThread().getName() + ")");
+            // Trucks are served first-come first-served by the bay scheduler; the dispatcher decides
+            // whether the truck at the head of the line leaves before it is full
+            bayScheduler.truckArrived(truckId);
+            TruckDispatcher.Load load = dispatcher.newLoad();
+            try {
+                while (loadedContainers.size() < dispatcher.getCapacity()) {
+                    long waitStart = clock.currentTimeMillis();
+                    Container container = bayScheduler.awaitContainer(truckId, load);
+                    waitTime += clock.currentTimeMillis() - waitStart;
+                    
+                    if (container == null) {
+                        logEarlyDeparture(load);
                         break;
                     }
                     
-                    System.out.println("Truck-" + truckId + ": Waiting for available containers (Thread: " + 
-                                     Thread.currentThread().getName() + ")");
-                    Thread.sleep(500);
-                    waitTime += System.currentTimeMillis() - waitStart;
+                    loadedContainers.add(container);
+                    load.add(container, clock.currentTimeMillis());
+                    containersInSystem.decrementAndGet();
+                    eventLog.log(EventType.TRUCK_LOADED, truckId, container.getContainerId(), 
+                                 loadedContainers.size(), dispatcher.getCapacity());
                 }
+            } finally {
+                bayScheduler.truckDeparted(truckId);
             }
             
+            if (load.getDeparture() == DepartureReason.LENT) return; // Counted where it loads
+            
             // Record statistics
-            departureTime = System.currentTimeMillis();
+            departureTime = clock.currentTimeMillis();
             statistics.recordLoadingTime(departureTime - arrivalTime);
             statistics.recordWaitTime(waitTime);
             statistics.incrementTrucksDispatched();
+            statistics.recordTruckDeparture(loadedContainers.size(), load.getDeparture());
+            for (Container container : loadedContainers) {
+                journal.record(JournalRecordType.DEPARTED, container.getContainerId(), container.getZone(), truckId);
+                for (int i = 0; i < container.getOrderCount(); i++) {
+                    Order order = container.getOrder(i);
+                    statistics.recordOrderLatency(departureTime - order.getCreationTime());
+                    statistics.completeStage(Statistics.STAGE_TRUCK, order, departureTime, truckId);
+                }
+            }
             
-            System.out.println("Truck-" + truckId + ": Departing with " + loadedContainers.size() + 
-                             " containers (Thread: " + Thread.currentThread().getName() + ")");
+            eventLog.log(EventType.TRUCK_DEPARTED, truckId, loadedContainers.size());
             
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -97,16 +99,20 @@ public class Truck implements Runnable {
         }
     }
     
-    private boolean shouldTerminate() {
-        return containersInSystem.get() <= 0 && areAllBaysEmpty();
-    }
-    
-    private boolean areAllBaysEmpty() {
-        for (LoadingBay bay : loadingBays) {
-            if (!bay.isEmpty()) {
-                return false;
-            }
+    private void logEarlyDeparture(TruckDispatcher.Load load) {
+        switch (load.getDeparture()) {
+            case DRAINED:
+                eventLog.log(EventType.TRUCK_STREAM_ENDED, truckId, loadedContainers.size());
+                break;
+            case LENT:
+                break; // Logged by the facility that sent it on
+            case ZONES:
+                eventLog.log(EventType.TRUCK_ZONES_COMPLETE, truckId, loadedContainers.size());
+                break;
+            default:
+                eventLog.log(EventType.TRUCK_DWELL_REACHED, truckId, loadedContainers.size(), 
+                             (int) (clock.currentTimeMillis() - arrivalTime));
+                break;
         }
-        return true;
     }
 }
\ No newline at end of file
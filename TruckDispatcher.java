@@ -0,0 +1,147 @@
+package Main;
+
+
+// TruckDispatcher.java
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ * Decides when the truck at the head of the line departs, following a DispatchPolicy. The
+ * bay scheduler reports every container that reaches a bay, and the dispatcher tracks the
+ * recent gap between arrivals, overall and per zone. The head truck asks
+ * again each time it wakes, and departs once the answer is no later than the current time.
+ *
+ * A truck only departs short of full when another truck is waiting behind it, so the day's
+ * last containers always have a truck to leave on.
+ */
+public class TruckDispatcher {
+    public static final long NEVER = Long.MAX_VALUE;
+
+    private final DispatchPolicy policy;
+    private final int capacity;
+    private final long maxDwell;
+    private final int minFill;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Inflow overall = new Inflow();
+    private final Inflow[] byZone;
+
+    public TruckDispatcher(DispatchPolicy policy, int capacity, long maxDwell, int minFill, int zones) {
+        this.policy = policy;
+        this.capacity = capacity;
+        this.maxDwell = maxDwell;
+        this.minFill = Math.min(minFill, capacity);
+        this.byZone = new Inflow[zones];
+        for (int i = 0; i < zones; i++) {
+            byZone[i] = new Inflow();
+        }
+    }
+
+    public DispatchPolicy getPolicy() { return policy; }
+    public int getCapacity() { return capacity; }
+
+    // A container reached a loading bay
+    public void containerArrived(int zone, long now) {
+        lock.lock();
+        try {
+            overall.arrived(now);
+            byZone[zone].arrived(now);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Load newLoad() {
+        return new Load(byZone.length);
+    }
+
+    // Clock time at which the head truck should leave with what it holds, or at which to ask
+    // again; NEVER waits for a full load
+    public long departAt(Load load, boolean truckWaitingBehind, long now) {
+        load.zonesComplete = false;
+        if (policy == DispatchPolicy.FULL_LOAD || load.containers == 0 || !truckWaitingBehind) return NEVER;
+        long deadline = load.firstLoadedAt + maxDwell;
+        lock.lock();
+        try {
+            // Nothing will arrive before the deadline, so staying only delays what is on board
+            if (overall.expectedAfter(deadline, now)) return now;
+            long recheck = Math.min(deadline, overall.driedUpAt());
+            if (policy == DispatchPolicy.ZONE_COMPLETE && load.containers >= minFill) {
+                boolean complete = true;
+                for (int zone = 0; zone < load.zones.length; zone++) {
+                    if (!load.zones[zone] || byZone[zone].expectedAfter(deadline, now)) continue;
+                    complete = false;
+                    recheck = Math.min(recheck, byZone[zone].driedUpAt());
+                }
+                if (complete) {
+                    load.zonesComplete = true;
+                    return now;
+                }
+            }
+            return recheck;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // What one truck has on board
+    public static final class Load {
+        private final boolean[] zones;
+        private int containers;
+        private long firstLoadedAt;
+        private boolean zonesComplete; // The last departAt left early because its zones were done
+        private DepartureReason departure = DepartureReason.FULL;
+
+        private Load(int zones) {
+            this.zones = new boolean[zones];
+        }
+
+        public void add(Container container, long now) {
+            if (containers++ == 0) firstLoadedAt = now;
+            zones[container.getZone()] = true;
+        }
+
+        void departFor(DepartureReason reason) {
+            departure = reason;
+        }
+
+        public int getContainers() { return containers; }
+        public boolean isZonesComplete() { return zonesComplete; }
+        public DepartureReason getDeparture() { return departure; }
+    }
+
+    // Mean gap between container arrivals over the last WINDOW arrivals; loaders deliver in
+    // bursts, so a per-gap average would swing between the burst and the pause after it
+    private static final class Inflow {
+        private static final int WINDOW = 8;
+        private final long[] arrivals = new long[WINDOW];
+        private long count;
+
+        void arrived(long now) {
+            arrivals[(int) (count++ % WINDOW)] = now;
+        }
+
+        // 0 until two containers have arrived
+        private long meanGap() {
+            if (count < 2) return 0;
+            int span = (int) Math.min(count, WINDOW) - 1;
+            long oldest = arrivals[(int) ((count - 1 - span) % WINDOW)];
+            return Math.max(1, (lastArrival() - oldest) / span);
+        }
+
+        private long lastArrival() {
+            return arrivals[(int) ((count - 1) % WINDOW)];
+        }
+
+        // True when the next container is not due before time; one overdue by four times the
+        // usual gap counts as a stream that has dried up
+        boolean expectedAfter(long time, long now) {
+            long meanGap = meanGap();
+            if (meanGap == 0) return false;
+            return now >= driedUpAt() || lastArrival() + meanGap > time;
+        }
+
+        long driedUpAt() {
+            long meanGap = meanGap();
+            return meanGap == 0 ? NEVER : lastArrival() + 4 * meanGap + 1;
+        }
+    }
+}
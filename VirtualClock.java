@@ -0,0 +1,289 @@
+package Main;
+
+
+// VirtualClock.java
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * Discrete-event clock. Stage threads keep their normal blocking structure, but every
+ * sleep or timed wait is turned into a timer event. The clock counts participants that
+ * are still doing work; once all of them are parked on the clock, a driver thread jumps
+ * straight to the next pending event instead of letting wall-clock time pass.
+ *
+ * Any blocking that is not done through sleep() or a ClockCondition (plain monitors,
+ * Semaphore.acquire, BlockingQueue.take...) is invisible to the clock and will stall it.
+ */
+public class VirtualClock implements SimulationClock {
+    private final Object monitor = new Object();
+    private final PriorityQueue<Timer> timers = new PriorityQueue<>();
+    private final Thread driver;
+    private volatile long now;
+    private long sequence = 0;
+    private int active = 0;
+    private long eventsFired = 0;
+
+    public VirtualClock() {
+        this(System.currentTimeMillis());
+    }
+
+    public VirtualClock(long startTime) {
+        this.now = startTime;
+        this.driver = new Thread(this::drive, "VirtualClock-driver");
+        this.driver.setDaemon(true);
+        this.driver.start();
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return now;
+    }
+
+    @Override
+    public void sleep(long millis) throws InterruptedException {
+        if (Thread.interrupted()) throw new InterruptedException();
+
+        Sleeper sleeper;
+        synchronized (monitor) {
+            sleeper = new Sleeper(now + Math.max(0, millis), Thread.currentThread());
+            timers.add(sleeper);
+            idleLocked();
+        }
+
+        while (!sleeper.woken) {
+            LockSupport.park(this);
+            if (Thread.interrupted()) {
+                synchronized (monitor) {
+                    if (!sleeper.woken) {
+                        sleeper.woken = true;
+                        sleeper.cancelled = true;
+                        active++;
+                    }
+                }
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    @Override
+    public ClockCondition newCondition(Lock lock) {
+        return new VirtualCondition(lock);
+    }
+
+    @Override
+    public void register() {
+        synchronized (monitor) {
+            active++;
+        }
+    }
+
+    @Override
+    public void deregister() {
+        synchronized (monitor) {
+            idleLocked();
+        }
+    }
+
+    public long getEventsFired() {
+        synchronized (monitor) {
+            return eventsFired;
+        }
+    }
+
+    public void shutdown() {
+        driver.interrupt();
+    }
+
+    private void idleLocked() {
+        if (--active == 0) {
+            monitor.notifyAll();
+        }
+    }
+
+    private void drive() {
+        List<Timer> due = new ArrayList<>();
+        try {
+            while (true) {
+                synchronized (monitor) {
+                    while (active > 0 || !hasPendingLocked()) {
+                        monitor.wait();
+                    }
+
+                    // Jump to the next event and collect everything scheduled for that instant
+                    Timer first = timers.poll();
+                    now = Math.max(now, first.time);
+                    due.add(first);
+                    while (!timers.isEmpty() && timers.peek().time <= first.time) {
+                        Timer timer = timers.poll();
+                        if (!timer.cancelled) due.add(timer);
+                    }
+
+                    // The driver counts as active while firing so time cannot move underneath it
+                    active++;
+                }
+
+                for (Timer timer : due) {
+                    timer.fire();
+                }
+
+                synchronized (monitor) {
+                    eventsFired += due.size();
+                    idleLocked();
+                }
+                due.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean hasPendingLocked() {
+        while (!timers.isEmpty() && timers.peek().cancelled) {
+            timers.poll();
+        }
+        return !timers.isEmpty();
+    }
+
+    private abstract class Timer implements Comparable<Timer> {
+        final long time;
+        final long seq;
+        boolean cancelled;
+
+        Timer(long time) {
+            this.time = time;
+            this.seq = sequence++;
+        }
+
+        abstract void fire();
+
+        @Override
+        public int compareTo(Timer other) {
+            int byTime = Long.compare(time, other.time);
+            return byTime != 0 ? byTime : Long.compare(seq, other.seq);
+        }
+    }
+
+    private final class Sleeper extends Timer {
+        final Thread thread;
+        volatile boolean woken;
+
+        Sleeper(long time, Thread thread) {
+            super(time);
+            this.thread = thread;
+        }
+
+        @Override
+        void fire() {
+            synchronized (monitor) {
+                if (woken) return;
+                woken = true;
+                active++;
+            }
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private static final class Waiter {
+        boolean woken;
+        boolean signalled;
+        Timer timeout;
+    }
+
+    private final class VirtualCondition implements ClockCondition {
+        private final Lock lock;
+        private final Condition condition;
+        private final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+
+        VirtualCondition(Lock lock) {
+            this.lock = lock;
+            this.condition = lock.newCondition();
+        }
+
+        @Override
+        public void await() throws InterruptedException {
+            awaitInternal(-1);
+        }
+
+        @Override
+        public boolean await(long millis) throws InterruptedException {
+            return awaitInternal(Math.max(0, millis));
+        }
+
+        private boolean awaitInternal(long millis) throws InterruptedException {
+            Waiter waiter = new Waiter();
+            waiters.add(waiter);
+            synchronized (monitor) {
+                if (millis >= 0) {
+                    waiter.timeout = new Timer(now + millis) {
+                        @Override
+                        void fire() {
+                            timeout(waiter);
+                        }
+                    };
+                    timers.add(waiter.timeout);
+                }
+                idleLocked();
+            }
+
+            try {
+                while (!waiter.woken) {
+                    condition.await();
+                }
+            } catch (InterruptedException e) {
+                if (!waiter.woken) {
+                    waiters.remove(waiter);
+                    wake(waiter, false);
+                }
+                throw e;
+            }
+            return waiter.signalled;
+        }
+
+        @Override
+        public void signal() {
+            Waiter waiter = waiters.poll();
+            if (waiter != null) {
+                wake(waiter, true);
+                condition.signalAll();
+            }
+        }
+
+        @Override
+        public void signalAll() {
+            if (waiters.isEmpty()) return;
+            Waiter waiter;
+            while ((waiter = waiters.poll()) != null) {
+                wake(waiter, true);
+            }
+            condition.signalAll();
+        }
+
+        private void timeout(Waiter waiter) {
+            lock.lock();
+            try {
+                if (!waiter.woken) {
+                    waiters.remove(waiter);
+                    wake(waiter, false);
+                    condition.signalAll();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // The waker pays for the woken thread so the clock never sees a false quiescence
+        private void wake(Waiter waiter, boolean signalled) {
+            waiter.woken = true;
+            waiter.signalled = signalled;
+            synchronized (monitor) {
+                active++;
+                if (waiter.timeout != null) waiter.timeout.cancelled = true;
+            }
+        }
+    }
+}
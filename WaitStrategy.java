@@ -0,0 +1,32 @@
+package Main;
+
+
+// WaitStrategy.java
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * How a RingChannel producer or consumer waits when the ring is full or empty. BLOCKING
+ * parks on a ClockCondition and is woken by the other side. The others poll the ring
+ * without a lock: spinning has the lowest hand-off latency and burns a core per waiting
+ * thread, while PARK gives the core back between polls. Only BLOCKING waits are visible to
+ * a VirtualClock.
+ */
+public enum WaitStrategy {
+    BLOCKING,
+    PARK,
+    YIELD,
+    BUSY_SPIN;
+
+    private static final long PARK_NANOS = 50_000;
+
+    // One idle round for the polling strategies
+    void idle() throws InterruptedException {
+        switch (this) {
+            case PARK: LockSupport.parkNanos(PARK_NANOS); break;
+            case YIELD: Thread.yield(); break;
+            case BUSY_SPIN: Thread.onSpinWait(); break;
+            default: throw new IllegalStateException("BLOCKING waits on a condition, not by polling");
+        }
+        if (Thread.interrupted()) throw new InterruptedException();
+    }
+}
@@ -0,0 +1,60 @@
+package Main;
+
+
+// BatchHandOffBenchmark.java
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/*
+ * Per-order cost of moving orders through a QueueChannel one at a time (batch=1: put/take)
+ * against putAll/drainTo in batches, i.e. what intake micro-batches and pick waves save on
+ * the channel hand-shake itself.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BatchHandOffBenchmark {
+    private static final int ORDERS_PER_OP = 1024;
+
+    @Param({"1", "4", "16", "64"})
+    public int batch;
+
+    private final SimulationClock clock = new RealTimeClock();
+    private final Statistics statistics = new Statistics();
+    private QueueChannel<Order> channel;
+    private List<List<Order>> batches;
+    private List<Order> sink;
+
+    @Setup
+    public void setUp() {
+        channel = new QueueChannel<>("bench", 64, 1, clock, statistics);
+        List<Order> orders = Arrays.asList(BenchmarkSupport.newOrders(ORDERS_PER_OP));
+        batches = new ArrayList<>();
+        for (int i = 0; i < ORDERS_PER_OP; i += batch) {
+            batches.add(orders.subList(i, Math.min(i + batch, ORDERS_PER_OP)));
+        }
+        sink = new ArrayList<>(batch);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS_PER_OP)
+    public int handOff() throws InterruptedException {
+        int moved = 0;
+        if (batch == 1) {
+            for (List<Order> single : batches) {
+                channel.put(single.get(0));
+                moved += channel.take() != null ? 1 : 0;
+            }
+            return moved;
+        }
+        for (List<Order> orders : batches) {
+            channel.putAll(orders);
+            moved += channel.drainTo(sink, batch, 0);
+            sink.clear();
+        }
+        return moved;
+    }
+}
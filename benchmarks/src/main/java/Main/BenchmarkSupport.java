@@ -0,0 +1,28 @@
+package Main;
+
+
+// BenchmarkSupport.java
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+final class BenchmarkSupport {
+    private BenchmarkSupport() { }
+
+    // Stage code logs every activity; keep console I/O out of the measurements
+    static void silenceConsole() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    static Order[] newOrders(int count) {
+        return newOrders(count, 1);
+    }
+
+    // Orders spread round-robin over the given number of zones
+    static Order[] newOrders(int count, int zones) {
+        Order[] orders = new Order[count];
+        for (int i = 0; i < count; i++) {
+            orders[i] = new Order(0L, i % zones);
+        }
+        return orders;
+    }
+}
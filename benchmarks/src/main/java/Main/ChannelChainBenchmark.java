@@ -0,0 +1,103 @@
+package Main;
+
+
+// ChannelChainBenchmark.java
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/*
+ * Orders pushed through the five stage channels (intake->picking ... sorting->loaders) with
+ * one relay thread between each pair, on real time. Compares the lock-based QueueChannel with
+ * the RingChannel under each wait strategy; the per-order time is the end-to-end hand-off
+ * cost of the chain, not counting any stage work.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ChannelChainBenchmark {
+    private static final int ORDERS_PER_OP = 20_000;
+    private static final int CHANNELS = 5;
+    private static final int CAPACITY = 64;
+
+    @Param({"queue", "ring-blocking", "ring-park", "ring-yield", "ring-spin"})
+    public String transport;
+
+    private final SimulationClock clock = new RealTimeClock();
+    private final Statistics statistics = new Statistics();
+    private Order[] orders;
+
+    @Setup
+    public void setUp() {
+        orders = BenchmarkSupport.newOrders(ORDERS_PER_OP);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS_PER_OP)
+    public int chain() throws InterruptedException {
+        List<StageChannel<Order>> channels = newChain();
+        Thread[] relays = new Thread[CHANNELS - 1];
+        for (int i = 0; i < relays.length; i++) {
+            StageChannel<Order> in = channels.get(i);
+            StageChannel<Order> out = channels.get(i + 1);
+            relays[i] = new Thread(() -> relay(in, out), "relay-" + i);
+            relays[i].start();
+        }
+
+        Thread feeder = new Thread(() -> feed(channels.get(0)), "feeder");
+        feeder.start();
+
+        int received = 0;
+        StageChannel<Order> last = channels.get(CHANNELS - 1);
+        while (last.take() != null) {
+            received++;
+        }
+        feeder.join();
+        for (Thread relay : relays) {
+            relay.join();
+        }
+        return received;
+    }
+
+    private void feed(StageChannel<Order> first) {
+        try {
+            for (Order order : orders) {
+                first.put(order);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            first.producerFinished();
+        }
+    }
+
+    private static void relay(StageChannel<Order> in, StageChannel<Order> out) {
+        try {
+            Order order;
+            while ((order = in.take()) != null) {
+                out.put(order);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            out.producerFinished();
+        }
+    }
+
+    private List<StageChannel<Order>> newChain() {
+        List<StageChannel<Order>> channels = new ArrayList<>(CHANNELS);
+        for (int i = 0; i < CHANNELS; i++) {
+            String name = "chain-" + i;
+            if (transport.equals("queue")) {
+                channels.add(new QueueChannel<>(name, CAPACITY, 1, clock, statistics));
+            } else {
+                WaitStrategy strategy = WaitStrategy.valueOf(
+                        transport.substring("ring-".length()).replace("spin", "busy_spin").toUpperCase(Locale.ROOT));
+                channels.add(new RingChannel<>(name, CAPACITY, 1, true, strategy, clock, statistics));
+            }
+        }
+        return channels;
+    }
+}
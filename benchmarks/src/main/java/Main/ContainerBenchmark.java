@@ -0,0 +1,58 @@
+package Main;
+
+
+// ContainerBenchmark.java
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/*
+ * Cost of filling a container. A container keeps its orders in an OrderBuffer: a fixed array
+ * written only by the sorter, so an add is a bounds check and a store, with no lock, no copy
+ * and no allocation beyond the container itself.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ContainerBenchmark {
+    private static final int CONTAINER_CAPACITY = 30;
+    private Order[] orders;
+
+    @Setup
+    public void setUp() {
+        orders = BenchmarkSupport.newOrders(CONTAINER_CAPACITY);
+    }
+
+    // One full container: a new container and its 30-slot buffer, then 30 plain array stores
+    @Benchmark
+    public Container fillContainer() {
+        Container container = new Container();
+        for (Order order : orders) {
+            container.addOrder(order);
+        }
+        return container;
+    }
+
+    // Rejected add once the container is full (the buffer's size check alone)
+    @Benchmark
+    @OperationsPerInvocation(CONTAINER_CAPACITY)
+    public boolean addToFullContainer(FullContainer state) {
+        boolean added = false;
+        for (Order order : orders) {
+            added |= state.container.addOrder(order);
+        }
+        return added;
+    }
+
+    @State(Scope.Thread)
+    public static class FullContainer {
+        Container container;
+
+        @Setup
+        public void setUp() {
+            container = new Container();
+            for (Order order : BenchmarkSupport.newOrders(CONTAINER_CAPACITY)) {
+                container.addOrder(order);
+            }
+        }
+    }
+}
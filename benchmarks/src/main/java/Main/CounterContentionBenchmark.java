@@ -0,0 +1,82 @@
+package Main;
+
+
+// CounterContentionBenchmark.java
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.openjdk.jmh.annotations.*;
+
+/*
+ * Shared counters as Statistics used to keep them (one AtomicInteger, a String-keyed
+ * ConcurrentHashMap of AtomicIntegers) against the striped LongAdder / enum-indexed layout.
+ * Defaults to 16 threads, where the shared cache line bounces between cores; compare thread
+ * counts with e.g. benchmarks.jar 1,16,32 CounterContention. The orderCounters pair updates
+ * orders processed, boxes packed and containers shipped once per call: as three AtomicIntegers,
+ * and through a shared Statistics the way the stage threads do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(16)
+public class CounterContentionBenchmark {
+    private static final RejectionReason[] REASONS = RejectionReason.values();
+
+    private final AtomicInteger atomicCounter = new AtomicInteger();
+    private final LongAdder stripedCounter = new LongAdder();
+    private final ConcurrentHashMap<String, AtomicInteger> reasonsByName = new ConcurrentHashMap<>();
+    private final LongAdder[] reasonsByOrdinal = new LongAdder[REASONS.length];
+
+    private final AtomicInteger ordersProcessed = new AtomicInteger();
+    private final AtomicInteger boxesPacked = new AtomicInteger();
+    private final AtomicInteger containersShipped = new AtomicInteger();
+    private Statistics statistics;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < reasonsByOrdinal.length; i++) {
+            reasonsByOrdinal[i] = new LongAdder();
+        }
+        statistics = new Statistics();
+    }
+
+    @Benchmark
+    public void atomicIncrement() {
+        atomicCounter.incrementAndGet();
+    }
+
+    @Benchmark
+    public void stripedIncrement() {
+        stripedCounter.increment();
+    }
+
+    @Benchmark
+    public void rejectionByName() {
+        RejectionReason reason = REASONS[ThreadLocalRandom.current().nextInt(REASONS.length)];
+        reasonsByName.computeIfAbsent(reason.getDescription(), k -> new AtomicInteger(0)).incrementAndGet();
+        atomicCounter.incrementAndGet();
+    }
+
+    @Benchmark
+    public void rejectionByEnum() {
+        RejectionReason reason = REASONS[ThreadLocalRandom.current().nextInt(REASONS.length)];
+        reasonsByOrdinal[reason.ordinal()].increment();
+        stripedCounter.increment();
+    }
+
+    @Benchmark
+    public void orderCountersAtomic() {
+        ordersProcessed.incrementAndGet();
+        boxesPacked.incrementAndGet();
+        containersShipped.incrementAndGet();
+    }
+
+    @Benchmark
+    public void orderCountersStatistics() {
+        statistics.incrementOrdersProcessed();
+        statistics.incrementBoxesPacked();
+        statistics.incrementContainersShipped();
+    }
+}
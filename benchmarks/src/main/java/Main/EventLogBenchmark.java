@@ -0,0 +1,49 @@
+package Main;
+
+
+// EventLogBenchmark.java
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Cost of one stage log line: the old synchronized println against a typed event record
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EventLogBenchmark {
+    private final PrintStream console = new PrintStream(OutputStream.nullOutputStream());
+    private EventLog eventLog;
+
+    @Setup
+    public void setUp() {
+        eventLog = new EventLog(new DiscardingSink(), EventLevel.DEBUG, new RealTimeClock());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        eventLog.close();
+    }
+
+    @Benchmark
+    public void printlnConcatenated() {
+        int orderId = ThreadLocalRandom.current().nextInt(1, 20000);
+        console.println("PickingStation: Completed picking Order #" + orderId +
+                        " (Thread: " + Thread.currentThread().getName() + ")");
+    }
+
+    @Benchmark
+    public void typedEvent() {
+        eventLog.log(EventType.PICK_COMPLETED, ThreadLocalRandom.current().nextInt(1, 20000));
+    }
+
+    // Measures the recording path only; the writer thread still drains every record
+    private static final class DiscardingSink implements EventSink {
+        @Override public void threadStarted(int threadId, String threadName) { }
+        @Override public void write(long timestamp, EventType type, int threadId, int a, int b, int c, int d) { }
+        @Override public void flush() { }
+        @Override public void close() { }
+    }
+}
@@ -0,0 +1,62 @@
+package Main;
+
+
+// ExecutorModeBenchmark.java
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/*
+ * A whole virtual-clock day at growing truck counts, on platform threads and on virtual threads.
+ * Every truck is a task parked on the clock most of its life, so this measures what a thread
+ * per truck costs. The virtual mode needs a Java 21+ runtime; on older ones its setup fails:
+ *   java -jar benchmarks.jar 1 ExecutorMode   (run with a JDK 21 java)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class ExecutorModeBenchmark {
+    @Param({"10", "100", "1000"})
+    public int trucks;
+
+    @Param({"platform", "virtual"})
+    public String executor;
+
+    private SimulationConfig config;
+    private VirtualClock clock;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkSupport.silenceConsole();
+        config = new SimulationConfig();
+        config.setExecutorMode(ExecutorMode.valueOf(executor.toUpperCase(Locale.ROOT)));
+        if (!config.getExecutorMode().isAvailable()) {
+            throw new IllegalStateException("Executor mode not available on this JVM: " + executor);
+        }
+        config.setTrucks(trucks);
+        config.setLoaders(Math.max(3, trucks / 10));
+        config.setTimeoutMinutes(120);
+        config.setTruckArrivalGap(new DurationRange(100, 300));
+        config.setHeadless(true);
+    }
+
+    @Setup(Level.Invocation)
+    public void newClock() {
+        clock = new VirtualClock();
+    }
+
+    @TearDown(Level.Invocation)
+    public void stopClock() {
+        clock.shutdown();
+    }
+
+    // One 600-order day; every truck and loader gets its own task
+    @Benchmark
+    public int simulateDay() {
+        SwiftCartSimulation simulation = new SwiftCartSimulation(clock, config, EventLog.disabled());
+        simulation.startSimulation();
+        return simulation.getStatistics().getTrucksDispatched();
+    }
+}
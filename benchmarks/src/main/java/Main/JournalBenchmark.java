@@ -0,0 +1,54 @@
+package Main;
+
+
+// JournalBenchmark.java
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.*;
+
+/*
+ * Cost of one journaled stage transition with four stage threads recording at once. With a
+ * sync interval of 0 every record waits for its fsync, so the time per record shows how many
+ * records each group commit absorbs; with an interval the stages only pay for the append.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(4)
+public class JournalBenchmark {
+    @Param({"0", "1", "10"})
+    public long syncMillis;
+
+    private Path file;
+    private OrderJournal journal;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("swiftcart-journal", ".jrnl");
+        journal = OrderJournal.create(file, syncMillis, new RealTimeClock());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.close();
+        System.out.printf("%n%d records in %d commits (avg batch %.1f, fsync avg %.3fms)%n", journal.getRecords(),
+                          journal.getForces(), journal.getAverageBatch(),
+                          journal.getForceMillis() / Math.max(1, journal.getForces()));
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void record(ThreadId thread) {
+        journal.record(JournalRecordType.PICKED, thread.nextOrderId++, 0, thread.id);
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadId {
+        private static final AtomicInteger THREADS = new AtomicInteger();
+        final int id = THREADS.incrementAndGet();
+        int nextOrderId;
+    }
+}
@@ -0,0 +1,122 @@
+package Main;
+
+
+// LoaderDispatchBenchmark.java
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.*;
+
+/*
+ * Containers pushed from one feeder through the loaders into the bays and out on trucks, on
+ * real time with failure-free loaders, from the default 3 loaders / 2 bays up to 32 / 8. The
+ * time per container compares the shared hand-off with per-loader work stealing under each
+ * bay-selection policy; the tear-down line gives the bay balance (busiest bay over the mean)
+ * and the share of containers trucks collected at their own dock.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LoaderDispatchBenchmark {
+    private static final int CONTAINERS_PER_OP = 576; // 32 full trucks
+
+    @Param({"3/2", "8/4", "16/4", "32/8"})
+    public String loadersBays;
+
+    @Param({"shared", "stealing"})
+    public String dispatch;
+
+    @Param({"first-free", "least-loaded", "round-robin", "truck-affinity"})
+    public String baySelection;
+
+    // Loader move time; 0 leaves only the hand-off and bay scheduling cost
+    @Param({"0", "1"})
+    public long loadMillis;
+
+    private final SimulationClock clock = new RealTimeClock();
+    private final Statistics statistics = new Statistics();
+    private final EventLog eventLog = EventLog.disabled();
+    private final OrderJournal journal = OrderJournal.disabled();
+    private int loaderCount;
+    private int bayCount;
+    private long[] received;
+    private double dockShare;
+    private long steals;
+    private int ops;
+
+    @Setup
+    public void setUp() {
+        BenchmarkSupport.silenceConsole();
+        int slash = loadersBays.indexOf('/');
+        loaderCount = Integer.parseInt(loadersBays.substring(0, slash));
+        bayCount = Integer.parseInt(loadersBays.substring(slash + 1));
+        received = new long[bayCount];
+    }
+
+    @TearDown
+    public void tearDown() {
+        long total = 0;
+        long most = 0;
+        for (long count : received) {
+            total += count;
+            most = Math.max(most, count);
+        }
+        System.err.printf(Locale.ROOT, "%nbay balance %.3f, own-dock share %.2f, steals/op %.1f%n",
+                          total == 0 ? 1.0 : (double) most * bayCount / total, dockShare / Math.max(1, ops),
+                          (double) steals / Math.max(1, ops));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CONTAINERS_PER_OP)
+    public int loadTrucks() throws InterruptedException {
+        StageChannel<Container> containerQueue = new QueueChannel<>("sorting->loaders", 2, 1, clock, statistics);
+        BackpressureGate occupancy = new BackpressureGate("bench bays", bayCount * 5, bayCount * 5, clock,
+                                                          statistics, eventLog);
+        LoadingBay[] bays = new LoadingBay[bayCount];
+        for (int i = 0; i < bayCount; i++) {
+            bays[i] = new LoadingBay(i + 1, 5, occupancy);
+        }
+        TruckDispatcher dispatcher = new TruckDispatcher(DispatchPolicy.FULL_LOAD, Truck.MAX_CAPACITY, 300_000, 12, 4);
+        LoaderFleet fleet = new LoaderFleet(loaderCount, 0, loaderCount, 0.0, 0, clock);
+        LoaderWorkQueues work = new LoaderWorkQueues(containerQueue, loaderCount, dispatch.equals("stealing"), 2);
+        BayScheduler scheduler = new BayScheduler(bays, loaderCount, statistics, dispatcher,
+                                                  BaySelection.parse(baySelection), clock);
+        DurationRange moveTime = new DurationRange(loadMillis, loadMillis);
+        DurationRange noRepair = new DurationRange(0, 0);
+
+        // Every truck joins the line at once, so each bay has trucks docked at it from the start
+        AtomicInteger activeTrucks = new AtomicInteger();
+        AtomicInteger containersInSystem = new AtomicInteger(CONTAINERS_PER_OP);
+        int trucks = CONTAINERS_PER_OP / Truck.MAX_CAPACITY;
+        Thread[] threads = new Thread[trucks + loaderCount];
+        for (int i = 0; i < trucks; i++) {
+            activeTrucks.incrementAndGet();
+            threads[i] = new Thread(new Truck(i + 1, scheduler, dispatcher, statistics, activeTrucks, 
+                                              containersInSystem, clock, eventLog, journal), "truck-" + (i + 1));
+        }
+        for (int i = 0; i < loaderCount; i++) {
+            threads[trucks + i] = new Thread(new AutonomousLoader(i + 1, work, scheduler, fleet, statistics, 
+                                                                  moveTime, noRepair, clock, eventLog, journal), 
+                                             "loader-" + (i + 1));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+
+        for (int i = 0; i < CONTAINERS_PER_OP; i++) {
+            containerQueue.put(new Container(i % 4));
+        }
+        containerQueue.producerFinished();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (int i = 0; i < bayCount; i++) {
+            received[i] += bays[i].getContainersReceived();
+        }
+        dockShare += scheduler.getDockShare();
+        steals += work.getSteals();
+        ops++;
+        return containersInSystem.get();
+    }
+}
@@ -0,0 +1,34 @@
+package Main;
+
+
+// OrderBenchmark.java
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OrderBenchmark {
+
+    // Includes the shared id counter; with -prof gc the bytes per op are the order's footprint
+    @Benchmark
+    public Order newOrder() {
+        return new Order(0L);
+    }
+
+    // Derived from the order id on every call
+    @Benchmark
+    public String trackingId(Holder holder) {
+        return holder.order.getTrackingId();
+    }
+
+    @State(Scope.Thread)
+    public static class Holder {
+        Order order;
+
+        @Setup
+        public void setUp() {
+            order = new Order(0L);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package Main;
+
+
+// PipelineBenchmarkRunner.java
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/*
+ * Runs the hot-path benchmarks at each requested thread count so contention shows up.
+ * Usage: java -jar benchmarks/target/benchmarks.jar [threads=1,2,4,8] [include-regex]
+ */
+public class PipelineBenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        String threadList = args.length > 0 ? args[0] : "1,2,4,8";
+        String include = args.length > 1 ? args[1] : "Main\\..*Benchmark";
+
+        List<String> rows = new ArrayList<>();
+        for (String value : threadList.split(",")) {
+            int threads = Integer.parseInt(value.trim());
+            Options options = new OptionsBuilder()
+                    .include(include)
+                    .threads(threads)
+                    .forks(1)
+                    .warmupIterations(3)
+                    .warmupTime(TimeValue.seconds(1))
+                    .measurementIterations(5)
+                    .measurementTime(TimeValue.seconds(1))
+                    .build();
+
+            Collection<RunResult> results = new Runner(options).run();
+            for (RunResult result : results) {
+                // Benchmarks with @Param values get one row per combination, e.g. "...assembleBatches zones=16"
+                StringBuilder name = new StringBuilder(result.getParams().getBenchmark());
+                for (String key : result.getParams().getParamsKeys()) {
+                    name.append(' ').append(key).append('=').append(result.getParams().getParam(key));
+                }
+                rows.add(String.format("%-60s %3d threads %12.3f %s",
+                        name, threads,
+                        result.getPrimaryResult().getScore(), result.getPrimaryResult().getScoreUnit()));
+            }
+        }
+
+        System.out.println("\nSUMMARY (lower is better):");
+        rows.forEach(System.out::println);
+    }
+}
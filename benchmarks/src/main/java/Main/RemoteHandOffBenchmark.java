@@ -0,0 +1,108 @@
+package Main;
+
+
+// RemoteHandOffBenchmark.java
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/*
+ * Per-order cost of a hand-off whose consumer is on the other side of a socket: the producer
+ * puts a batch, the consumer takes it, as in BatchHandOffBenchmark. in-process is a plain
+ * QueueChannel; tcp and unix send the batch as one ORDERS frame over localhost TCP or a Unix
+ * domain socket and return credits, so the difference is the serialization and transport
+ * overhead per order. The tear-down line gives the encode and decode time and wire bytes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RemoteHandOffBenchmark {
+    private static final int ORDERS_PER_OP = 1024;
+    private static final int CAPACITY = 64;
+
+    @Param({"in-process", "tcp", "unix"})
+    public String transport;
+
+    @Param({"1", "16", "64"})
+    public int batch;
+
+    private final SimulationClock clock = new RealTimeClock();
+    private final Statistics statistics = new Statistics();
+    private Order[] orders;
+    private StageSink<Order> producerEnd;
+    private StageSource<Order> consumerEnd;
+    private RemoteOrderSender sender;
+    private RemoteOrderReceiver receiver;
+    private Path socketFile;
+
+    @Setup
+    public void setUp() throws Exception {
+        BenchmarkSupport.silenceConsole();
+        orders = BenchmarkSupport.newOrders(ORDERS_PER_OP, 4);
+        if (transport.equals("in-process")) {
+            QueueChannel<Order> channel = new QueueChannel<>("bench", CAPACITY, 1, clock, statistics);
+            producerEnd = channel;
+            consumerEnd = channel;
+            return;
+        }
+
+        SocketAddress address;
+        if (transport.equals("unix")) {
+            socketFile = Files.createTempDirectory("swiftcart-bench").resolve("handoff.sock");
+            address = UnixDomainSocketAddress.of(socketFile);
+        } else {
+            try (ServerSocket probe = new ServerSocket(0)) {
+                address = InetSocketAddress.createUnresolved("localhost", probe.getLocalPort());
+            }
+        }
+        // A linger longer than any op, so every frame leaves full
+        sender = new RemoteOrderSender("bench", 1, batch, 60_000, clock, statistics);
+        receiver = new RemoteOrderReceiver("bench", CAPACITY, batch, clock, statistics);
+        Thread acceptor = new Thread(() -> {
+            try {
+                receiver.accept(address, 1);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        acceptor.start();
+        sender.connect(address, 1, 10_000, null);
+        acceptor.join();
+        producerEnd = sender;
+        consumerEnd = receiver;
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        if (sender == null) return;
+        sender.producerFinished(); // END, so the receiver sees a clean end of stream
+        while (consumerEnd.take() != null) { }
+        sender.close();
+        if (socketFile != null) Files.deleteIfExists(socketFile.getParent());
+        System.err.printf(Locale.ROOT, "%nencode %.0fns, decode %.0fns, %.1f bytes per order, %d frames%n",
+                          sender.getEncodeNanosPerOrder(), receiver.getDecodeNanosPerOrder(),
+                          (double) sender.getBytes() / Math.max(1, sender.getSent()), sender.getFrames());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS_PER_OP)
+    public int handOff() throws InterruptedException {
+        int moved = 0;
+        for (int i = 0; i < ORDERS_PER_OP; i += batch) {
+            for (int j = i; j < i + batch; j++) {
+                producerEnd.put(orders[j]);
+            }
+            for (int j = i; j < i + batch; j++) {
+                moved += consumerEnd.take() != null ? 1 : 0;
+            }
+        }
+        return moved;
+    }
+}
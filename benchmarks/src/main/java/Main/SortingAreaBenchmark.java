@@ -0,0 +1,44 @@
+package Main;
+
+
+// SortingAreaBenchmark.java
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SortingAreaBenchmark {
+    private static final int ORDERS_PER_OP = 7680; // 1280 batches, 256 full containers with one zone
+
+    // Per-zone accumulators must keep up with intake however many zones there are
+    @Param({"1", "16", "256"})
+    public int zones;
+
+    private final SimulationClock clock = new RealTimeClock();
+    private final Statistics statistics = new Statistics();
+    private final AtomicInteger containersInSystem = new AtomicInteger();
+    private final EventLog eventLog = EventLog.disabled();
+    private Order[] orders;
+
+    @Setup
+    public void setUp() {
+        BenchmarkSupport.silenceConsole();
+        orders = BenchmarkSupport.newOrders(ORDERS_PER_OP, zones);
+    }
+
+    // Batch assembly and zone container packing for one op's worth of labelled orders
+    @Benchmark
+    public int assembleBatches() throws InterruptedException {
+        StageChannel<Order> incoming = new QueueChannel<>("bench-in", 1, 1, clock, statistics);
+        StageChannel<Container> outgoing = new QueueChannel<>("bench-out", ORDERS_PER_OP, 1, clock, statistics);
+        SortingArea sorter = new SortingArea(incoming, outgoing, statistics, containersInSystem, zones, 
+                                             0, clock, eventLog, OrderJournal.disabled());
+        for (Order order : orders) {
+            sorter.sortOrder(order);
+        }
+        sorter.flushFinalBatch();
+        return outgoing.size();
+    }
+}
@@ -0,0 +1,42 @@
+package Main;
+
+
+// StatisticsBenchmark.java
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// One Statistics instance shared by all benchmark threads, as in the simulation
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StatisticsBenchmark {
+    private static final RejectionReason[] REASONS = RejectionReason.values();
+
+    private Statistics statistics;
+
+    @Setup
+    public void setUp() {
+        statistics = new Statistics();
+    }
+
+    @Benchmark
+    public void addRejection() {
+        statistics.addRejection(REASONS[ThreadLocalRandom.current().nextInt(REASONS.length)]);
+    }
+
+    @Benchmark
+    public void recordLoadingTime() {
+        statistics.recordLoadingTime(ThreadLocalRandom.current().nextInt(1000, 60000));
+    }
+
+    @Benchmark
+    public void recordStageLatency() {
+        statistics.recordStageLatency(Statistics.STAGE_PICKING, ThreadLocalRandom.current().nextInt(0, 60000));
+    }
+
+    @Benchmark
+    public void incrementOrdersProcessed() {
+        statistics.incrementOrdersProcessed();
+    }
+}
@@ -0,0 +1,173 @@
+package Main;
+
+
+// JournalReplayTest.java
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class JournalReplayTest {
+    private static final int RECORDS = 13; // Written by writeDay()
+
+    @TempDir
+    Path directory;
+
+    private final SimulationClock clock = new RealTimeClock();
+    private Path path;
+
+    @BeforeEach
+    void writeDay() throws IOException {
+        path = directory.resolve("day.wal");
+        OrderJournal journal = OrderJournal.create(path, 0, clock);
+        // Order 1 is packed and in flight
+        journal.record(JournalRecordType.RECEIVED, 1, 2, 0);
+        journal.record(JournalRecordType.PICKED, 1, 2, 1);
+        journal.record(JournalRecordType.PACKED, 1, 2, 1);
+        // Order 2 is rejected at picking
+        journal.record(JournalRecordType.RECEIVED, 2, 0, 0);
+        journal.record(JournalRecordType.REJECTED, 2, 0, RejectionReason.MISSING_ITEMS.ordinal());
+        // Order 3 rides container 10 onto truck 5
+        journal.record(JournalRecordType.RECEIVED, 3, 1, 0);
+        journal.record(JournalRecordType.PICKED, 3, 1, 2);
+        journal.record(JournalRecordType.PACKED, 3, 1, 1);
+        journal.record(JournalRecordType.LABELLED, 3, 1, 1);
+        journal.record(JournalRecordType.SORTED, 3, 1, 10);
+        journal.record(JournalRecordType.LOADED, 10, 1, 2);
+        journal.record(JournalRecordType.DEPARTED, 10, 1, 5);
+        // Order 4 is rejected at intake, its only record
+        journal.record(JournalRecordType.REJECTED, 4, 3, RejectionReason.PAYMENT_FAILED.ordinal());
+        journal.close();
+        assertEquals(OrderJournal.MAGIC.length + RECORDS * OrderJournal.RECORD_BYTES, Files.size(path));
+    }
+
+    @Test
+    void intactJournalReplaysEveryTransition() throws IOException {
+        JournalReplay replay = JournalReplay.read(path);
+
+        assertEquals(RECORDS, replay.getRecords());
+        assertEquals(0, replay.getDiscardedBytes());
+        assertEquals(Files.size(path), replay.getValidBytes());
+        assertEquals(4, replay.getMaxOrderId());
+        assertEquals(10, replay.getMaxContainerId());
+
+        List<JournalReplay.OrderState> orders = new ArrayList<>(replay.getOrders());
+        assertEquals(4, orders.size());
+        assertEquals(JournalRecordType.PACKED, orders.get(0).getLastTransition());
+        assertTrue(orders.get(0).isPacked());
+        assertEquals(JournalRecordType.REJECTED, orders.get(1).getLastTransition());
+        assertEquals(RejectionReason.MISSING_ITEMS, orders.get(1).rejection);
+        assertFalse(orders.get(1).isPacked());
+        assertEquals(JournalRecordType.SORTED, orders.get(2).getLastTransition());
+        assertTrue(orders.get(2).isPacked());
+        assertFalse(orders.get(3).verified);
+        assertEquals(RejectionReason.PAYMENT_FAILED, orders.get(3).rejection);
+
+        JournalReplay.ContainerState container = replay.getContainers().iterator().next();
+        assertEquals(10, container.getContainerId());
+        assertTrue(container.isLoaded());
+        assertTrue(container.isDeparted());
+        assertEquals(1, container.orders.size());
+        assertTrue(replay.getDepartedTrucks().contains(5));
+    }
+
+    @Test
+    void tornTailIsDroppedAndEverythingBeforeItKept() throws IOException {
+        long intact = Files.size(path);
+        // A crash halfway through writing the next record
+        byte[] partial = new byte[OrderJournal.RECORD_BYTES / 2];
+        partial[0] = 42;
+        Files.write(path, partial, StandardOpenOption.APPEND);
+
+        JournalReplay replay = JournalReplay.read(path);
+        assertEquals(RECORDS, replay.getRecords());
+        assertEquals(intact, replay.getValidBytes());
+        assertEquals(partial.length, replay.getDiscardedBytes());
+        assertEquals(4, replay.getOrders().size());
+    }
+
+    @Test
+    void corruptRecordEndsReplay() throws IOException {
+        // Flip one byte inside the sixth record (order 3 RECEIVED)
+        int corrupt = 5;
+        corruptByte(OrderJournal.MAGIC.length + corrupt * OrderJournal.RECORD_BYTES + 13);
+
+        JournalReplay replay = JournalReplay.read(path);
+        assertEquals(corrupt, replay.getRecords());
+        assertEquals(OrderJournal.MAGIC.length + corrupt * OrderJournal.RECORD_BYTES, replay.getValidBytes());
+        assertEquals((RECORDS - corrupt) * OrderJournal.RECORD_BYTES, replay.getDiscardedBytes());
+        assertEquals(2, replay.getOrders().size());
+        assertTrue(replay.getContainers().isEmpty());
+        assertTrue(replay.getDepartedTrucks().isEmpty());
+    }
+
+    @Test
+    void corruptChecksumOnTheLastRecordDropsOnlyThatRecord() throws IOException {
+        corruptByte(Files.size(path) - 1);
+
+        JournalReplay replay = JournalReplay.read(path);
+        assertEquals(RECORDS - 1, replay.getRecords());
+        assertEquals(OrderJournal.RECORD_BYTES, replay.getDiscardedBytes());
+        assertEquals(3, replay.getOrders().size()); // Order 4 existed only in the lost record
+    }
+
+    @Test
+    void recordWithUnknownTypeEndsReplayEvenWithAValidChecksum() throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(OrderJournal.RECORD_BYTES);
+        record.putLong(1_000).put((byte) 99).put((byte) 0).putShort((short) 0).putInt(5).putInt(0);
+        CRC32C crc = new CRC32C();
+        crc.update(record.array(), 0, OrderJournal.CHECKED_BYTES);
+        record.putInt((int) crc.getValue());
+        Files.write(path, record.array(), StandardOpenOption.APPEND);
+
+        JournalReplay replay = JournalReplay.read(path);
+        assertEquals(RECORDS, replay.getRecords());
+        assertEquals(OrderJournal.RECORD_BYTES, replay.getDiscardedBytes());
+    }
+
+    @Test
+    void resumedJournalOverwritesTheTornTail() throws IOException {
+        Files.write(path, new byte[7], StandardOpenOption.APPEND);
+        JournalReplay torn = JournalReplay.read(path);
+
+        OrderJournal journal = OrderJournal.resume(path, torn, 0, clock);
+        journal.record(JournalRecordType.LABELLED, 1, 2, 1);
+        journal.close();
+
+        JournalReplay replay = JournalReplay.read(path);
+        assertEquals(RECORDS + 1, replay.getRecords());
+        assertEquals(0, replay.getDiscardedBytes());
+        assertEquals(JournalRecordType.LABELLED, replay.getOrders().iterator().next().getLastTransition());
+        assertTrue(replay.getLastDayTime() >= torn.getLastDayTime());
+    }
+
+    @Test
+    void fileWithoutTheHeaderIsRejected() throws IOException {
+        Path empty = directory.resolve("empty.wal");
+        Files.write(empty, new byte[3]);
+        assertThrows(EOFException.class, () -> JournalReplay.read(empty));
+
+        Path other = directory.resolve("other.wal");
+        Files.write(other, "NOTAJRNL and then some".getBytes());
+        assertThrows(IOException.class, () -> JournalReplay.read(other));
+    }
+
+    private void corruptByte(long offset) throws IOException {
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[(int) offset] ^= 0x5A;
+        Files.write(path, bytes);
+    }
+}
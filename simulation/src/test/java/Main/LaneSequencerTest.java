@@ -0,0 +1,115 @@
+package Main;
+
+
+// LaneSequencerTest.java
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class LaneSequencerTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final SimulationClock clock = new RealTimeClock();
+    private final Statistics statistics = new Statistics();
+    private final LaneSequencer sequencer = new LaneSequencer(true, clock);
+    private final StageChannel<Order> in = new QueueChannel<>("in", 16, 1, clock, statistics);
+    private final StageChannel<Order> out = new QueueChannel<>("out", 16, 1, clock, statistics);
+
+    private Order[] fill(int count) throws InterruptedException {
+        Order[] orders = new Order[count];
+        for (int i = 0; i < count; i++) {
+            orders[i] = new Order(0L);
+            in.put(orders[i]);
+        }
+        return orders;
+    }
+
+    private LaneSequencer.Lane take() throws InterruptedException {
+        LaneSequencer.Lane lane = new LaneSequencer.Lane();
+        assertTrue(sequencer.take(in, lane));
+        return lane;
+    }
+
+    // A lane that stops on its turn hands the turn straight to the next ticket
+    @Test
+    void releasingTheCurrentTicketLetsTheNextEmit() {
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            Order[] orders = fill(2);
+            LaneSequencer.Lane first = take();
+            LaneSequencer.Lane second = take();
+
+            sequencer.release(first);
+            sequencer.emit(second, out);
+
+            assertSame(orders[1], out.take());
+        });
+    }
+
+    // A ticket released before its turn is passed over once the earlier tickets are out
+    @Test
+    void ticketReleasedOutOfTurnIsSkipped() {
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            Order[] orders = fill(3);
+            LaneSequencer.Lane first = take();
+            LaneSequencer.Lane second = take();
+            LaneSequencer.Lane third = take();
+
+            sequencer.release(second);
+            sequencer.emit(first, out);
+            sequencer.emit(third, out);
+
+            assertSame(orders[0], out.take());
+            assertSame(orders[2], out.take());
+        });
+    }
+
+    // A lane interrupted while waiting for its turn does not hold up the lanes behind it
+    @Test
+    void interruptedLaneDoesNotBlockLaterTickets() {
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            Order[] orders = fill(3);
+            LaneSequencer.Lane first = take();
+            LaneSequencer.Lane second = take();
+            LaneSequencer.Lane third = take();
+
+            Thread waiting = new Thread(() -> {
+                try {
+                    sequencer.emit(second, out);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    sequencer.release(second);
+                }
+            });
+            waiting.start();
+            waiting.interrupt();
+            waiting.join();
+
+            sequencer.emit(first, out);
+            sequencer.emit(third, out);
+
+            assertSame(orders[0], out.take());
+            assertSame(orders[2], out.take());
+        });
+    }
+
+    // Releasing after an emit or skip is a no-op, so stations can always release when they stop
+    @Test
+    void releaseAfterEmitDoesNothing() {
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            Order[] orders = fill(2);
+            LaneSequencer.Lane first = take();
+            LaneSequencer.Lane second = take();
+
+            sequencer.emit(first, out);
+            sequencer.release(first);
+            sequencer.emit(second, out);
+
+            assertSame(orders[0], out.take());
+            assertSame(orders[1], out.take());
+        });
+    }
+}
@@ -0,0 +1,143 @@
+package Main;
+
+
+// LatencyHistogramTest.java
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+    @Test
+    void valuesBelowTheFirstSubBucketRangeAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram(1);
+        for (int value = 1; value <= 100; value++) {
+            histogram.record(value);
+        }
+        LatencySnapshot snapshot = histogram.snapshot();
+        assertEquals(100, snapshot.getCount());
+        assertEquals(1, snapshot.getMin());
+        assertEquals(100, snapshot.getMax());
+        assertEquals(50, snapshot.getMean());
+        assertEquals(50, snapshot.percentile(50));
+        assertEquals(95, snapshot.percentile(95));
+        assertEquals(99, snapshot.percentile(99));
+        assertEquals(100, snapshot.percentile(100));
+    }
+
+    @Test
+    void percentilesAreWithinOneBucketAboveTheExactValue() {
+        LatencyHistogram histogram = new LatencyHistogram(4);
+        Random random = new Random(42);
+        long[] values = new long[20_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.exp(random.nextDouble() * Math.log(1_000_000_000L));
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        LatencySnapshot snapshot = histogram.snapshot();
+
+        for (double percentile : new double[] { 1, 10, 50, 90, 95, 99, 99.9, 100 }) {
+            long exact = values[(int) Math.ceil(percentile / 100.0 * values.length) - 1];
+            long reported = snapshot.percentile(percentile);
+            assertTrue(reported >= exact, "p" + percentile + " " + reported + " below exact " + exact);
+            assertTrue(reported <= exact + exact / LatencyHistogram.SUB_BUCKET_COUNT,
+                       "p" + percentile + " " + reported + " more than one bucket above exact " + exact);
+        }
+        assertEquals(values[0], snapshot.getMin());
+        assertEquals(values[values.length - 1], snapshot.getMax());
+        assertEquals(snapshot.getMax(), snapshot.percentile(100));
+    }
+
+    @Test
+    void everyBucketCoversTheValuesBetweenItsBounds() {
+        for (int index = 0; index < LatencyHistogram.BUCKET_COUNT; index++) {
+            long lowest = LatencyHistogram.lowestValue(index);
+            long highest = LatencyHistogram.highestValue(index);
+            assertEquals(index, LatencyHistogram.bucketIndex(lowest));
+            assertEquals(index, LatencyHistogram.bucketIndex(highest));
+            if (index > 0) assertEquals(LatencyHistogram.highestValue(index - 1) + 1, lowest);
+        }
+        assertEquals(LatencyHistogram.MAX_VALUE, LatencyHistogram.highestValue(LatencyHistogram.BUCKET_COUNT - 1));
+    }
+
+    @Test
+    void outOfRangeValuesAreClamped() {
+        LatencyHistogram histogram = new LatencyHistogram(1);
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+        LatencySnapshot snapshot = histogram.snapshot();
+        assertEquals(2, snapshot.getCount());
+        assertEquals(0, snapshot.getMin());
+        assertEquals(LatencyHistogram.MAX_VALUE, snapshot.getMax());
+        assertEquals(0, snapshot.percentile(50));
+        assertEquals(LatencyHistogram.MAX_VALUE, snapshot.percentile(100));
+    }
+
+    @Test
+    void emptyHistogramReportsZero() {
+        LatencySnapshot snapshot = new LatencyHistogram().snapshot();
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0, snapshot.getMin());
+        assertEquals(0, snapshot.getMean());
+        assertEquals(0, snapshot.percentile(99));
+    }
+
+    @Test
+    void concurrentRecordersLoseNothing() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram(8);
+        Thread[] recorders = new Thread[8];
+        for (int t = 0; t < recorders.length; t++) {
+            recorders[t] = new Thread(() -> {
+                for (int i = 1; i <= 10_000; i++) {
+                    histogram.record(i);
+                }
+            });
+            recorders[t].start();
+        }
+        for (Thread recorder : recorders) {
+            recorder.join();
+        }
+        LatencySnapshot snapshot = histogram.snapshot();
+        assertEquals(80_000, snapshot.getCount());
+        assertEquals(8 * (10_000L * 10_001 / 2), snapshot.getTotal());
+        assertEquals(1, snapshot.getMin());
+        assertEquals(10_000, snapshot.getMax());
+    }
+
+    @Test
+    void intervalSnapshotHoldsOnlyTheLatestInterval() {
+        LatencyHistogram histogram = new LatencyHistogram(1);
+        histogram.record(10);
+        histogram.record(20);
+        assertEquals(2, histogram.intervalSnapshot().getCount());
+
+        histogram.record(1000);
+        LatencySnapshot interval = histogram.intervalSnapshot();
+        assertEquals(1, interval.getCount());
+        assertEquals(1000, interval.getTotal());
+        assertTrue(interval.getMin() >= 1000 - 1000 / LatencyHistogram.SUB_BUCKET_COUNT);
+        assertEquals(1000, interval.getMax());
+
+        assertEquals(0, histogram.intervalSnapshot().getCount());
+        assertEquals(3, histogram.snapshot().getCount());
+    }
+
+    @Test
+    void addMergesAnotherHistogram() {
+        LatencyHistogram first = new LatencyHistogram(1);
+        LatencyHistogram second = new LatencyHistogram(1);
+        first.record(5);
+        second.record(500);
+        second.record(7);
+        first.add(second.snapshot());
+        LatencySnapshot merged = first.snapshot();
+        assertEquals(3, merged.getCount());
+        assertEquals(512, merged.getTotal());
+        assertEquals(5, merged.getMin());
+        assertEquals(500, merged.getMax());
+    }
+}
@@ -0,0 +1,156 @@
+package Main;
+
+
+// OrderWireTest.java
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class OrderWireTest {
+    private SocketChannel writer;
+    private SocketChannel reader;
+
+    @BeforeEach
+    void connect() throws IOException {
+        try (ServerSocketChannel server = OrderWire.listen(InetSocketAddress.createUnresolved("localhost", 0))) {
+            int port = ((InetSocketAddress) server.getLocalAddress()).getPort();
+            writer = OrderWire.connect(InetSocketAddress.createUnresolved("localhost", port));
+            reader = OrderWire.accept(server);
+        }
+    }
+
+    @AfterEach
+    void close() throws IOException {
+        writer.close();
+        reader.close();
+    }
+
+    @Test
+    void orderRoundTripsWithItsStageEntryAndRejection() {
+        Order order = new Order(1_000, 3);
+        order.completeStage(1_500);
+        order.reject(RejectionReason.QUALITY_CHECK_FAILED);
+
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        OrderWire.putOrder(buffer, order, 250); // Downstream clock runs 250ms ahead
+        assertEquals(OrderWire.ORDER_BYTES, buffer.position());
+        buffer.flip();
+        Order decoded = OrderWire.getOrder(buffer);
+
+        assertEquals(OrderWire.ORDER_BYTES, buffer.position());
+        assertEquals(order.getOrderId(), decoded.getOrderId());
+        assertEquals(1_250, decoded.getCreationTime());
+        assertEquals(3, decoded.getZone());
+        assertEquals(500, decoded.getStageEnteredOffset());
+        assertEquals(RejectionReason.QUALITY_CHECK_FAILED, decoded.getRejectionReason());
+        assertEquals(order.getTrackingId(), decoded.getTrackingId());
+        assertEquals(100, decoded.completeStage(1_850)); // Stage time continues from where it left off
+    }
+
+    @Test
+    void extremeFieldValuesSurvive() {
+        Order order = Order.received(Integer.MAX_VALUE, -5_000, Short.MAX_VALUE, Integer.MAX_VALUE, (byte) 0);
+        ByteBuffer buffer = ByteBuffer.allocate(OrderWire.ORDER_BYTES);
+        OrderWire.putOrder(buffer, order, 0);
+        Order decoded = OrderWire.getOrder(buffer.flip());
+
+        assertEquals(Integer.MAX_VALUE, decoded.getOrderId());
+        assertEquals(-5_000, decoded.getCreationTime());
+        assertEquals(Short.MAX_VALUE, decoded.getZone());
+        assertEquals(Integer.MAX_VALUE, decoded.getStageEnteredOffset());
+        assertFalse(decoded.isRejected());
+        assertNull(decoded.getRejectionReason());
+    }
+
+    @Test
+    void framesRoundTripOverASocket() throws IOException {
+        Order[] orders = new Order[3];
+        ByteBuffer frame = ByteBuffer.allocate(OrderWire.ORDERS_HEADER_BYTES + orders.length * OrderWire.ORDER_BYTES);
+        OrderWire.begin(frame, OrderWire.ORDERS).putShort((short) orders.length);
+        for (int i = 0; i < orders.length; i++) {
+            orders[i] = new Order(10_000 + i, i);
+            OrderWire.putOrder(frame, orders[i], 0);
+        }
+        assertEquals(frame.capacity(), frame.position());
+        OrderWire.write(writer, OrderWire.finish(frame));
+
+        ByteBuffer credit = OrderWire.begin(ByteBuffer.allocate(12), OrderWire.CREDIT);
+        credit.putInt(16);
+        OrderWire.write(writer, OrderWire.finish(credit));
+        writer.shutdownOutput();
+
+        ByteBuffer received = ByteBuffer.allocate(256);
+        assertTrue(OrderWire.read(reader, received));
+        assertEquals(OrderWire.ORDERS, received.get());
+        assertEquals(orders.length, received.getShort());
+        for (Order order : orders) {
+            Order decoded = OrderWire.getOrder(received);
+            assertEquals(order.getOrderId(), decoded.getOrderId());
+            assertEquals(order.getCreationTime(), decoded.getCreationTime());
+            assertEquals(order.getZone(), decoded.getZone());
+        }
+        assertFalse(received.hasRemaining());
+
+        assertTrue(OrderWire.read(reader, received));
+        assertEquals(OrderWire.CREDIT, received.get());
+        assertEquals(16, received.getInt());
+
+        assertFalse(OrderWire.read(reader, received)); // Clean end of stream between frames
+    }
+
+    @Test
+    void connectionClosedInsideAFrameIsAnError() throws IOException {
+        ByteBuffer partial = ByteBuffer.allocate(6);
+        partial.putInt(20).put(OrderWire.ORDERS).put((byte) 0).flip(); // Promises 20 bytes, sends 2
+        OrderWire.write(writer, partial);
+        writer.shutdownOutput();
+
+        assertThrows(EOFException.class, () -> OrderWire.read(reader, ByteBuffer.allocate(64)));
+    }
+
+    @Test
+    void badFrameLengthsAreRejected() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(4);
+        header.putInt(0).flip();
+        OrderWire.write(writer, header);
+        assertThrows(IOException.class, () -> OrderWire.read(reader, ByteBuffer.allocate(64)));
+    }
+
+    @Test
+    void frameLargerThanTheBufferIsRejected() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(4);
+        header.putInt(100).flip();
+        OrderWire.write(writer, header);
+        assertThrows(IOException.class, () -> OrderWire.read(reader, ByteBuffer.allocate(64)));
+    }
+
+    @Test
+    void addressesParse() {
+        SocketAddress inet = OrderWire.parseAddress("example.com:7400");
+        assertEquals("example.com", ((InetSocketAddress) inet).getHostString());
+        assertEquals(7400, ((InetSocketAddress) inet).getPort());
+
+        SocketAddress unix = OrderWire.parseAddress("unix:/tmp/swiftcart.sock");
+        assertEquals(Path.of("/tmp/swiftcart.sock"), ((UnixDomainSocketAddress) unix).getPath());
+
+        assertThrows(IllegalArgumentException.class, () -> OrderWire.parseAddress("unix:"));
+        assertThrows(IllegalArgumentException.class, () -> OrderWire.parseAddress("7400"));
+        assertThrows(IllegalArgumentException.class, () -> OrderWire.parseAddress("localhost:0"));
+        assertThrows(IllegalArgumentException.class, () -> OrderWire.parseAddress("localhost:70000"));
+    }
+}
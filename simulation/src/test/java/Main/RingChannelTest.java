@@ -0,0 +1,187 @@
+package Main;
+
+
+// RingChannelTest.java
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class RingChannelTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final SimulationClock clock = new RealTimeClock();
+    private final Statistics statistics = new Statistics();
+
+    private RingChannel<Integer> channel(int capacity, int producers, boolean singleWriter, WaitStrategy waitStrategy) {
+        return new RingChannel<>("test", capacity, producers, singleWriter, waitStrategy, clock, statistics);
+    }
+
+    // Several producers and consumers: every item arrives exactly once and every consumer sees the end
+    @ParameterizedTest
+    @CsvSource({ "BLOCKING, 8", "BLOCKING, 7", "PARK, 16", "YIELD, 5" })
+    void everyItemIsTakenExactlyOnce(WaitStrategy waitStrategy, int capacity) {
+        int producers = 4;
+        int consumers = 3;
+        int perProducer = 5_000;
+        RingChannel<Integer> channel = channel(capacity, producers, false, waitStrategy);
+        AtomicIntegerArray seen = new AtomicIntegerArray(producers * perProducer);
+
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            List<Thread> threads = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                int first = p * perProducer;
+                threads.add(new Thread(() -> {
+                    try {
+                        for (int i = first; i < first + perProducer; i++) {
+                            channel.put(i);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        channel.producerFinished();
+                    }
+                }));
+            }
+            for (int c = 0; c < consumers; c++) {
+                threads.add(new Thread(() -> {
+                    try {
+                        Integer item;
+                        while ((item = channel.take()) != null) {
+                            seen.incrementAndGet(item);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+            }
+            for (Thread thread : threads) {
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        });
+
+        for (int i = 0; i < seen.length(); i++) {
+            assertEquals(1, seen.get(i), "item " + i);
+        }
+        assertTrue(channel.isDrained());
+        assertEquals(0, channel.size());
+        assertEquals(producers * perProducer, channel.getHandOffs());
+    }
+
+    @Test
+    void singleWriterKeepsFifoOrder() {
+        RingChannel<Integer> channel = channel(4, 1, true, WaitStrategy.BLOCKING);
+        List<Integer> taken = new ArrayList<>();
+
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            Thread producer = new Thread(() -> {
+                try {
+                    for (int i = 0; i < 1_000; i++) {
+                        channel.put(i);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    channel.producerFinished();
+                }
+            });
+            producer.start();
+            Integer item;
+            while ((item = channel.take()) != null) {
+                taken.add(item);
+            }
+            producer.join();
+        });
+
+        assertEquals(1_000, taken.size());
+        for (int i = 0; i < taken.size(); i++) {
+            assertEquals(i, taken.get(i));
+        }
+    }
+
+    @Test
+    void itemsQueuedBeforeTheLastProducerFinishesAreStillDelivered() throws InterruptedException {
+        RingChannel<Integer> channel = channel(4, 1, false, WaitStrategy.BLOCKING);
+        channel.put(1);
+        channel.put(2);
+        channel.producerFinished();
+
+        assertFalse(channel.isDrained());
+        assertEquals(1, channel.poll(0));
+        assertEquals(2, channel.take());
+        assertTrue(channel.isDrained());
+        assertNull(channel.take());
+        assertNull(channel.poll(1_000));
+    }
+
+    @Test
+    void endOfStreamWaitsForEveryProducer() throws InterruptedException {
+        RingChannel<Integer> channel = channel(4, 2, false, WaitStrategy.BLOCKING);
+        channel.producerFinished();
+
+        assertFalse(channel.isDrained());
+        assertNull(channel.poll(20)); // Times out: the second producer is still open
+        channel.put(7);
+        assertEquals(7, channel.poll(0));
+        channel.producerFinished();
+        assertTrue(channel.isDrained());
+        assertNull(channel.take());
+    }
+
+    @Test
+    void lastProducerFinishingWakesBlockedConsumers() {
+        RingChannel<Integer> channel = channel(4, 1, false, WaitStrategy.BLOCKING);
+
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            List<Thread> consumers = new ArrayList<>();
+            List<Integer> results = new ArrayList<>();
+            for (int c = 0; c < 3; c++) {
+                Thread consumer = new Thread(() -> {
+                    try {
+                        Integer item = channel.take();
+                        synchronized (results) {
+                            results.add(item);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                consumers.add(consumer);
+                consumer.start();
+            }
+            Thread.sleep(100); // Let every consumer park on the empty ring
+            channel.producerFinished();
+            for (Thread consumer : consumers) {
+                consumer.join();
+            }
+            assertEquals(3, results.size());
+            for (Integer result : results) {
+                assertNull(result);
+            }
+        });
+    }
+
+    @Test
+    void drainToMovesQueuedItemsInOneCall() throws InterruptedException {
+        RingChannel<Integer> channel = channel(8, 1, true, WaitStrategy.BLOCKING);
+        for (int i = 0; i < 6; i++) {
+            channel.put(i);
+        }
+        List<Integer> sink = new ArrayList<>();
+        assertEquals(4, channel.drainTo(sink, 4, 0));
+        assertEquals(List.of(0, 1, 2, 3), sink);
+        assertEquals(2, channel.size());
+    }
+}